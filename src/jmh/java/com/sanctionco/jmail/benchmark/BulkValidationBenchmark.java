@@ -0,0 +1,110 @@
+package com.sanctionco.jmail.benchmark;
+
+import com.sanctionco.jmail.EmailValidationResult;
+import com.sanctionco.jmail.EmailValidator;
+import com.sanctionco.jmail.JMail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link EmailValidator#validateAll(java.util.Collection, ForkJoinPool)} and
+ * {@link EmailValidator#validateAll(java.util.stream.Stream, ForkJoinPool)} with a
+ * {@link ForkJoinPool} of 1 to N workers, compared with validating the same addresses one at a
+ * time in a loop. Each operation validates {@link #SIZE} addresses taken in turn from the valid,
+ * invalid and quoted corpora, so the scores show how throughput scales with the number of
+ * workers.
+ *
+ * <p>A parallelism of {@code 0} uses one worker for each available processor. Parallelism
+ * beyond the number of available processors cannot improve the score. The sequential loop does
+ * not use a pool, so it runs once as the baseline for every parallelism.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkValidationBenchmark {
+  private static final int SIZE = 100_000;
+
+  @Benchmark
+  public List<EmailValidationResult> validateAllCollection(AddressState state, PoolState pool) {
+    return state.validator.validateAll(state.addresses, pool.pool);
+  }
+
+  @Benchmark
+  public List<EmailValidationResult> validateAllStream(AddressState state, PoolState pool) {
+    return state.validator.validateAll(state.addresses.stream(), pool.pool)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<EmailValidationResult> sequentialLoop(AddressState state) {
+    List<EmailValidationResult> results = new ArrayList<>(state.addresses.size());
+    for (String address : state.addresses) {
+      results.add(state.validator.validate(address));
+    }
+
+    return results;
+  }
+
+  @State(Scope.Benchmark)
+  public static class AddressState {
+    final EmailValidator validator = JMail.strictValidator();
+
+    List<String> addresses;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      List<String> corpus = new ArrayList<>();
+      for (String name : new String[] {Corpus.VALID, Corpus.INVALID, Corpus.QUOTED}) {
+        for (String address : Corpus.load(name)) {
+          corpus.add(address);
+        }
+      }
+
+      addresses = new ArrayList<>(SIZE);
+      for (int i = 0; i < SIZE; i++) {
+        addresses.add(corpus.get(i % corpus.size()));
+      }
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class PoolState {
+
+    @Param({"1", "2", "4", "8", "0"})
+    public int parallelism;
+
+    ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      pool = new ForkJoinPool(parallelism == 0
+          ? Runtime.getRuntime().availableProcessors()
+          : parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      pool.shutdown();
+    }
+  }
+}
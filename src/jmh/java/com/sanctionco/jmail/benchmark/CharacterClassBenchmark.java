@@ -0,0 +1,100 @@
+package com.sanctionco.jmail.benchmark;
+
+import com.sanctionco.jmail.internal.CharacterClass;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link CharacterClass#contains(char)} compared with the
+ * {@code HashSet<Character>} that it replaced, both holding the characters that are not allowed
+ * outside of quotes in the local-part. Each invocation checks every character of a corpus:
+ *
+ * <ul>
+ *   <li>{@code ascii}: 200 ASCII characters taken from typical addresses
+ *   <li>{@code mixed}: 152 characters that mix ASCII with internationalized characters, some of
+ *   which are members of the set
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CharacterClassBenchmark {
+  private static final char[] MEMBERS = {
+      '\t', '(', ')', ',', ':', ';', '<', '>', '@', '[', ']', '"',
+      '␁', '␂', '␃', '␄', '␅', '␆', '␇', '␈', '␋', '␌', '␎', '␏', '␐', '␑',
+      '␒', '␓', '␔', '␕', '␖', '␗', '␘', '␙', '␚', '␛', '␜', '␝', '␟'};
+
+  private static final String ASCII = "first.last+tag@sub.example-domain.com,"
+      + "\"quoted (c) text\".local@example.org;"
+      + "user@[IPv6:2001:db8:85a3::8a2e:370:7334] "
+      + "john.smith(comment)@example.com,"
+      + "<admin@mailserver>:\"very.unusual.@.unusual.com\"@ex.co";
+
+  private static final String MIXED = "jørn.山田@bücher.example.com,"
+      + "用户@例子.广告;"
+      + "δοκιμή@παράδειγμα.δοκιμή ␁␂"
+      + "我買@屋企.香港 (comment)"
+      + "二ノ宮@黒川.日本,"
+      + "медведь@с-балалайкой.рф:"
+      + "संपर्क@डाटामेल.भारत␛␟"
+      + "test@éxample.com";
+
+  @Param({"ascii", "mixed"})
+  public String corpus;
+
+  private char[] chars;
+  private Set<Character> hashSet;
+  private CharacterClass characterClass;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    chars = ("ascii".equals(corpus) ? ASCII : MIXED).toCharArray();
+
+    hashSet = new HashSet<>();
+    for (char c : MEMBERS) {
+      hashSet.add(c);
+    }
+
+    characterClass = CharacterClass.of(MEMBERS);
+  }
+
+  @Benchmark
+  public int hashSet() {
+    int count = 0;
+
+    for (char c : chars) {
+      if (hashSet.contains(c)) count++;
+    }
+
+    return count;
+  }
+
+  @Benchmark
+  public int characterClass() {
+    int count = 0;
+
+    for (char c : chars) {
+      if (characterClass.contains(c)) count++;
+    }
+
+    return count;
+  }
+}
@@ -0,0 +1,100 @@
+package com.sanctionco.jmail.benchmark;
+
+import com.sanctionco.jmail.EmailValidationResult;
+import com.sanctionco.jmail.JMail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for validating addresses built to be expensive for the comment scanner, at
+ * increasing lengths up to the 320 characters that an address can have. Comments are scanned
+ * once with a depth counter, so the time taken should grow linearly with the length of the
+ * address, whatever its shape:
+ *
+ * <ul>
+ *   <li>{@code nested}: a single comment that is nested as deeply as the length allows, such as
+ *   {@code "a((((...))))@example.com"}
+ *   <li>{@code unclosed}: a comment that is opened again and again but never closed, so the
+ *   scanner reaches the end of the address before failing
+ *   <li>{@code escaped}: a single comment made up of escaped parentheses
+ *   <li>{@code many}: many short comments around the parts of the domain
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CommentBenchmark {
+  private static final String DOMAIN = "@example.com";
+
+  @Param({"nested", "unclosed", "escaped", "many"})
+  public String shape;
+
+  @Param({"40", "80", "160", "320"})
+  public int length;
+
+  private String address;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    int available = length - DOMAIN.length() - 1;
+    StringBuilder builder = new StringBuilder("a");
+
+    switch (shape) {
+      case "nested":
+        repeat(builder, "(", available / 2);
+        repeat(builder, ")", available / 2);
+        builder.append(DOMAIN);
+        break;
+      case "unclosed":
+        repeat(builder, "(", available);
+        builder.append(DOMAIN);
+        break;
+      case "escaped":
+        builder.append('(');
+        repeat(builder, "\\(", (available - 2) / 2);
+        builder.append(')').append(DOMAIN);
+        break;
+      case "many":
+        builder.append('@');
+        repeat(builder, "(c)a.", (available - 3) / 5);
+        builder.append("com");
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown shape " + shape);
+    }
+
+    address = builder.toString();
+  }
+
+  @Benchmark
+  public EmailValidationResult validate() {
+    return JMail.validate(address);
+  }
+
+  @Benchmark
+  public boolean isValid() {
+    return JMail.isValid(address);
+  }
+
+  private static void repeat(StringBuilder builder, String s, int count) {
+    for (int i = 0; i < count; i++) {
+      builder.append(s);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.sanctionco.jmail.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads the sets of addresses that the benchmarks run against. Each corpus is a resource in
+ * {@code src/jmh/resources/corpus} with one address per line.
+ */
+final class Corpus {
+  static final String VALID = "valid";
+  static final String INVALID = "invalid";
+  static final String QUOTED = "quoted";
+  static final String IDN = "idn";
+  static final String SOURCE_ROUTED = "source-routed";
+  static final String IP_LITERAL = "ip-literal";
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private Corpus() {
+  }
+
+  /**
+   * Load the addresses in the corpus with the given name.
+   *
+   * @param name the name of the corpus, such as {@link #VALID}
+   * @return the addresses in the corpus
+   */
+  static String[] load(String name) {
+    return readLines("/corpus/" + name + ".txt");
+  }
+
+  /**
+   * Read all non-empty lines of the given classpath resource.
+   *
+   * @param resource the absolute name of the resource
+   * @return the lines of the resource
+   */
+  static String[] readLines(String resource) {
+    try (InputStream in = Corpus.class.getResourceAsStream(resource)) {
+      if (in == null) throw new IllegalArgumentException("Missing resource " + resource);
+
+      BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+      return reader.lines()
+          .filter(line -> !line.isEmpty())
+          .toArray(String[]::new);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.sanctionco.jmail.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark state that hands out the addresses of a corpus one at a time, in a round-robin
+ * order. Each benchmark operation works on a single address, so the reported throughput and
+ * {@code gc.alloc.rate.norm} are averages over every address in the corpus.
+ */
+@State(Scope.Thread)
+public class CorpusState {
+
+  @Param({
+      Corpus.VALID, Corpus.INVALID, Corpus.QUOTED,
+      Corpus.IDN, Corpus.SOURCE_ROUTED, Corpus.IP_LITERAL})
+  public String corpus;
+
+  private String[] addresses;
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    addresses = Corpus.load(corpus);
+  }
+
+  /**
+   * Get the next address in the corpus.
+   *
+   * @return the next address
+   */
+  public String next() {
+    String address = addresses[index];
+    index = index + 1 == addresses.length ? 0 : index + 1;
+
+    return address;
+  }
+}
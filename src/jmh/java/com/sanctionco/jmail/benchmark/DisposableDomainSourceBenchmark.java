@@ -0,0 +1,122 @@
+package com.sanctionco.jmail.benchmark;
+
+import com.sanctionco.jmail.JMail;
+import com.sanctionco.jmail.disposable.DisposableDomainSource;
+import com.sanctionco.jmail.disposable.DomainMatching;
+import com.sanctionco.jmail.disposable.IndexSource;
+import com.sanctionco.jmail.disposable.InputStreamSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link DisposableDomainSource#isDisposableDomain(String)} of an
+ * {@link InputStreamSource} (matching exact domains or subdomains) and an {@link IndexSource}
+ * (on the heap or memory-mapped from a file), with or without a bloom filter prefilter, all
+ * loaded with the blocklist of disposable domains used by the tests. Lookups either hit a
+ * disposable domain (in lowercase, in uppercase, or as a subdomain) or miss with the domains of
+ * the valid corpus. Subdomain hits only match with subdomain matching.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DisposableDomainSourceBenchmark {
+  private static final String BLOCKLIST = "/disposable_email_blocklist.conf";
+
+  @Param({"inputStream", "inputStream-subdomains", "inputStream-prefilter", "index",
+      "index-prefilter", "mappedIndex"})
+  public String source;
+
+  @Param({"hit", "hit-uppercase", "hit-subdomain", "miss"})
+  public String lookup;
+
+  private DisposableDomainSource domainSource;
+  private String[] domains;
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    try (InputStream in = getClass().getResourceAsStream(BLOCKLIST)) {
+      switch (source) {
+        case "index":
+          domainSource = IndexSource.builder().addAll(in).build();
+          break;
+        case "index-prefilter":
+          domainSource = IndexSource.builder().addAll(in).build().withPrefilter(0.01);
+          break;
+        case "mappedIndex":
+          Path indexFile = Files.createTempFile("blocklist", ".idx");
+          indexFile.toFile().deleteOnExit();
+
+          IndexSource.builder().addAll(in).writeTo(indexFile);
+          domainSource = DisposableDomainSource.mappedIndex(indexFile);
+          break;
+        case "inputStream-subdomains":
+          domainSource = DisposableDomainSource.inputStream(in, DomainMatching.SUBDOMAINS);
+          break;
+        case "inputStream-prefilter":
+          domainSource = ((InputStreamSource) DisposableDomainSource.inputStream(in))
+              .withPrefilter(0.01);
+          break;
+        default:
+          domainSource = DisposableDomainSource.inputStream(in);
+      }
+    }
+
+    // Spread the hits across the whole blocklist
+    String[] blocklist = Corpus.readLines(BLOCKLIST);
+    String[] hits = new String[64];
+
+    for (int i = 0; i < hits.length; i++) {
+      hits[i] = blocklist[i * (blocklist.length / hits.length)];
+    }
+
+    switch (lookup) {
+      case "hit":
+        domains = hits;
+        break;
+      case "hit-uppercase":
+        domains = Arrays.stream(hits).map(d -> d.toUpperCase(Locale.ROOT)).toArray(String[]::new);
+        break;
+      case "hit-subdomain":
+        domains = Arrays.stream(hits).map(d -> "mail." + d).toArray(String[]::new);
+        break;
+      default:
+        domains = Arrays.stream(Corpus.load(Corpus.VALID))
+            .map(JMail::tryParse)
+            .filter(Optional::isPresent)
+            .map(email -> email.get().domainWithoutComments())
+            .toArray(String[]::new);
+    }
+  }
+
+  @Benchmark
+  public boolean isDisposableDomain() {
+    String domain = domains[index];
+    index = index + 1 == domains.length ? 0 : index + 1;
+
+    return domainSource.isDisposableDomain(domain);
+  }
+}
@@ -0,0 +1,78 @@
+package com.sanctionco.jmail.benchmark;
+
+import com.sanctionco.jmail.disposable.DisposableDomainSource;
+import com.sanctionco.jmail.disposable.IndexSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for loading the blocklist of disposable domains used by the tests, either from
+ * the text file with {@link DisposableDomainSource#file(String)}, or from a binary index file
+ * with {@link DisposableDomainSource#index(Path)} or
+ * {@link DisposableDomainSource#mappedIndex(Path)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DisposableDomainSourceLoadBenchmark {
+  private static final String BLOCKLIST = "/disposable_email_blocklist.conf";
+
+  private Path textFile;
+  private Path indexFile;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    textFile = Files.createTempFile("blocklist", ".conf");
+    indexFile = Files.createTempFile("blocklist", ".idx");
+
+    try (InputStream in = getClass().getResourceAsStream(BLOCKLIST)) {
+      Files.copy(in, textFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    try (InputStream in = Files.newInputStream(textFile)) {
+      IndexSource.builder().addAll(in).writeTo(indexFile);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() throws IOException {
+    Files.deleteIfExists(textFile);
+    Files.deleteIfExists(indexFile);
+  }
+
+  @Benchmark
+  public DisposableDomainSource loadTextFile() throws IOException {
+    return DisposableDomainSource.file(textFile.toString());
+  }
+
+  @Benchmark
+  public DisposableDomainSource loadIndexFile() throws IOException {
+    return DisposableDomainSource.index(indexFile);
+  }
+
+  @Benchmark
+  public DisposableDomainSource mapIndexFile() throws IOException {
+    return DisposableDomainSource.mappedIndex(indexFile);
+  }
+}
@@ -0,0 +1,77 @@
+package com.sanctionco.jmail.benchmark;
+
+import com.sanctionco.jmail.Email;
+import com.sanctionco.jmail.JMail;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the different versions of an address that an {@link Email} can create.
+ *
+ * <p>The addresses are parsed once during setup, so these benchmarks measure only the cost of
+ * creating each version of an already parsed address.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EmailBenchmark {
+
+  @Param({Corpus.VALID, Corpus.QUOTED, Corpus.IDN, Corpus.SOURCE_ROUTED, Corpus.IP_LITERAL})
+  public String corpus;
+
+  private Email[] emails;
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    emails = Arrays.stream(Corpus.load(corpus))
+        .map(address -> JMail.tryParse(address)
+            .orElseThrow(() -> new IllegalStateException("Invalid address " + address)))
+        .toArray(Email[]::new);
+  }
+
+  @Benchmark
+  public String normalized() {
+    return next().normalized();
+  }
+
+  @Benchmark
+  public String reference() throws NoSuchAlgorithmException {
+    return next().reference();
+  }
+
+  @Benchmark
+  public String redacted() throws NoSuchAlgorithmException {
+    return next().redacted();
+  }
+
+  @Benchmark
+  public String munged() {
+    return next().munged();
+  }
+
+  private Email next() {
+    Email email = emails[index];
+    index = index + 1 == emails.length ? 0 : index + 1;
+
+    return email;
+  }
+}
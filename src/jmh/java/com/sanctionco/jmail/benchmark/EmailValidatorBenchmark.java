@@ -0,0 +1,95 @@
+package com.sanctionco.jmail.benchmark;
+
+import com.sanctionco.jmail.EmailValidationResult;
+import com.sanctionco.jmail.EmailValidator;
+import com.sanctionco.jmail.JMail;
+import com.sanctionco.jmail.TopLevelDomain;
+import com.sanctionco.jmail.disposable.DisposableDomainSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link EmailValidator#validate(String)} with each of the built-in rules
+ * added on its own to {@link JMail#strictValidator()}, or with no additional rule at all.
+ *
+ * <p>The {@code requireValidMXRecord} rule performs DNS lookups, so its results depend on the
+ * network. Exclude it with {@code -p rule=...} when benchmarking offline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailValidatorBenchmark {
+
+  @Param({
+      "none",
+      "allowNonstandardDots",
+      "disallowIpDomain",
+      "requireTopLevelDomain",
+      "disallowSingleCharacterTopLevelDomains",
+      "disallowExplicitSourceRouting",
+      "disallowQuotedIdentifiers",
+      "disallowReservedDomains",
+      "requireOnlyTopLevelDomains",
+      "disallowObsoleteWhitespace",
+      "requireValidMXRecord",
+      "disallowDisposableDomains",
+      "requireAscii"})
+  public String rule;
+
+  private EmailValidator validator;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    validator = withRule(JMail.validator(), rule);
+  }
+
+  @Benchmark
+  public EmailValidationResult validate(CorpusState state) {
+    return validator.validate(state.next());
+  }
+
+  private static EmailValidator withRule(EmailValidator validator, String rule)
+      throws IOException {
+    switch (rule) {
+      case "none": return validator;
+      case "allowNonstandardDots": return validator.allowNonstandardDots();
+      case "disallowIpDomain": return validator.disallowIpDomain();
+      case "requireTopLevelDomain": return validator.requireTopLevelDomain();
+      case "disallowSingleCharacterTopLevelDomains":
+        return validator.disallowSingleCharacterTopLevelDomains();
+      case "disallowExplicitSourceRouting": return validator.disallowExplicitSourceRouting();
+      case "disallowQuotedIdentifiers": return validator.disallowQuotedIdentifiers();
+      case "disallowReservedDomains": return validator.disallowReservedDomains();
+      case "requireOnlyTopLevelDomains":
+        return validator.requireOnlyTopLevelDomains(
+            TopLevelDomain.DOT_COM, TopLevelDomain.DOT_ORG, TopLevelDomain.DOT_NET);
+      case "disallowObsoleteWhitespace": return validator.disallowObsoleteWhitespace();
+      case "requireValidMXRecord": return validator.requireValidMXRecord();
+      case "disallowDisposableDomains":
+        try (InputStream in = EmailValidatorBenchmark.class
+            .getResourceAsStream("/disposable_email_blocklist.conf")) {
+          return validator.disallowDisposableDomains(DisposableDomainSource.inputStream(in));
+        }
+      case "requireAscii": return validator.requireAscii();
+      default: throw new IllegalArgumentException("Unknown rule " + rule);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.sanctionco.jmail.benchmark;
+
+import com.sanctionco.jmail.JMail;
+import com.sanctionco.jmail.normalization.IDNConverter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link IDNConverter#labelsToAsciiDomain(List)}, using the domain parts of
+ * either the ASCII or the internationalized addresses in the corpora.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IDNConverterBenchmark {
+
+  @Param({Corpus.VALID, Corpus.IDN})
+  public String corpus;
+
+  private List<List<String>> domains;
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    domains = Arrays.stream(Corpus.load(corpus))
+        .map(JMail::tryParse)
+        .filter(Optional::isPresent)
+        .map(email -> email.get().domainParts())
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public String labelsToAsciiDomain() {
+    List<String> labels = domains.get(index);
+    index = index + 1 == domains.size() ? 0 : index + 1;
+
+    return IDNConverter.labelsToAsciiDomain(labels);
+  }
+}
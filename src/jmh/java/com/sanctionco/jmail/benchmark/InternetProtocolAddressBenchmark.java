@@ -0,0 +1,65 @@
+package com.sanctionco.jmail.benchmark;
+
+import com.sanctionco.jmail.net.InternetProtocolAddress;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link InternetProtocolAddress#validate(String)}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class InternetProtocolAddressBenchmark {
+  private static final String[] IPV4 = {
+      "192.168.2.1", "10.0.0.1", "255.255.255.255", "127.0.0.1", "8.8.8.8", "172.16.254.3"};
+
+  private static final String[] IPV6 = {
+      "2001:db8::1", "2001:db8:85a3::8a2e:370:7334", "::1", "::12.34.56.78",
+      "fe80::1ff:fe23:4567:890a", "2001:0db8:0000:0000:0000:ff00:0042:8329",
+      "1111:2222:3333:4444:5555:6666:123.123.123.123"};
+
+  private static final String[] INVALID = {
+      "1.2.3.256", "1.2.3", "1.2.3.4.5", "a.b.c.d",
+      "2001:db8::g", "1:2:3:4:5:6:7:8:9", ":1::2", ""};
+
+  @Param({"ipv4", "ipv6", "invalid"})
+  public String addresses;
+
+  private String[] ips;
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    switch (addresses) {
+      case "ipv4": ips = IPV4; break;
+      case "ipv6": ips = IPV6; break;
+      default: ips = INVALID;
+    }
+  }
+
+  @Benchmark
+  public Optional<String> validate() {
+    String ip = ips[index];
+    index = index + 1 == ips.length ? 0 : index + 1;
+
+    return InternetProtocolAddress.validate(ip);
+  }
+}
@@ -0,0 +1,49 @@
+package com.sanctionco.jmail.benchmark;
+
+import com.sanctionco.jmail.EmailParser;
+import com.sanctionco.jmail.EmailValidationResult;
+import com.sanctionco.jmail.JMail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the basic validation methods in {@link JMail}, and for validating with an
+ * {@link EmailParser} that the benchmark thread keeps and reuses.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JMailBenchmark {
+
+  @Benchmark
+  public boolean isValid(CorpusState state) {
+    return JMail.isValid(state.next());
+  }
+
+  @Benchmark
+  public EmailValidationResult validate(CorpusState state) {
+    return JMail.validate(state.next());
+  }
+
+  @Benchmark
+  public EmailValidationResult parserValidate(ParserState parser, CorpusState state) {
+    return parser.parser.validate(state.next());
+  }
+
+  @State(Scope.Thread)
+  public static class ParserState {
+    final EmailParser parser = new EmailParser();
+  }
+}
@@ -0,0 +1,84 @@
+package com.sanctionco.jmail.benchmark;
+
+import com.sanctionco.jmail.JMail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link JMail#isValid(byte[], int, int)} and {@link JMail#isValid(ByteBuffer)}
+ * with addresses that arrive as UTF-8 bytes, compared with decoding the bytes into a
+ * {@code String} first.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class Utf8Benchmark {
+
+  @Param({Corpus.VALID, Corpus.INVALID, Corpus.IDN})
+  public String corpus;
+
+  private byte[][] addresses;
+  private ByteBuffer[] buffers;
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    String[] strings = Corpus.load(corpus);
+
+    addresses = new byte[strings.length][];
+    buffers = new ByteBuffer[strings.length];
+
+    for (int i = 0; i < strings.length; i++) {
+      addresses[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+      buffers[i] = ByteBuffer.allocateDirect(addresses[i].length).put(addresses[i]);
+      buffers[i].flip();
+    }
+  }
+
+  @Benchmark
+  public boolean decodeThenIsValid() {
+    byte[] address = next();
+
+    return JMail.isValid(new String(address, 0, address.length, StandardCharsets.UTF_8));
+  }
+
+  @Benchmark
+  public boolean isValidBytes() {
+    byte[] address = next();
+
+    return JMail.isValid(address, 0, address.length);
+  }
+
+  @Benchmark
+  public boolean isValidDirectBuffer() {
+    ByteBuffer buffer = buffers[index];
+    index = index + 1 == buffers.length ? 0 : index + 1;
+
+    return JMail.isValid(buffer);
+  }
+
+  private byte[] next() {
+    byte[] address = addresses[index];
+    index = index + 1 == addresses.length ? 0 : index + 1;
+
+    return address;
+  }
+}
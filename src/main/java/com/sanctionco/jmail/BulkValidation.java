@@ -0,0 +1,158 @@
+package com.sanctionco.jmail;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Validates many email addresses at once with an {@link EmailValidator}, spread across the
+ * workers of a {@link ForkJoinPool}.
+ *
+ * <p>The addresses are split in halves until each range is small enough to be worth running
+ * as a single task, and each task validates its range in one loop, writing each result to the
+ * same index of the results that its address has in the input. Tasks that are not stolen by
+ * another worker are run by the worker that split them, so most ranges stay on one thread.
+ * Each range is parsed with the {@link EmailParser} of the worker that validates it.
+ *
+ * <p>Streams of addresses are validated in batches of {@link #BATCH_SIZE}, so that only one
+ * batch of addresses and results is held in memory at a time, no matter how long the stream.
+ */
+final class BulkValidation {
+  static final int BATCH_SIZE = 16_384;
+
+  // Below this many addresses, the cost of forking a task outweighs validating in place
+  private static final int MIN_TASK_SIZE = 256;
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private BulkValidation() {
+  }
+
+  /**
+   * Validate every address in the given array, in parallel on the given pool.
+   *
+   * @param validator the validator to validate the addresses with
+   * @param emails the addresses to validate
+   * @param count the number of addresses at the start of the array to validate
+   * @param pool the pool to validate the addresses in
+   * @return the results of the validation, in the same order as the addresses
+   */
+  static EmailValidationResult[] validate(EmailValidator validator, String[] emails, int count,
+                                          ForkJoinPool pool) {
+    EmailValidationResult[] results = new EmailValidationResult[count];
+
+    if (count <= MIN_TASK_SIZE) {
+      validateRange(validator, emails, results, 0, count);
+    } else {
+      // Split into a few tasks per worker, so that workers that finish early can steal work
+      int taskSize = Math.max(MIN_TASK_SIZE, count / (pool.getParallelism() * 8));
+
+      pool.invoke(new ValidateTask(validator, emails, results, 0, count, taskSize));
+    }
+
+    return results;
+  }
+
+  /**
+   * Create an iterator over the results of validating the addresses from the given iterator,
+   * which validates the addresses in batches in parallel on the given pool.
+   *
+   * @param validator the validator to validate the addresses with
+   * @param emails the addresses to validate
+   * @param pool the pool to validate the addresses in
+   * @return an iterator over the results, in the same order as the addresses
+   */
+  static Iterator<EmailValidationResult> iterator(EmailValidator validator,
+                                                  Iterator<String> emails, ForkJoinPool pool) {
+    return new BatchIterator(validator, emails, pool);
+  }
+
+  private static void validateRange(EmailValidator validator, String[] emails,
+                                    EmailValidationResult[] results, int from, int to) {
+    // Look up the parser of the worker once for the whole range, instead of for every address
+    EmailParser parser = EmailParser.pooled();
+
+    for (int i = from; i < to; i++) {
+      results[i] = validator.validate(emails[i], parser);
+    }
+  }
+
+  private static final class ValidateTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final EmailValidator validator;
+    private final String[] emails;
+    private final EmailValidationResult[] results;
+    private final int from;
+    private final int to;
+    private final int taskSize;
+
+    ValidateTask(EmailValidator validator, String[] emails, EmailValidationResult[] results,
+                 int from, int to, int taskSize) {
+      this.validator = validator;
+      this.emails = emails;
+      this.results = results;
+      this.from = from;
+      this.to = to;
+      this.taskSize = taskSize;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= taskSize) {
+        validateRange(validator, emails, results, from, to);
+        return;
+      }
+
+      int middle = (from + to) >>> 1;
+
+      invokeAll(
+          new ValidateTask(validator, emails, results, from, middle, taskSize),
+          new ValidateTask(validator, emails, results, middle, to, taskSize));
+    }
+  }
+
+  private static final class BatchIterator implements Iterator<EmailValidationResult> {
+    private final EmailValidator validator;
+    private final Iterator<String> emails;
+    private final ForkJoinPool pool;
+    private final String[] batch = new String[BATCH_SIZE];
+
+    private EmailValidationResult[] results = new EmailValidationResult[0];
+    private int position;
+
+    BatchIterator(EmailValidator validator, Iterator<String> emails, ForkJoinPool pool) {
+      this.validator = validator;
+      this.emails = emails;
+      this.pool = pool;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (position < results.length) return true;
+      if (!emails.hasNext()) return false;
+
+      int count = 0;
+      while (count < batch.length && emails.hasNext()) {
+        batch[count++] = emails.next();
+      }
+
+      results = validate(validator, batch, count, pool);
+      position = 0;
+
+      return true;
+    }
+
+    @Override
+    public EmailValidationResult next() {
+      if (!hasNext()) throw new NoSuchElementException();
+
+      EmailValidationResult result = results[position];
+      results[position++] = null;
+
+      return result;
+    }
+  }
+}
@@ -8,6 +8,8 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -17,62 +19,69 @@ import java.util.Optional;
  * Represents an email address.
  */
 public final class Email {
-  private final String localPart;
-  private final String localPartWithoutComments;
-  private final String localPartWithoutQuotes;
-  private final String domain;
-  private final String domainWithoutComments;
-  private final String fullSourceRoute;
+  // The parser records where each part of the address begins and ends in the original input,
+  // instead of copying the parts out. The offsets array starts with a fixed header, and is
+  // followed by a [start, end) pair for every comment and for every quoted-string whose quotes
+  // cannot be removed, in the order that they appear in the address. Comments start with '('
+  // and quoted-strings start with '"', which is how the two kinds of pair are told apart.
+  // An explicit source route runs from SOURCE_ROUTE_START up to the start of the local-part.
+  static final int LOCAL_PART_START = 0;   // index of the first character of the local-part
+  static final int DOMAIN_START = 1;       // index of the first character of the domain
+  static final int END = 2;                // index after the last character of the domain
+  static final int IP_ADDRESS_START = 3;   // index of the first character of the IP, or -1
+  static final int SOURCE_ROUTE_START = 4; // index of the source route, or LOCAL_PART_START
+  static final int HEADER_LENGTH = 5;
+
+  private final String source;
+  private final int[] offsets;
   private final String identifier;
-  private final List<String> domainParts;
-  private final List<String> comments;
-  private final List<String> sourceRoutes;
   private final boolean isIpAddress;
   private final boolean containsWhitespace;
   private final boolean isAscii;
   private final boolean hasIdentifier;
-  private final TopLevelDomain tld;
-
-  Email(String localPart, String localPartWithoutComments, String localPartWithoutQuotes,
-        String domain, String domainWithoutComments,
-        String fullSourceRoute,
-        List<String> domainParts, List<String> comments, List<String> sourceRoutes,
-        boolean isIpAddress, boolean containsWhitespace, boolean isAscii) {
-    this.localPart = localPart;
-    this.localPartWithoutComments = localPartWithoutComments;
-    this.localPartWithoutQuotes = localPartWithoutQuotes;
-    this.domain = domain;
-    this.domainWithoutComments = domainWithoutComments;
-    this.fullSourceRoute = fullSourceRoute;
-    this.domainParts = Collections.unmodifiableList(domainParts);
-    this.comments = Collections.unmodifiableList(comments);
-    this.sourceRoutes = Collections.unmodifiableList(sourceRoutes);
+
+  // Derived from the source and offsets on first access. Each value is immutable and computed
+  // the same way every time, so threads that race to compute a value simply compute it twice.
+  private String localPart;
+  private String localPartWithoutComments;
+  private String localPartWithoutQuotes;
+  private String domain;
+  private String domainWithoutComments;
+  private List<String> domainParts;
+  private List<String> comments;
+  private List<String> sourceRoutes;
+  private String fullSourceRoute;
+  private TopLevelDomain tld;
+
+  Email(String source, int[] offsets, boolean isIpAddress, boolean containsWhitespace,
+        boolean isAscii) {
+    this.source = source;
+    this.offsets = offsets;
     this.isIpAddress = isIpAddress;
     this.containsWhitespace = containsWhitespace;
     this.isAscii = isAscii;
     this.identifier = null;
     this.hasIdentifier = false;
-
-    this.tld = domainParts.size() > 1
-        ? TopLevelDomain.fromString(domainParts.get(domainParts.size() - 1))
-        : TopLevelDomain.NONE;
   }
 
   Email(Email other, String identifier) {
+    this.source = other.source;
+    this.offsets = other.offsets;
+    this.identifier = identifier;
+    this.isIpAddress = other.isIpAddress;
+    this.containsWhitespace = other.containsWhitespace;
+    this.isAscii = other.isAscii;
+    this.hasIdentifier = identifier != null && !identifier.isEmpty();
+
     this.localPart = other.localPart;
     this.localPartWithoutComments = other.localPartWithoutComments;
     this.localPartWithoutQuotes = other.localPartWithoutQuotes;
     this.domain = other.domain;
     this.domainWithoutComments = other.domainWithoutComments;
-    this.fullSourceRoute = other.fullSourceRoute;
-    this.identifier = identifier;
     this.domainParts = other.domainParts;
     this.comments = other.comments;
     this.sourceRoutes = other.sourceRoutes;
-    this.isIpAddress = other.isIpAddress;
-    this.containsWhitespace = other.containsWhitespace;
-    this.isAscii = other.isAscii;
-    this.hasIdentifier = identifier != null && !identifier.isEmpty();
+    this.fullSourceRoute = other.fullSourceRoute;
     this.tld = other.tld;
   }
 
@@ -96,6 +105,13 @@ public final class Email {
    * @return the local-part string
    */
   public String localPart() {
+    String localPart = this.localPart;
+
+    if (localPart == null) {
+      localPart = source.substring(offsets[LOCAL_PART_START], offsets[DOMAIN_START] - 1);
+      this.localPart = localPart;
+    }
+
     return localPart;
   }
 
@@ -108,6 +124,15 @@ public final class Email {
    * @return the local-part string without comments
    */
   public String localPartWithoutComments() {
+    String localPartWithoutComments = this.localPartWithoutComments;
+
+    if (localPartWithoutComments == null) {
+      localPartWithoutComments = offsets.length == HEADER_LENGTH
+          ? localPart()
+          : strip(offsets[LOCAL_PART_START], offsets[DOMAIN_START] - 1, false);
+      this.localPartWithoutComments = localPartWithoutComments;
+    }
+
     return localPartWithoutComments;
   }
 
@@ -118,6 +143,22 @@ public final class Email {
    * @return the domain string
    */
   public String domain() {
+    String domain = this.domain;
+
+    if (domain == null) {
+      if (!isIpAddress) {
+        domain = source.substring(offsets[DOMAIN_START], offsets[END]);
+      } else if (offsets[DOMAIN_START] == offsets[IP_ADDRESS_START] - 1) {
+        domain = domainWithoutComments();
+      } else {
+        // Comments before the opening bracket are part of the domain
+        domain = source.substring(offsets[DOMAIN_START], offsets[IP_ADDRESS_START] - 1)
+            + domainWithoutComments();
+      }
+
+      this.domain = domain;
+    }
+
     return domain;
   }
 
@@ -130,6 +171,21 @@ public final class Email {
    * @return the domain string without comments
    */
   public String domainWithoutComments() {
+    String domainWithoutComments = this.domainWithoutComments;
+
+    if (domainWithoutComments == null) {
+      if (isIpAddress) {
+        // The IP address is everything between the brackets
+        domainWithoutComments = source.substring(offsets[IP_ADDRESS_START], offsets[END] - 1);
+      } else if (offsets.length == HEADER_LENGTH) {
+        domainWithoutComments = domain();
+      } else {
+        domainWithoutComments = strip(offsets[DOMAIN_START], offsets[END], false);
+      }
+
+      this.domainWithoutComments = domainWithoutComments;
+    }
+
     return domainWithoutComments;
   }
 
@@ -151,6 +207,15 @@ public final class Email {
    * @return the list of domain part strings
    */
   public List<String> domainParts() {
+    List<String> domainParts = this.domainParts;
+
+    if (domainParts == null) {
+      domainParts = isIpAddress
+          ? Collections.singletonList(domainWithoutComments())
+          : splitDomainParts(domainWithoutComments());
+      this.domainParts = domainParts;
+    }
+
     return domainParts;
   }
 
@@ -161,6 +226,25 @@ public final class Email {
    * @return the list of comment strings
    */
   public List<String> comments() {
+    List<String> comments = this.comments;
+
+    if (comments == null) {
+      String[] found = new String[(offsets.length - HEADER_LENGTH) / 2];
+      int count = 0;
+
+      for (int i = HEADER_LENGTH; i < offsets.length; i += 2) {
+        if (source.charAt(offsets[i]) == '(') {
+          // add the comment without ()
+          found[count++] = source.substring(offsets[i] + 1, offsets[i + 1] - 1);
+        }
+      }
+
+      comments = count == 0
+          ? Collections.emptyList()
+          : Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(found, count)));
+      this.comments = comments;
+    }
+
     return comments;
   }
 
@@ -177,6 +261,35 @@ public final class Email {
    * @return the list of explicit source routes
    */
   public List<String> explicitSourceRoutes() {
+    List<String> sourceRoutes = this.sourceRoutes;
+
+    if (sourceRoutes == null) {
+      int start = offsets[SOURCE_ROUTE_START];
+      int end = offsets[LOCAL_PART_START];
+
+      if (start == end) {
+        sourceRoutes = Collections.emptyList();
+      } else {
+        List<String> found = new ArrayList<>();
+
+        // The parser has already validated the route, so it is a list of "@route" separated
+        // by ',' and ended by ':'
+        for (int i = start; i < end; ) {
+          int routeEnd = i + 1;
+          while (source.charAt(routeEnd) != ',' && source.charAt(routeEnd) != ':') {
+            routeEnd++;
+          }
+
+          found.add(source.substring(i + 1, routeEnd));
+          i = routeEnd + 1;
+        }
+
+        sourceRoutes = Collections.unmodifiableList(found);
+      }
+
+      this.sourceRoutes = sourceRoutes;
+    }
+
     return sourceRoutes;
   }
 
@@ -234,6 +347,17 @@ public final class Email {
    *         if the email does not have a top level domain
    */
   public TopLevelDomain topLevelDomain() {
+    TopLevelDomain tld = this.tld;
+
+    if (tld == null) {
+      List<String> domainParts = domainParts();
+
+      tld = domainParts.size() > 1
+          ? TopLevelDomain.fromString(domainParts.get(domainParts.size() - 1))
+          : TopLevelDomain.NONE;
+      this.tld = tld;
+    }
+
     return tld;
   }
 
@@ -411,8 +535,8 @@ public final class Email {
 
   private String normalizedLocalPart(NormalizationOptions options) {
     String localPart = options.shouldStripQuotes()
-        ? localPartWithoutQuotes
-        : localPartWithoutComments;
+        ? localPartWithoutQuotes()
+        : localPartWithoutComments();
 
     if (options.shouldRemoveSubAddress()) {
       int separatorIndex = localPart.indexOf(options.getSubAddressSeparator());
@@ -437,17 +561,112 @@ public final class Email {
 
   private String normalizedDomain(NormalizationOptions options) {
     if (isIpAddress) {
-      return "[" + this.domainWithoutComments + "]";
+      return "[" + domainWithoutComments() + "]";
     }
 
     String domain = options.shouldConvertDomainToAscii() && !isAscii
-        ? IDNConverter.labelsToAsciiDomain(this.domainParts)
-        : this.domainWithoutComments;
+        ? IDNConverter.labelsToAsciiDomain(domainParts())
+        : domainWithoutComments();
 
     CaseOption caseOption = options.getCaseOption();
     return caseOption.adjustDomain(domain);
   }
 
+  private String localPartWithoutQuotes() {
+    String localPartWithoutQuotes = this.localPartWithoutQuotes;
+
+    if (localPartWithoutQuotes == null) {
+      localPartWithoutQuotes = localPartWithoutComments().indexOf('"') == -1
+          ? localPartWithoutComments()
+          : strip(offsets[LOCAL_PART_START], offsets[DOMAIN_START] - 1, true);
+      this.localPartWithoutQuotes = localPartWithoutQuotes;
+    }
+
+    return localPartWithoutQuotes;
+  }
+
+  private String fullSourceRoute() {
+    String fullSourceRoute = this.fullSourceRoute;
+
+    if (fullSourceRoute == null) {
+      fullSourceRoute = source.substring(offsets[SOURCE_ROUTE_START], offsets[LOCAL_PART_START]);
+      this.fullSourceRoute = fullSourceRoute;
+    }
+
+    return fullSourceRoute;
+  }
+
+  /**
+   * Copy the characters between {@code from} and {@code to} of the source, leaving out any
+   * comments. If {@code stripQuotes} is true, quotes are left out as well, except for the
+   * quotes around quoted-strings that could not be removed.
+   */
+  private String strip(int from, int to, boolean stripQuotes) {
+    StringBuilder builder = new StringBuilder(to - from);
+    int range = HEADER_LENGTH;
+
+    for (int i = from; i < to; i++) {
+      // Move on to the first comment or quoted-string that has not ended yet
+      while (range < offsets.length && offsets[range + 1] <= i) range += 2;
+
+      boolean inRange = range < offsets.length && offsets[range] <= i;
+
+      if (inRange && source.charAt(offsets[range]) == '(') {
+        i = offsets[range + 1] - 1;
+        continue;
+      }
+
+      char c = source.charAt(i);
+
+      if (stripQuotes && c == '"'
+          && !(inRange && (i == offsets[range] || i == offsets[range + 1] - 1))) {
+        continue;
+      }
+
+      builder.append(c);
+    }
+
+    return builder.toString();
+  }
+
+  private static List<String> splitDomainParts(String domain) {
+    int partCount = 1;
+
+    for (int i = 0, size = domain.length(); i < size; i++) {
+      if (domain.charAt(i) == '.') partCount++;
+    }
+
+    String[] parts = new String[partCount];
+    int partStart = 0;
+    int part = 0;
+
+    for (int i = 0, size = domain.length(); i <= size; i++) {
+      if (i == size || domain.charAt(i) == '.') {
+        parts[part++] = withoutWhitespace(domain, partStart, i);
+        partStart = i + 1;
+      }
+    }
+
+    return Collections.unmodifiableList(Arrays.asList(parts));
+  }
+
+  private static String withoutWhitespace(String s, int start, int end) {
+    StringBuilder builder = null;
+
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+
+      if (JMail.isWhitespace(c)) {
+        // Only copy the part if it actually contains whitespace
+        if (builder == null) builder = new StringBuilder(s.substring(start, i));
+      } else if (builder != null) {
+        builder.append(c);
+      }
+    }
+
+    return builder == null ? s.substring(start, end) : builder.toString();
+  }
+
   private String toHexString(byte[] bytes) {
     char[] hexArray = {
         '0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
@@ -471,8 +690,8 @@ public final class Email {
    */
   @Override
   public String toString() {
-    String fixedDomain = isIpAddress ? "[" + domain + "]" : domain;
-    String fixedLocalPart = fullSourceRoute + localPart;
+    String fixedDomain = isIpAddress ? "[" + domain() + "]" : domain();
+    String fixedLocalPart = fullSourceRoute() + localPart();
 
     String address = fixedLocalPart + "@" + fixedDomain;
 
@@ -486,28 +705,29 @@ public final class Email {
     if (this == o) return true;
     if (!(o instanceof Email)) return false;
     Email email = (Email) o;
-    return Objects.equals(localPart, email.localPart)
-        && Objects.equals(localPartWithoutComments, email.localPartWithoutComments)
-        && Objects.equals(localPartWithoutQuotes, email.localPartWithoutQuotes)
-        && Objects.equals(domain, email.domain)
-        && Objects.equals(domainWithoutComments, email.domainWithoutComments)
-        && Objects.equals(fullSourceRoute, email.fullSourceRoute)
+    return Objects.equals(localPart(), email.localPart())
+        && Objects.equals(localPartWithoutComments(), email.localPartWithoutComments())
+        && Objects.equals(localPartWithoutQuotes(), email.localPartWithoutQuotes())
+        && Objects.equals(domain(), email.domain())
+        && Objects.equals(domainWithoutComments(), email.domainWithoutComments())
+        && Objects.equals(fullSourceRoute(), email.fullSourceRoute())
         && Objects.equals(identifier, email.identifier)
-        && Objects.equals(domainParts, email.domainParts)
-        && Objects.equals(sourceRoutes, email.sourceRoutes)
-        && Objects.equals(comments, email.comments)
+        && Objects.equals(domainParts(), email.domainParts())
+        && Objects.equals(explicitSourceRoutes(), email.explicitSourceRoutes())
+        && Objects.equals(comments(), email.comments())
         && Objects.equals(isIpAddress, email.isIpAddress)
         && Objects.equals(containsWhitespace, email.containsWhitespace)
         && Objects.equals(isAscii, email.isAscii)
         && Objects.equals(hasIdentifier, email.hasIdentifier)
-        && Objects.equals(tld, email.tld);
+        && Objects.equals(topLevelDomain(), email.topLevelDomain());
   }
 
   @Override
   public int hashCode() {
     return Objects.hash(
-        localPart, localPartWithoutComments, localPartWithoutQuotes, domain, domainWithoutComments,
-        fullSourceRoute, identifier, domainParts, sourceRoutes, comments, isIpAddress,
-        containsWhitespace, isAscii, hasIdentifier, tld);
+        localPart(), localPartWithoutComments(), localPartWithoutQuotes(), domain(),
+        domainWithoutComments(), fullSourceRoute(), identifier, domainParts(),
+        explicitSourceRoutes(),
+        comments(), isIpAddress, containsWhitespace, isAscii, hasIdentifier, topLevelDomain());
   }
 }
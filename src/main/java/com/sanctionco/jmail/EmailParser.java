@@ -0,0 +1,193 @@
+package com.sanctionco.jmail;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Parses email addresses into {@link Email} objects, using basic RFC validation. This is the
+ * parser behind {@link JMail#validate(String)} and {@link JMail#tryParse(String)}, and it applies
+ * exactly the same rules.
+ *
+ * <p>A parser owns the scratch buffers that it records the parts of an address in while
+ * parsing, and resets them for each address instead of creating new ones. Once an address has
+ * been parsed, the parser can be used for the next one, and no state is shared between the
+ * results. A parser is not thread-safe, so keep one for each thread (or each worker, when
+ * validating many addresses at once) and reuse it for every address on that thread.
+ * {@code JMail} keeps one parser for each thread that calls it.
+ *
+ * <p>For example:
+ *
+ * <pre>
+ * EmailParser parser = new EmailParser();
+ *
+ * for (String address : addresses) {
+ *   EmailValidationResult result = parser.validate(address);
+ * }
+ * </pre>
+ */
+public final class EmailParser {
+  private static final ThreadLocal<EmailParser> POOLED = ThreadLocal.withInitial(EmailParser::new);
+
+  // Scratch space for the offsets of the address being parsed. See Email for the layout.
+  private int[] offsets = new int[Email.HEADER_LENGTH + 8];
+  private int offsetCount;
+
+  // The rest of what EmailScanner records about the address being parsed
+  private int identifierStart;
+  private int identifierEnd;
+  private boolean containsWhitespace;
+  private boolean isAscii;
+
+  /**
+   * Create a new {@code EmailParser}.
+   */
+  public EmailParser() {
+  }
+
+  /**
+   * Get the parser that belongs to the calling thread, creating it if needed.
+   *
+   * @return the parser for the calling thread
+   */
+  static EmailParser pooled() {
+    return POOLED.get();
+  }
+
+  /**
+   * Parse the given email address into a new {@link Email} object. See
+   * {@link JMail#tryParse(String)} for details on what is required of an email address within
+   * basic validation.
+   *
+   * @param email the email address to parse
+   * @return an {@link Optional} containing the parsed {@link Email}, or empty if the email
+   *         is invalid
+   */
+  public Optional<Email> tryParse(String email) {
+    return validate(email, false).getEmail();
+  }
+
+  /**
+   * Determine if the given email address is valid, returning a new {@link EmailValidationResult}
+   * object that contains details on the result of the validation. This returns the same result
+   * as {@link JMail#validate(String)}.
+   *
+   * @param email the email address to validate
+   * @return a {@link EmailValidationResult} containing success or failure, along with the parsed
+   *         {@link Email} object if successful, or the {@link FailureReason} if not
+   */
+  public EmailValidationResult validate(String email) {
+    return validate(email, false);
+  }
+
+  /**
+   * Package-private validate method that exposes an additional option {@code allowNonstandardDots}.
+   *
+   * @param email the email address to parse and validate
+   * @param allowNonstandardDots true if a leading or trailing dot in the local-part should be
+   *                             allowed
+   * @return a {@link EmailValidationResult} containing success or failure, along with the parsed
+   *         {@link Email} object if successful, or the {@link FailureReason} if not
+   */
+  EmailValidationResult validate(String email, boolean allowNonstandardDots) {
+    return validate(email, allowNonstandardDots, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Package-private validate method that exposes the additional options
+   * {@code allowNonstandardDots} and {@code maxCommentDepth}.
+   *
+   * @param email the email address to parse and validate
+   * @param allowNonstandardDots true if a leading or trailing dot in the local-part should be
+   *                             allowed
+   * @param maxCommentDepth the maximum depth of nested comments that is allowed
+   * @return a {@link EmailValidationResult} containing success or failure, along with the parsed
+   *         {@link Email} object if successful, or the {@link FailureReason} if not
+   */
+  EmailValidationResult validate(String email, boolean allowNonstandardDots,
+                                 int maxCommentDepth) {
+    // email cannot be null
+    if (email == null) return EmailValidationResult.failure(FailureReason.NULL_ADDRESS);
+
+    identifierStart = -1;
+
+    // The rules are applied by EmailScanner, which records where the parts of the address are
+    // in this parser as it goes
+    FailureReason reason = EmailScanner.validate(
+        email, 0, email.length(), allowNonstandardDots, maxCommentDepth, this);
+
+    if (reason != FailureReason.NONE) return EmailValidationResult.failure(reason);
+
+    // Only the offsets that were used are copied, so the Email never shares the scratch array
+    int[] offsets = Arrays.copyOf(this.offsets, offsetCount);
+    boolean isIpAddress = offsets[Email.IP_ADDRESS_START] >= 0;
+
+    Email parsed = new Email(email, offsets, isIpAddress, containsWhitespace, isAscii);
+
+    // If the address was in "phrase <address>" format, include the identifier
+    if (identifierStart >= 0) {
+      parsed = new Email(parsed, email.substring(identifierStart, identifierEnd));
+    }
+
+    return EmailValidationResult.success(parsed);
+  }
+
+  /**
+   * Start recording a new address, forgetting the comments and quotes of any address that was
+   * recorded before. This is called again for the address inside angled brackets.
+   */
+  void beginAddress() {
+    offsetCount = Email.HEADER_LENGTH;
+  }
+
+  /**
+   * Record the identifier of an address in "phrase &lt;address&gt;" format. Only the outermost
+   * identifier is kept.
+   *
+   * @param start the index of the first character of the identifier
+   * @param end the index after the last character of the identifier
+   */
+  void identifier(int start, int end) {
+    if (identifierStart >= 0) return;
+
+    identifierStart = start;
+    identifierEnd = end;
+  }
+
+  /**
+   * Record the range of a comment, or of a quoted-string that cannot be removed.
+   *
+   * @param start the index of the first character of the range
+   * @param end the index after the last character of the range
+   */
+  void addRange(int start, int end) {
+    if (offsetCount + 2 > offsets.length) {
+      offsets = Arrays.copyOf(offsets, offsets.length * 2);
+    }
+
+    offsets[offsetCount++] = start;
+    offsets[offsetCount++] = end;
+  }
+
+  /**
+   * Record the bounds of a valid address. See {@link Email} for what each offset means.
+   *
+   * @param routeStart the index of the source route, or the local-part if there is none
+   * @param localPartStart the index of the first character of the local-part
+   * @param domainStart the index of the first character of the domain
+   * @param end the index after the last character of the address
+   * @param ipAddressStart the index of the first character of an IP address domain, or -1
+   * @param containsWhitespace true if the address contains whitespace
+   * @param isAscii true if the address contains only ASCII characters
+   */
+  void endAddress(int routeStart, int localPartStart, int domainStart, int end,
+                  int ipAddressStart, boolean containsWhitespace, boolean isAscii) {
+    offsets[Email.LOCAL_PART_START] = localPartStart;
+    offsets[Email.DOMAIN_START] = domainStart;
+    offsets[Email.END] = end;
+    offsets[Email.IP_ADDRESS_START] = ipAddressStart;
+    offsets[Email.SOURCE_ROUTE_START] = routeStart;
+
+    this.containsWhitespace = containsWhitespace;
+    this.isAscii = isAscii;
+  }
+}
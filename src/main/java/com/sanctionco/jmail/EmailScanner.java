@@ -0,0 +1,696 @@
+package com.sanctionco.jmail;
+
+import com.sanctionco.jmail.net.InternetProtocolAddress;
+
+/**
+ * The rules of basic RFC validation, applied in a single pass over an email address. This is the
+ * only implementation of those rules: {@link JMail#isValid(String)} runs it on its own, and
+ * {@link EmailParser} runs it with itself as the recorder of where the parts of the address are,
+ * so that both always decide on the same {@link FailureReason}. Without a parser, validating an
+ * address creates no objects, other than when an internationalized domain must be converted
+ * with {@link java.net.IDN}.
+ *
+ * <p>Internal usage only.
+ */
+final class EmailScanner {
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private EmailScanner() {
+  }
+
+  /**
+   * Return true if the given email address passes basic RFC validation.
+   *
+   * @param email the email address to validate
+   * @param allowNonstandardDots true if a leading or trailing dot in the local-part should be
+   *                             allowed
+   * @return true if the given email address is valid, false otherwise
+   */
+  static boolean isValid(CharSequence email, boolean allowNonstandardDots) {
+    return validate(email, allowNonstandardDots) == FailureReason.NONE;
+  }
+
+  /**
+   * Validate the given email address, returning the same {@link FailureReason} that
+   * {@link JMail#validate(String)} would return.
+   *
+   * @param email the email address to validate
+   * @param allowNonstandardDots true if a leading or trailing dot in the local-part should be
+   *                             allowed
+   * @return the reason the address is invalid, or {@link FailureReason#NONE} if it is valid
+   */
+  static FailureReason validate(CharSequence email, boolean allowNonstandardDots) {
+    // email cannot be null
+    if (email == null) return FailureReason.NULL_ADDRESS;
+
+    return validate(email, 0, email.length(), allowNonstandardDots, Integer.MAX_VALUE, null);
+  }
+
+  /**
+   * Validate the email address in the given range, and if a parser is given, record in it where
+   * the parts of the address are. The parser is told about every comment and every quoted-string
+   * that cannot be removed, and, only if the address is valid, about the bounds of the address.
+   *
+   * @param email the character sequence containing the email address
+   * @param start the index of the first character of the address
+   * @param end the index after the last character of the address
+   * @param allowNonstandardDots true if a leading or trailing dot in the local-part should be
+   *                             allowed
+   * @param maxCommentDepth the maximum depth of nested comments that is allowed
+   * @param parser the parser to record the parts of the address in, or null to only validate
+   * @return the reason the address is invalid, or {@link FailureReason#NONE} if it is valid
+   */
+  static FailureReason validate(CharSequence email, int start, int end,
+                                boolean allowNonstandardDots, int maxCommentDepth,
+                                EmailParser parser) {
+    // email cannot be less than 3 chars (local-part, @, domain)
+    if (end - start < 3) return FailureReason.ADDRESS_TOO_SHORT;
+
+    // check for source-routing
+    final int routeStart = start;
+
+    if (email.charAt(start) == '@') {
+      int routeEnd = sourceRouteEnd(email, start, end);
+
+      // If the route was invalid, or the actual email is empty because the entire address
+      // ended with a : character, then starting with the @ symbol is invalid.
+      if (routeEnd == -1 || routeEnd == end) return FailureReason.BEGINS_WITH_AT_SYMBOL;
+
+      // Otherwise, continue validating just the actual email. The routes are not copied out of
+      // the input, since the Email only creates them when they are first needed.
+      start = routeEnd;
+    }
+
+    // email cannot be more than 320 chars
+    if (end - start > 320) return FailureReason.ADDRESS_TOO_LONG;
+
+    // email cannot end with '.'
+    if (email.charAt(end - 1) == '.') return FailureReason.ENDS_WITH_DOT;
+
+    // email cannot end with '-'
+    if (email.charAt(end - 1) == '-') return FailureReason.DOMAIN_PART_ENDS_WITH_DASH;
+
+    boolean startsWithDot = false;         // set to true if we start with a dot
+    boolean atFound = false;               // set to true when the '@' character is found
+    boolean inQuotes = false;              // set to true if we are currently within quotes
+    boolean previousDot = false;           // set to true if the previous character is '.'
+    boolean previousBackslash = false;     // set to true if the previous character is '\'
+    boolean firstDomainChar = true;        // set to false after beginning parsing the domain
+    boolean isIpAddress = false;           // set to true if encountered an IP address domain
+    boolean requireAtOrDot = false;        // set to true if the next character should be @ or .
+    boolean requireAtDotOrComment = false; // set to true if the next character should be @ . or (
+    boolean whitespace = false;            // set to true if we are currently within whitespace
+    boolean previousComment = false;       // set to true if the last character was the end comment
+    boolean requireAngledBracket = false;  // set to true if we need an angled bracket before the @
+    boolean containsWhiteSpace = false;    // set to true if the email contains whitespace anywhere
+    boolean isAscii = true;                // set to false if the email contains non-ascii chars
+
+    boolean removableQuotePair = true;     // set to false if the current quote could not be removed
+    boolean previousQuotedDot = false;     // set to true if the previous character is '.' in quotes
+    boolean requireQuotedDot = false;      // set to true if we need a . for a removable quote
+
+    // Instead of building up the local-part and domain, keep track of only the
+    // lengths and characters that are needed to validate them
+    int localPartLength = 0;        // length of the local-part, excluding comments
+    int domainStart = end;          // the index of the first character of the domain
+    int domainLength = 0;           // length of the domain, excluding comments
+    int domainPartLength = 0;       // length of the current domain part, excluding whitespace
+    char domainPartFirstChar = 0;   // the first character of the current domain part
+    char domainPartLastChar = 0;    // the last character of the current domain part
+    boolean domainPartNumeric = true;
+    int ipAddressStart = -1;        // the index of the first character of an IP address domain
+    int quoteStart = 0;             // the index of the opening quote of the current quote
+    int quoteLength = 0;            // length of the current quote, excluding quote characters
+
+    int charactersOnLine = 1; // since we can have 0 chars on the first line, start at 1
+
+    if (parser != null) parser.beginAddress();
+
+    for (int i = start; i < end; i++) {
+      char c = email.charAt(i);
+
+      if (c >= 128) isAscii = false;
+
+      if (i == start && c == '.' && !allowNonstandardDots) {
+        // email cannot start with '.'
+        // unless we are configured to allow it (GMail doesn't care about a starting dot)
+        // we set a flag instead of immediately invalidating the address since it could
+        // start with a dot as part of the identifier
+        startsWithDot = true;
+      }
+
+      if (c == '<' && !inQuotes && !previousBackslash) {
+        // could be "phrase <address>" format. If not, it's not allowed
+        if (email.charAt(end - 1) != '>') return FailureReason.UNQUOTED_ANGLED_BRACKET;
+
+        // The identifier is everything in the local-part before the angled bracket
+        if (parser != null) parser.identifier(start, atFound ? domainStart - 1 : i);
+
+        // The result is that of the address inside the brackets
+        return validate(email, i + 1, end - 1, allowNonstandardDots, maxCommentDepth, parser);
+      }
+
+      if (c == '@' && !inQuotes && !previousBackslash) {
+        // If we already found an @ outside of quotes, fail
+        if (atFound) return FailureReason.MULTIPLE_AT_SYMBOLS;
+
+        // If we need an angled bracket we should fail, it's too late
+        if (requireAngledBracket) return FailureReason.INVALID_WHITESPACE;
+
+        // Otherwise
+        atFound = true;
+        requireAtOrDot = requireAtDotOrComment = false;
+        whitespace = false;
+        previousDot = true; // '@' acts like a '.' separator
+        domainStart = i + 1;
+        continue;
+      }
+
+      if (c == '\n') {
+        // Ensure there are no empty lines
+        if (charactersOnLine <= 0) return FailureReason.INVALID_WHITESPACE;
+
+        charactersOnLine = 0;
+      } else if (c != '\r') {
+        // Increment for everything other than \r\n
+        charactersOnLine++;
+      }
+
+      if (requireAtOrDot) {
+        // If we needed to find the @ or . and we didn't, we have to fail
+        if (!JMail.isWhitespace(c) && c != '.') return FailureReason.INVALID_COMMENT_LOCATION;
+        else requireAtOrDot = false;
+      }
+
+      if (requireAtDotOrComment) {
+        // If we needed to find the @ or . ( and we didn't, we have to fail
+        if (!JMail.isWhitespace(c) && c != '.' && c != '(') {
+          return FailureReason.INVALID_QUOTE_LOCATION;
+        } else requireAtDotOrComment = false;
+      }
+
+      if (whitespace) {
+        // Whitespace is allowed if it is between parts
+        if (!previousDot && !previousComment) {
+          if (c != '.' && c != '(' && !JMail.isWhitespace(c)) {
+            if (!atFound) requireAngledBracket = true; // or in phrase <addr> format
+            else return FailureReason.INVALID_WHITESPACE;
+          }
+        }
+      }
+
+      // Additional logic to check if the current quote could be removable
+      if (requireQuotedDot && inQuotes) {
+        if (c != '.' && !JMail.isWhitespace(c) && c != '"') {
+          removableQuotePair = false;
+        } else if (!JMail.isWhitespace(c) && c != '"') {
+          requireQuotedDot = false;
+        }
+      }
+
+      // If we tried to remove a quote with a comment it would change the
+      // meaning of the address
+      if (c == '(' && inQuotes && !previousBackslash) {
+        removableQuotePair = false;
+      }
+
+      if (c == '(' && !inQuotes) {
+        // validate comment
+        int commentEnd = commentEnd(email, i, end, maxCommentDepth);
+
+        if (commentEnd == -1) return FailureReason.INVALID_COMMENT;
+
+        // Now, what do we need surrounding the comment to make it valid?
+        if (!atFound && (i != start && !previousDot)) {
+          // if at beginning of local part, or we had a dot, ok.
+          // if not, we need to be at the end of the local part '@' or get a dot
+          requireAtOrDot = true;
+        } else if (atFound && !firstDomainChar && !previousDot) {
+          // if at beginning of domain, or we had a dot, ok.
+          // if not, we need to be at the end of the domain or get a dot
+          if (commentEnd != end) requireAtOrDot = true;
+        }
+
+        // The comment is part of the local-part or domain string, but not a domain part
+        if (parser != null) parser.addRange(i, commentEnd);
+
+        i = commentEnd - 1;
+        previousComment = true;
+        continue;
+      }
+
+      // If we find two dots outside of quotes, fail
+      if (c == '.' && previousDot) {
+        if (!inQuotes) return FailureReason.MULTIPLE_DOT_SEPARATORS;
+
+        removableQuotePair = false;
+      }
+
+      if (!atFound) {
+        // No @ found, we're in the local-part
+        // If we are at a new quote: it must be preceded by a dot or at the beginning
+        if (c == '"' && i > start && !previousDot && !inQuotes) {
+          return FailureReason.INVALID_QUOTE_LOCATION;
+        }
+
+        boolean mustBeQuoted = JMail.DISALLOWED_UNQUOTED_CHARACTERS.contains(c);
+
+        if (c != '"' && !inQuotes && !previousBackslash && mustBeQuoted) {
+          return FailureReason.DISALLOWED_UNQUOTED_CHARACTER;
+        }
+
+        // If we are in quotes and the character requires quotes, mark the pair as not removable
+        if (mustBeQuoted && inQuotes && !previousBackslash && c != '"') {
+          removableQuotePair = false;
+        }
+
+        // RFC 6531 Section 3.3 and RFC 5321 Section 4.1.2 specify that internationalized
+        // email addresses (EAI) can contain UTF-8 characters in the local-part, but only
+        // certain character classes are valid. According to RFC 6531, the local-part should
+        // consist of "atext" (RFC 5322 Section 3.2.3) or UTF-8 characters that are letters,
+        // marks, or numbers.
+        //
+        // While RFC 6531 allows UTF-8, it doesn't permit arbitrary Unicode symbols and
+        // punctuation marks in unquoted local-parts. Characters like • (BULLET U+2022),
+        // ★ (BLACK STAR U+2605), © (COPYRIGHT U+00A9), etc. are categorized as punctuation
+        // or symbols in Unicode, not letters/marks, and should not be allowed in unquoted
+        // local-parts as they can cause interoperability issues with SMTP servers.
+        //
+        // This validation applies ONLY to the local-part (before @), not the domain.
+        // The domain has separate validation via IDN (Internationalized Domain Names).
+        if (c >= 128 && !inQuotes && !previousBackslash) {
+          // Reject Unicode character categories that represent symbols and punctuation.
+          // Allow: Letters (Lu, Ll, Lt, Lm, Lo), Marks (Mn, Mc, Me), Numbers (Nd, Nl, No)
+          // Reject: Punctuation (Pc, Pd, Ps, Pe, Pi, Pf, Po) and Symbols (Sm, Sc, Sk, So)
+          //
+          // This ensures compatibility with SMTP servers while supporting genuine
+          // internationalized names (e.g., Pelé, 山田, Владимир).
+          if (JMail.isDisallowedUnquotedCharacterType(c)) {
+            return FailureReason.DISALLOWED_UNQUOTED_CHARACTER;
+          }
+        }
+
+        // If we previously saw a backslash, we must make sure it is being used to quote something
+        if (!inQuotes && previousBackslash && !mustBeQuoted && c != ' ' && c != '\\') {
+          return FailureReason.UNUSED_BACKSLASH_ESCAPE;
+        }
+
+        if (inQuotes) {
+          // if we are in quotes, we need to make sure that if the character requires
+          // a backlash escape, that it is there
+          if (JMail.ALLOWED_QUOTED_WITH_ESCAPE.contains(c)) {
+            if (!previousBackslash) return FailureReason.MISSING_BACKSLASH_ESCAPE;
+
+            removableQuotePair = false;
+          }
+        }
+
+        localPartLength++;
+
+        if (c != '"' && inQuotes) quoteLength++;
+      } else {
+        // We're in the domain
+
+        // Once we make it to the domain, there is no longer a chance of the address being in
+        // display-name <addr> format anymore. So, if we saw that we started with a '.' character,
+        // it's time to invalidate the address
+        if (startsWithDot) return FailureReason.STARTS_WITH_DOT;
+
+        if (firstDomainChar && c == '[') {
+          // validate IP address and be done. We already know it starts with a '[',
+          // so make sure it ends with a ']'
+          if (email.charAt(end - 1) != ']' || end - i < 3) return FailureReason.INVALID_IP_DOMAIN;
+
+          int ipStart = i + 1;
+          int ipEnd = end - 1;
+
+          boolean validIp = startsWithIpv6Prefix(email, ipStart, ipEnd)
+              // If it starts with the IPv6 prefix, validate with IPv6
+              ? InternetProtocolAddress.isValidIpv6(
+                  email, ipStart + JMail.IPV6_PREFIX.length(), ipEnd)
+              // Otherwise, it must be IPv4
+              : InternetProtocolAddress.isValidIpv4(email, ipStart, ipEnd);
+
+          if (!validIp) return FailureReason.INVALID_IP_DOMAIN;
+
+          // The entire IP address is both the domain and the final domain part
+          domainLength += ipEnd - ipStart;
+          domainPartLength = ipEnd - ipStart;
+          domainPartFirstChar = email.charAt(ipStart);
+          domainPartNumeric = false; // IP addresses always contain '.' or ':'
+
+          ipAddressStart = ipStart;
+          isIpAddress = true;
+          break;
+        }
+
+        if (c == '.') {
+          if (domainPartLength > 63) return FailureReason.DOMAIN_PART_TOO_LONG;
+
+          // The current part can only be empty here if a dot was quoted
+          if (domainPartLength > 0 && domainPartFirstChar == '-') {
+            return FailureReason.DOMAIN_PART_STARTS_WITH_DASH;
+          }
+
+          if (domainPartLength > 0 && domainPartLastChar == '-') {
+            return FailureReason.DOMAIN_PART_ENDS_WITH_DASH;
+          }
+
+          domainPartLength = 0;
+          domainPartNumeric = true;
+        } else if (!JMail.isWhitespace(c)) {
+          if (domainPartLength == 0) domainPartFirstChar = c;
+
+          domainPartLastChar = c;
+          domainPartNumeric = domainPartNumeric && Character.isDigit(c);
+          domainPartLength++;
+        }
+
+        domainLength++;
+        firstDomainChar = false;
+      }
+
+      final boolean quotedWhitespace = JMail.isWhitespace(c) && inQuotes;
+
+      if (c == '"' && !previousBackslash) {
+        if (inQuotes) {
+          requireAtDotOrComment = true; // closing quote, make sure next char is . or @
+
+          if (quoteLength == 0) {
+            removableQuotePair = false;
+          }
+
+          // Remember the quotes that have to stay when the local-part is stripped of quotes
+          if (!removableQuotePair && parser != null) {
+            parser.addRange(quoteStart, i + 1);
+          }
+        } else { // opening quote
+          removableQuotePair = true;
+          quoteStart = i;
+          quoteLength = 0;
+        }
+
+        inQuotes = !inQuotes;
+      }
+
+      whitespace = JMail.isWhitespace(c) && !inQuotes && !previousBackslash;
+
+      if (whitespace) {
+        containsWhiteSpace = true;
+      }
+
+      if (!whitespace) {
+        previousDot = c == '.';
+      }
+
+      if (!quotedWhitespace) {
+        previousQuotedDot = c == '.';
+      }
+
+      // For whitespace within quotes we need some special checks to see
+      // if this quote would be removable
+      if (quotedWhitespace) {
+        if (!previousQuotedDot && !previousBackslash) {
+          requireQuotedDot = true;
+        }
+      }
+
+      // if we already had a prev backslash, this backslash is escaped
+      previousBackslash = (c == '\\' && !previousBackslash);
+    }
+
+    if (!atFound) return FailureReason.MISSING_AT_SYMBOL;
+
+    // Check length
+    if (localPartLength == 0) return FailureReason.LOCAL_PART_MISSING;
+    if (localPartLength > 64) return FailureReason.LOCAL_PART_TOO_LONG;
+
+    if (domainLength == 0) return FailureReason.DOMAIN_MISSING;
+    if (domainLength > 255) return FailureReason.DOMAIN_TOO_LONG;
+
+    // Check that local-part does not end with '.'
+    if (email.charAt(domainStart - 2) == '.') {
+      // unless we are configured to allow it (GMail doesn't care about a trailing dot)
+      if (!allowNonstandardDots) return FailureReason.LOCAL_PART_ENDS_WITH_DOT;
+
+      // if we allow a trailing dot, just make sure it's not the only thing in the local-part
+      if (localPartLength <= 1) return FailureReason.LOCAL_PART_MISSING;
+    }
+
+    // Ensure the TLD is not empty or greater than 63 chars
+    if (domainPartLength <= 0) return FailureReason.MISSING_FINAL_DOMAIN_PART;
+    if (domainPartLength > 63) return FailureReason.TOP_LEVEL_DOMAIN_TOO_LONG;
+
+    // Check that the final domain part does not start or end with '-'. The address itself cannot
+    // end with '-', but the final domain part can when it is followed by a comment or whitespace
+    if (domainPartFirstChar == '-') return FailureReason.DOMAIN_PART_STARTS_WITH_DASH;
+    if (domainPartLastChar == '-') return FailureReason.DOMAIN_PART_ENDS_WITH_DASH;
+
+    // Ensure the last domain part (TLD) is not all numeric
+    if (domainPartNumeric) return FailureReason.NUMERIC_TLD;
+
+    // Validate the characters in the domain if it is not an IP address
+    if (!isIpAddress && !isValidDomain(email, domainStart, end, true)) {
+      return FailureReason.INVALID_DOMAIN_CHARACTER;
+    }
+
+    if (parser != null) {
+      parser.endAddress(
+          routeStart, start, domainStart, end, ipAddressStart, containsWhiteSpace, isAscii);
+    }
+
+    return FailureReason.NONE;
+  }
+
+  /**
+   * Find the end of the comment that begins at the given index. Comments can be nested,
+   * and parentheses can be escaped with a backslash.
+   *
+   * @param s the character sequence containing the comment
+   * @param start the index of the opening parenthesis of the comment
+   * @param end the index after the last character that may be part of the comment
+   * @return the index after the closing parenthesis of the comment, or -1 if the comment is
+   *         not closed
+   */
+  static int commentEnd(CharSequence s, int start, int end) {
+    return commentEnd(s, start, end, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Find the end of the comment that begins at the given index, failing if comments are nested
+   * more than the given depth. The comment is scanned once from left to right with a counter of
+   * the current depth, so the time taken is linear in the length of the comment no matter how
+   * deeply it is nested.
+   *
+   * @param s the character sequence containing the comment
+   * @param start the index of the opening parenthesis of the comment
+   * @param end the index after the last character that may be part of the comment
+   * @param maxDepth the maximum depth of nested comments, where a comment with no nested
+   *                 comments has a depth of 1
+   * @return the index after the closing parenthesis of the comment, or -1 if the comment is
+   *         not closed or is nested too deeply
+   */
+  static int commentEnd(CharSequence s, int start, int end, int maxDepth) {
+    int depth = 0;
+    boolean previousBackslash = false;
+
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+
+      if (previousBackslash) {
+        // An escaped character does not open or close a comment. A backslash
+        // that is itself escaped still escapes the next character.
+        previousBackslash = c == '\\';
+        continue;
+      }
+
+      if (c == '(') {
+        if (++depth > maxDepth) return -1;
+      } else if (c == ')') {
+        depth--;
+
+        if (depth == 0) return i + 1;
+      }
+
+      previousBackslash = c == '\\';
+    }
+
+    return -1;
+  }
+
+  /**
+   * Find the end of the explicit source route at the beginning of the given address.
+   *
+   * @param s the character sequence containing the address
+   * @param start the index of the first character of the address
+   * @param end the index after the last character of the address
+   * @return the index after the source route, or -1 if the source route is invalid
+   */
+  static int sourceRouteEnd(CharSequence s, int start, int end) {
+    boolean requireNewDomain = true;
+
+    int routeStart = start;
+    int routeLength = 0;
+    int routeEnd = end;
+
+    int domainPartLength = 0;
+    char domainPartFirstChar = 0;
+    char domainPartLastChar = 0;
+    boolean domainPartNumeric = true;
+
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+
+      // We need the @ character for a new domain
+      if (requireNewDomain && c != '@') return -1;
+
+      // We can't see the @ character unless we need it
+      if (c == '@' && !requireNewDomain) return -1;
+
+      // One of [. or , or :] means we should validate the current domain part
+      if (c == '.' || c == ',' || c == ':') {
+        // Cannot be empty or more than 63 chars
+        if (domainPartLength == 0 || domainPartLength > 63) return -1;
+
+        // Cannot start or end with '-'
+        if (domainPartFirstChar == '-' || domainPartLastChar == '-') return -1;
+
+        // TLD cannot be all numeric
+        if ((c == ',' || c == ':') && domainPartNumeric) return -1;
+
+        domainPartLength = 0;
+        domainPartNumeric = true;
+      } else if (c != '@') {
+        if (domainPartLength == 0) domainPartFirstChar = c;
+
+        domainPartLastChar = c;
+        domainPartNumeric = domainPartNumeric && Character.isDigit(c);
+        domainPartLength++;
+      }
+
+      // A comma is the end of the current domain route
+      requireNewDomain = c == ',';
+
+      if (c == ',' || c == ':') {
+        if (!isValidDomain(s, routeStart, i, false)) return -1;
+
+        routeLength = 0;
+      } else if (c == '@') {
+        routeStart = i + 1;
+      } else {
+        routeLength++;
+      }
+
+      if (c == ':') {
+        routeEnd = i + 1;
+        break;
+      }
+    }
+
+    // If we haven't seen the end of the current part, its invalid
+    if (domainPartLength > 0) return -1;
+
+    // If we haven't seen the end of the current source route, its invalid
+    if (routeLength > 0) return -1;
+
+    // If we needed a new domain (last saw a comma), fail
+    if (requireNewDomain) return -1;
+
+    return routeEnd;
+  }
+
+  /**
+   * Determine if the given range of characters is a valid domain, with the same result as
+   * {@link JMail#isValidIdn(String)}. ASCII domains are checked in place, and only domains
+   * that contain non-ASCII characters are converted into a string and checked with
+   * {@link java.net.IDN}.
+   *
+   * @param s the character sequence containing the domain
+   * @param start the index of the first character of the domain
+   * @param end the index after the last character of the domain
+   * @param skipComments true if comments within the range are not part of the domain
+   * @return true if the domain is valid, false otherwise (including if a comment is not closed)
+   */
+  static boolean isValidDomain(CharSequence s, int start, int end,
+                               boolean skipComments) {
+    int labelLength = 0;
+
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+
+      if (skipComments && c == '(') {
+        int commentEnd = commentEnd(s, i, end);
+        if (commentEnd < 0) return false;
+
+        i = commentEnd - 1;
+        continue;
+      }
+
+      if (c >= 128) {
+        return JMail.isValidIdn(withoutComments(s, start, end, skipComments));
+      }
+
+      if (c == '.') {
+        // IDN does not allow empty labels or labels longer than 63 characters
+        if (labelLength == 0 || labelLength > 63) return false;
+
+        labelLength = 0;
+      } else {
+        if (!JMail.ALLOWED_DOMAIN_CHARACTERS.contains(c)) return false;
+
+        labelLength++;
+      }
+    }
+
+    return labelLength <= 63;
+  }
+
+  private static String withoutComments(CharSequence s, int start, int end,
+                                        boolean skipComments) {
+    if (!skipComments) return s.subSequence(start, end).toString();
+
+    StringBuilder builder = new StringBuilder(end - start);
+
+    boolean inQuotes = false;
+    boolean previousBackslash = false;
+
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+
+      if (c == '(' && !inQuotes) {
+        int commentEnd = commentEnd(s, i, end);
+
+        // An unclosed comment is kept, so that the domain is invalid
+        if (commentEnd < 0) {
+          builder.append(s, i, end);
+          break;
+        }
+
+        i = commentEnd - 1;
+        continue;
+      }
+
+      builder.append(c);
+
+      if (c == '"' && !previousBackslash) inQuotes = !inQuotes;
+
+      previousBackslash = c == '\\' && !previousBackslash;
+    }
+
+    return builder.toString();
+  }
+
+  private static boolean startsWithIpv6Prefix(CharSequence s, int start, int end) {
+    int prefixLength = JMail.IPV6_PREFIX.length();
+
+    if (end - start < prefixLength) return false;
+
+    for (int i = 0; i < prefixLength; i++) {
+      if (s.charAt(start + i) != JMail.IPV6_PREFIX.charAt(i)) return false;
+    }
+
+    return true;
+  }
+}
@@ -1,17 +1,31 @@
 package com.sanctionco.jmail;
 
 import com.sanctionco.jmail.disposable.DisposableDomainSource;
+import com.sanctionco.jmail.dns.MXRecordCache;
+import com.sanctionco.jmail.internal.IoExecutor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The {@code EmailValidator} class provides a way to validate email addresses
@@ -53,16 +67,52 @@ public final class EmailValidator {
       = ValidationRules::requireAscii;
 
   private final Map<Predicate<Email>, FailureReason> validationPredicates;
+  private final Map<Predicate<Email>, RuleCost> ruleCosts;
   private final boolean allowNonstandardDots;
+  private final boolean orderRulesByCost;
+  private final int maxCommentDepth;
+
+  // The validation predicates compiled into arrays in the order they should be tested,
+  // so that validation is a simple loop instead of a stream over the map on every call
+  private final Predicate<Email>[] rules;
+  private final FailureReason[] failureReasons;
+  private final boolean[] performsIo;
 
   EmailValidator(Map<Predicate<Email>, FailureReason> validationPredicates,
-                 boolean allowNonstandardDots) {
+                 Map<Predicate<Email>, RuleCost> ruleCosts,
+                 boolean allowNonstandardDots,
+                 boolean orderRulesByCost,
+                 int maxCommentDepth) {
     this.validationPredicates = Collections.unmodifiableMap(validationPredicates);
+    this.ruleCosts = Collections.unmodifiableMap(ruleCosts);
     this.allowNonstandardDots = allowNonstandardDots;
+    this.orderRulesByCost = orderRulesByCost;
+    this.maxCommentDepth = maxCommentDepth;
+
+    List<Map.Entry<Predicate<Email>, FailureReason>> entries
+        = new ArrayList<>(validationPredicates.entrySet());
+
+    // List.sort is stable, so rules with the same cost stay in the order they were added
+    if (orderRulesByCost) {
+      entries.sort((a, b) -> costOf(a.getKey()).compareTo(costOf(b.getKey())));
+    }
+
+    @SuppressWarnings("unchecked")
+    final Predicate<Email>[] rules = (Predicate<Email>[]) new Predicate<?>[entries.size()];
+
+    this.rules = rules;
+    this.failureReasons = new FailureReason[entries.size()];
+    this.performsIo = new boolean[entries.size()];
+
+    for (int i = 0; i < entries.size(); i++) {
+      rules[i] = entries.get(i).getKey();
+      failureReasons[i] = entries.get(i).getValue();
+      performsIo[i] = costOf(rules[i]) == RuleCost.IO;
+    }
   }
 
   EmailValidator() {
-    this(new HashMap<>(), false);
+    this(new HashMap<>(), new HashMap<>(), false, false, Integer.MAX_VALUE);
   }
 
   /**
@@ -82,10 +132,18 @@ public final class EmailValidator {
    * @return the new {@code EmailValidator} instance
    */
   public EmailValidator withRules(Map<Predicate<Email>, FailureReason> rules) {
+    return withRules(rules, RuleCost.IO);
+  }
+
+  private EmailValidator withRules(Map<Predicate<Email>, FailureReason> rules, RuleCost cost) {
     Map<Predicate<Email>, FailureReason> ruleMap = new LinkedHashMap<>(validationPredicates);
     ruleMap.putAll(rules);
 
-    return new EmailValidator(ruleMap, allowNonstandardDots);
+    Map<Predicate<Email>, RuleCost> costMap = new HashMap<>(ruleCosts);
+    rules.keySet().forEach(rule -> costMap.put(rule, cost));
+
+    return new EmailValidator(
+        ruleMap, costMap, allowNonstandardDots, orderRulesByCost, maxCommentDepth);
   }
 
   /**
@@ -169,6 +227,34 @@ public final class EmailValidator {
     return withRules(Collections.singletonMap(rule, new FailureReason(failureReason)));
   }
 
+  /**
+   * Create a new {@code EmailValidator} with all rules from the current instance and an
+   * additional provided custom validation rule with the given {@link RuleCost}. The cost is
+   * used to decide when to test the rule if the validator is configured with
+   * {@link #orderRulesByCost()}. Rules added without a cost are treated as
+   * {@link RuleCost#IO}, so they are never tested before a cheaper rule.
+   *
+   * <p>Example usage:
+   *
+   * <pre>
+   * validator.withRule(
+   *   email -> email.domain().startsWith("test"),
+   *   new FailureReason("MISSING_TEST_PREFIX"),
+   *   RuleCost.PURE);
+   * </pre>
+   *
+   * @param rule the requirement for a valid email address. This must be a {@link Predicate} that
+   *             accepts an {@link Email} object.
+   * @param failureReason the {@link FailureReason} to return in the {@link EmailValidationResult}
+   *                      if an email address fails to pass this rule.
+   * @param cost the relative cost of testing the rule
+   * @return the new {@code EmailValidator} instance
+   */
+  public EmailValidator withRule(Predicate<Email> rule, FailureReason failureReason,
+                                 RuleCost cost) {
+    return withRules(Collections.singletonMap(rule, failureReason), cost);
+  }
+
   /**
    * <p>Create a new {@code EmailValidator} (with all rules from the current instance) that
    * allows email addresses to have a local-part that either starts with or ends with a dot
@@ -183,7 +269,64 @@ public final class EmailValidator {
    * @return the new {@code EmailValidator} instance
    */
   public EmailValidator allowNonstandardDots() {
-    return new EmailValidator(this.validationPredicates, true);
+    return new EmailValidator(
+        this.validationPredicates, this.ruleCosts, true, orderRulesByCost, maxCommentDepth);
+  }
+
+  /**
+   * <p>Create a new {@code EmailValidator} (with all rules from the current instance) that tests
+   * its rules from the cheapest {@link RuleCost} to the most expensive, instead of in the order
+   * that they were added. Rules with the same cost are still tested in the order that they were
+   * added.</p>
+   *
+   * <p>For example, with this option an address with an IP address domain fails
+   * {@link #disallowIpDomain()} without performing the DNS lookup of
+   * {@link #requireValidMXRecord()}, even if the MX record rule was added first.</p>
+   *
+   * <p>Note that when an address fails more than one rule, the {@link FailureReason} in the
+   * {@link EmailValidationResult} is that of the cheapest rule it fails, which might not be the
+   * first of those rules that was added. Use {@link #keepRuleOrder()} if the reported
+   * {@code FailureReason} must follow the order the rules were added.</p>
+   *
+   * @return the new {@code EmailValidator} instance
+   */
+  public EmailValidator orderRulesByCost() {
+    return new EmailValidator(
+        this.validationPredicates, this.ruleCosts, allowNonstandardDots, true, maxCommentDepth);
+  }
+
+  /**
+   * <p>Create a new {@code EmailValidator} (with all rules from the current instance) that tests
+   * its rules in exactly the order that they were added. This is the default behavior, and
+   * reverts {@link #orderRulesByCost()}.</p>
+   *
+   * @return the new {@code EmailValidator} instance
+   */
+  public EmailValidator keepRuleOrder() {
+    return new EmailValidator(
+        this.validationPredicates, this.ruleCosts, allowNonstandardDots, false, maxCommentDepth);
+  }
+
+  /**
+   * <p>Create a new {@code EmailValidator} (with all rules from the current instance) that
+   * only allows comments to be nested up to the given depth. A comment with no comments inside
+   * it, such as {@code "test(comment)@example.com"}, has a depth of 1.</p>
+   *
+   * <p>An address with a comment that is nested more deeply fails validation with
+   * {@link FailureReason#INVALID_COMMENT}. By default, comments can be nested to any depth.
+   * Either way, comments are checked in time that is linear in the length of the address.</p>
+   *
+   * @param depth the maximum depth of nested comments, at least 1
+   * @return the new {@code EmailValidator} instance
+   * @throws IllegalArgumentException if the depth is less than 1
+   */
+  public EmailValidator maxCommentDepth(int depth) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("The maximum comment depth must be at least 1");
+    }
+
+    return new EmailValidator(
+        this.validationPredicates, this.ruleCosts, allowNonstandardDots, orderRulesByCost, depth);
   }
 
   /**
@@ -199,7 +342,8 @@ public final class EmailValidator {
   public EmailValidator disallowIpDomain() {
     return withRule(
         DISALLOW_IP_DOMAIN_PREDICATE,
-        FailureReason.CONTAINS_IP_DOMAIN);
+        FailureReason.CONTAINS_IP_DOMAIN,
+        RuleCost.PURE);
   }
 
   /**
@@ -215,7 +359,8 @@ public final class EmailValidator {
   public EmailValidator requireTopLevelDomain() {
     return withRule(
         REQUIRE_TOP_LEVEL_DOMAIN_PREDICATE,
-        FailureReason.MISSING_TOP_LEVEL_DOMAIN);
+        FailureReason.MISSING_TOP_LEVEL_DOMAIN,
+        RuleCost.PURE);
   }
 
   /**
@@ -231,7 +376,8 @@ public final class EmailValidator {
   public EmailValidator disallowSingleCharacterTopLevelDomains() {
     return withRule(
         DISALLOW_SINGLE_CHAR_TOP_LEVEL_DOMAINS_PREDICATE,
-        FailureReason.SINGLE_CHARACTER_TOP_LEVEL_DOMAIN);
+        FailureReason.SINGLE_CHARACTER_TOP_LEVEL_DOMAIN,
+        RuleCost.PURE);
   }
 
   /**
@@ -247,7 +393,8 @@ public final class EmailValidator {
   public EmailValidator disallowExplicitSourceRouting() {
     return withRule(
         DISALLOW_EXPLICIT_SOURCE_ROUTING_PREDICATE,
-        FailureReason.CONTAINS_EXPLICIT_SOURCE_ROUTING);
+        FailureReason.CONTAINS_EXPLICIT_SOURCE_ROUTING,
+        RuleCost.PURE);
   }
 
   /**
@@ -263,7 +410,8 @@ public final class EmailValidator {
   public EmailValidator disallowQuotedIdentifiers() {
     return withRule(
         DISALLOW_QUOTED_IDENTIFIERS_PREDICATE,
-        FailureReason.CONTAINS_QUOTED_IDENTIFIER);
+        FailureReason.CONTAINS_QUOTED_IDENTIFIER,
+        RuleCost.PURE);
   }
 
   /**
@@ -279,7 +427,8 @@ public final class EmailValidator {
   public EmailValidator disallowReservedDomains() {
     return withRule(
         DISALLOW_RESERVED_DOMAINS_PREDICATE,
-        FailureReason.CONTAINS_RESERVED_DOMAIN);
+        FailureReason.CONTAINS_RESERVED_DOMAIN,
+        RuleCost.PURE);
   }
 
   /**
@@ -295,10 +444,12 @@ public final class EmailValidator {
    * @return the new {@code EmailValidator} instance
    */
   public EmailValidator requireOnlyTopLevelDomains(TopLevelDomain... allowed) {
+    Set<TopLevelDomain> allowedSet = Arrays.stream(allowed).collect(Collectors.toSet());
+
     return withRule(
-        email -> ValidationRules.requireOnlyTopLevelDomains(
-            email, Arrays.stream(allowed).collect(Collectors.toSet())),
-        FailureReason.INVALID_TOP_LEVEL_DOMAIN);
+        email -> ValidationRules.requireOnlyTopLevelDomains(email, allowedSet),
+        FailureReason.INVALID_TOP_LEVEL_DOMAIN,
+        RuleCost.PURE);
   }
 
   /**
@@ -314,7 +465,8 @@ public final class EmailValidator {
   public EmailValidator disallowObsoleteWhitespace() {
     return withRule(
         DISALLOW_OBSOLETE_WHITESPACE_PREDICATE,
-        FailureReason.CONTAINS_OBSOLETE_WHITESPACE);
+        FailureReason.CONTAINS_OBSOLETE_WHITESPACE,
+        RuleCost.PURE);
   }
 
   /**
@@ -333,7 +485,8 @@ public final class EmailValidator {
   public EmailValidator requireValidMXRecord() {
     return withRule(
         REQUIRE_VALID_MX_RECORD_PREDICATE,
-        FailureReason.INVALID_MX_RECORD);
+        FailureReason.INVALID_MX_RECORD,
+        RuleCost.IO);
   }
 
   /**
@@ -354,7 +507,28 @@ public final class EmailValidator {
   public EmailValidator requireValidMXRecord(int initialTimeout, int numRetries) {
     return withRule(
         email -> ValidationRules.requireValidMXRecord(email, initialTimeout, numRetries),
-        FailureReason.INVALID_MX_RECORD);
+        FailureReason.INVALID_MX_RECORD,
+        RuleCost.IO);
+  }
+
+  /**
+   * Create a new {@code EmailValidator} with all rules from the current instance and the
+   * {@link ValidationRules#requireValidMXRecord(Email, MXRecordCache)} rule.
+   * Email addresses that have a domain without a valid MX record will fail validation with
+   * {@link FailureReason#INVALID_MX_RECORD}.
+   *
+   * <p>The given {@link MXRecordCache} is used to remember the result of each lookup, so that
+   * only the first address with a given domain (until the cached result expires) waits for
+   * a DNS lookup. The same cache can be shared between many validators.
+   *
+   * @param cache the cache of MX record lookups
+   * @return the new {@code EmailValidator} instance
+   */
+  public EmailValidator requireValidMXRecord(MXRecordCache cache) {
+    return withRule(
+        email -> ValidationRules.requireValidMXRecord(email, cache),
+        FailureReason.INVALID_MX_RECORD,
+        RuleCost.IO);
   }
 
   /**
@@ -373,7 +547,8 @@ public final class EmailValidator {
   public EmailValidator disallowDisposableDomains(DisposableDomainSource disposableDomainSource) {
     return withRule(
         email -> ValidationRules.disallowDisposableDomains(email, disposableDomainSource),
-        FailureReason.CONTAINS_DISPOSABLE_DOMAIN);
+        FailureReason.CONTAINS_DISPOSABLE_DOMAIN,
+        disposableDomainSource.lookupCost());
   }
 
   /**
@@ -389,7 +564,8 @@ public final class EmailValidator {
   public EmailValidator requireAscii() {
     return withRule(
         REQUIRE_ASCII_PREDICATE,
-        FailureReason.NON_ASCII_ADDRESS);
+        FailureReason.NON_ASCII_ADDRESS,
+        RuleCost.PURE);
   }
 
   /**
@@ -401,10 +577,9 @@ public final class EmailValidator {
    * @return the result of the validation
    */
   public boolean isValid(String email) {
-    return JMail.validate(email, allowNonstandardDots)
-        .getEmail()
-        .filter(e -> !testPredicates(e).isPresent())
-        .isPresent();
+    Optional<Email> parsed = parse(email).getEmail();
+
+    return parsed.isPresent() && testPredicates(parsed.get()) == null;
   }
 
   /**
@@ -444,15 +619,178 @@ public final class EmailValidator {
    *         {@link Email} object if successful, or the {@link FailureReason} if not
    */
   public EmailValidationResult validate(String email) {
-    EmailValidationResult result = JMail.validate(email, allowNonstandardDots);
+    return validate(email, EmailParser.pooled());
+  }
+
+  /**
+   * Package-private validate method that parses the address with the given {@link EmailParser}.
+   *
+   * @param email the email address to validate
+   * @param parser the parser to parse the address with
+   * @return a {@link EmailValidationResult} containing success or failure, along with the parsed
+   *         {@link Email} object if successful, or the {@link FailureReason} if not
+   */
+  EmailValidationResult validate(String email, EmailParser parser) {
+    EmailValidationResult result = parser.validate(email, allowNonstandardDots, maxCommentDepth);
 
     // If failed basic validation, just return it
     if (!result.getEmail().isPresent()) return result;
 
     // If the address fails custom validation, return failure, otherwise return the original result
-    return testPredicates(result.getEmail().get())
-        .map(EmailValidationResult::failure)
-        .orElse(result);
+    FailureReason failureReason = testPredicates(result.getEmail().get());
+
+    return failureReason == null ? result : EmailValidationResult.failure(failureReason);
+  }
+
+  /**
+   * <p>Asynchronously validate the given email address against all configured rules, returning
+   * the same {@link EmailValidationResult} as {@link #validate(String)}.</p>
+   *
+   * <p>Basic validation and every rule that does not have a {@link RuleCost} of
+   * {@link RuleCost#IO} (such as {@link #disallowIpDomain()}) are tested on the calling thread
+   * before this method returns. If that is enough to decide the result, the returned future is
+   * already complete and no I/O is performed. Otherwise, the remaining {@code IO} rules (such as
+   * {@link #requireValidMXRecord()}) are tested in order on a shared, bounded pool of daemon
+   * threads dedicated to blocking I/O. Use {@link #validateAsync(String, Executor)} to provide a
+   * different {@link Executor}.</p>
+   *
+   * <p>The calling thread never performs I/O. If every thread in the pool is busy and its queue
+   * is full (or the given {@code Executor} rejects the task), the returned future fails with a
+   * {@link java.util.concurrent.RejectedExecutionException}.</p>
+   *
+   * @param email the email address to validate
+   * @return a {@link CompletableFuture} that completes with the result of the validation
+   */
+  public CompletableFuture<EmailValidationResult> validateAsync(String email) {
+    return validateAsync(email, IoExecutor.shared());
+  }
+
+  /**
+   * <p>Asynchronously validate the given email address against all configured rules, testing
+   * rules that perform I/O on the given {@link Executor}. See {@link #validateAsync(String)}
+   * for details.</p>
+   *
+   * @param email the email address to validate
+   * @param executor the executor to test rules that perform I/O on
+   * @return a {@link CompletableFuture} that completes with the result of the validation
+   */
+  public CompletableFuture<EmailValidationResult> validateAsync(String email, Executor executor) {
+    EmailValidationResult result = parse(email);
+
+    // If failed basic validation, just return it
+    if (!result.getEmail().isPresent()) return CompletableFuture.completedFuture(result);
+
+    Email parsed = result.getEmail().get();
+
+    // Test every rule that does not perform I/O now. The first of these that fails is the
+    // result, unless a rule that performs I/O and comes before it in order also fails.
+    int firstFailure = rules.length;
+    for (int i = 0; i < rules.length; i++) {
+      if (!performsIo[i] && !rules[i].test(parsed)) {
+        firstFailure = i;
+        break;
+      }
+    }
+
+    int ioCount = 0;
+    for (int i = 0; i < firstFailure; i++) {
+      if (performsIo[i]) ioCount++;
+    }
+
+    if (ioCount == 0) {
+      return CompletableFuture.completedFuture(firstFailure == rules.length
+          ? result
+          : EmailValidationResult.failure(failureReasons[firstFailure]));
+    }
+
+    int lastRule = firstFailure;
+    return IoExecutor.supplyAsync(() -> {
+      for (int i = 0; i < lastRule; i++) {
+        if (performsIo[i] && !rules[i].test(parsed)) {
+          return EmailValidationResult.failure(failureReasons[i]);
+        }
+      }
+
+      return lastRule == rules.length
+          ? result
+          : EmailValidationResult.failure(failureReasons[lastRule]);
+    }, executor);
+  }
+
+  /**
+   * <p>Validate every email address in the given collection, returning the same
+   * {@link EmailValidationResult} for each address as {@link #validate(String)}, in the same
+   * order as the addresses in the collection.</p>
+   *
+   * <p>The addresses are split into ranges that are validated in parallel on the
+   * {@link ForkJoinPool#commonPool()}. Use {@link #validateAll(Collection, ForkJoinPool)} to
+   * provide a different {@link ForkJoinPool}. Rules that perform I/O (such as
+   * {@link #requireValidMXRecord()}) block the worker that tests them, so a dedicated pool is
+   * recommended for validators with those rules.</p>
+   *
+   * @param emails the email addresses to validate
+   * @return an unmodifiable list of the results of the validation, in the same order as the
+   *         addresses
+   */
+  public List<EmailValidationResult> validateAll(Collection<String> emails) {
+    return validateAll(emails, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * <p>Validate every email address in the given collection in parallel on the given
+   * {@link ForkJoinPool}. See {@link #validateAll(Collection)} for details.</p>
+   *
+   * @param emails the email addresses to validate
+   * @param pool the pool to validate the addresses in
+   * @return an unmodifiable list of the results of the validation, in the same order as the
+   *         addresses
+   */
+  public List<EmailValidationResult> validateAll(Collection<String> emails, ForkJoinPool pool) {
+    Objects.requireNonNull(pool);
+    String[] addresses = emails.toArray(new String[0]);
+
+    return Collections.unmodifiableList(Arrays.asList(
+        BulkValidation.validate(this, addresses, addresses.length, pool)));
+  }
+
+  /**
+   * <p>Validate every email address in the given stream, returning a stream of the same
+   * {@link EmailValidationResult} for each address as {@link #validate(String)}, in the same
+   * order as the addresses in the stream.</p>
+   *
+   * <p>The returned stream is lazy. As it is consumed, the addresses are read from the given
+   * stream in batches, and each batch is validated in parallel on the
+   * {@link ForkJoinPool#commonPool()}, so that only one batch of addresses is held in memory at
+   * a time. This makes it suitable for very large inputs, such as the lines of a file. Use
+   * {@link #validateAll(Stream, ForkJoinPool)} to provide a different {@link ForkJoinPool}.
+   * Closing the returned stream closes the given stream.</p>
+   *
+   * @param emails the email addresses to validate
+   * @return a sequential stream of the results of the validation, in the same order as the
+   *         addresses
+   */
+  public Stream<EmailValidationResult> validateAll(Stream<String> emails) {
+    return validateAll(emails, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * <p>Validate every email address in the given stream in batches, each of which is validated
+   * in parallel on the given {@link ForkJoinPool}. See {@link #validateAll(Stream)} for
+   * details.</p>
+   *
+   * @param emails the email addresses to validate
+   * @param pool the pool to validate the addresses in
+   * @return a sequential stream of the results of the validation, in the same order as the
+   *         addresses
+   */
+  public Stream<EmailValidationResult> validateAll(Stream<String> emails, ForkJoinPool pool) {
+    Objects.requireNonNull(pool);
+    Iterator<EmailValidationResult> results
+        = BulkValidation.iterator(this, emails.sequential().iterator(), pool);
+
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+            results, Spliterator.ORDERED | Spliterator.NONNULL), false)
+        .onClose(emails::close);
   }
 
   /**
@@ -465,22 +803,30 @@ public final class EmailValidator {
    *         is invalid according to all registered validation rules
    */
   public Optional<Email> tryParse(String email) {
-    return JMail.validate(email, allowNonstandardDots).getEmail()
-        .filter(e -> !testPredicates(e).isPresent());
+    return parse(email).getEmail()
+        .filter(e -> testPredicates(e) == null);
+  }
+
+  private EmailValidationResult parse(String email) {
+    return EmailParser.pooled().validate(email, allowNonstandardDots, maxCommentDepth);
+  }
+
+  private RuleCost costOf(Predicate<Email> rule) {
+    return ruleCosts.getOrDefault(rule, RuleCost.IO);
   }
 
   /**
    * Test the given email address against all configured validation predicates.
    *
    * @param email the email address to test
-   * @return an Optional that is either empty if all predicates passed or filled with the proper
-   *         FailureReason if one failed
-   */
-  private Optional<FailureReason> testPredicates(Email email) {
-    return validationPredicates.entrySet().stream()
-        .filter(entry -> !entry.getKey().test(email))
-        .findFirst()
-        .map(Map.Entry::getValue);
+   * @return the FailureReason of the first predicate that failed, or null if all predicates passed
+   */
+  private FailureReason testPredicates(Email email) {
+    for (int i = 0; i < rules.length; i++) {
+      if (!rules[i].test(email)) return failureReasons[i];
+    }
+
+    return null;
   }
 
   @Override
@@ -0,0 +1,28 @@
+package com.sanctionco.jmail;
+
+/**
+ * The relative cost of testing an {@link EmailValidator} rule against an email address.
+ * When an {@code EmailValidator} is configured with {@link EmailValidator#orderRulesByCost()},
+ * cheaper rules are tested before more expensive ones, so that an address that fails a cheap
+ * rule never pays for an expensive one.
+ */
+public enum RuleCost {
+
+  /**
+   * The rule only inspects the parsed {@link Email}, such as
+   * {@link ValidationRules#disallowIpDomain(Email)}.
+   */
+  PURE,
+
+  /**
+   * The rule looks the address up in data that is held in memory, such as a
+   * {@link com.sanctionco.jmail.disposable.DisposableDomainSource} loaded from a file.
+   */
+  IN_MEMORY,
+
+  /**
+   * The rule performs I/O, such as the DNS lookup of
+   * {@link ValidationRules#requireValidMXRecord(Email)} or a request to a remote API.
+   */
+  IO
+}
@@ -1,6 +1,10 @@
 package com.sanctionco.jmail;
 
-import java.util.Objects;
+import com.sanctionco.jmail.internal.CaseFolding;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a top level domain, such as {@code .com} or {@code .net}.
@@ -8,6 +12,11 @@ import java.util.Objects;
  * <p>Common TLDs are provided as static assessors, for example {@link #DOT_COM}
  * and {@link #DOT_ORG}. You can represent any top level domain (as long as it is valid)
  * using {@link #fromString(String)}.
+ *
+ * <p>Top level domains are interned: {@link #fromString(String)} returns the same instance for
+ * the same string (including the constants of this class), up to a fixed number of distinct
+ * strings, so that the few hundred top level domains seen in practice are only validated once
+ * and can be compared by identity.
  */
 public final class TopLevelDomain {
   // Original TLDs
@@ -23,10 +32,18 @@ public final class TopLevelDomain {
   // To use when an email address does not have a top level domain
   public static final TopLevelDomain NONE = new TopLevelDomain("");
 
+  // The maximum number of distinct strings to intern, so that addresses with arbitrary top level
+  // domains cannot grow the table without bound. Once it is full, new instances are returned.
+  static final int MAX_INTERNED = 1024;
+
+  private static final InternTable INTERNED = new InternTable(MAX_INTERNED);
+
   private final String tld;
+  private final int hash;
 
   private TopLevelDomain(String tld) {
     this.tld = tld;
+    this.hash = calculateHashCode();
   }
 
   String stringValue() {
@@ -41,13 +58,37 @@ public final class TopLevelDomain {
    * @throws InvalidTopLevelDomainException if the provided string is an invalid top level domain
    */
   public static TopLevelDomain fromString(String tld) {
+    return fromString(tld, INTERNED);
+  }
+
+  /**
+   * Get the {@code TopLevelDomain} that represents the given string, using the given intern
+   * table. Tests use this with a new table so that they do not depend on, or fill, the table
+   * shared by {@link #fromString(String)}.
+   *
+   * @param tld the string to turn into a {@code TopLevelDomain}
+   * @param table the intern table to look up and store the {@code TopLevelDomain} in
+   * @return a {@code TopLevelDomain} that represents the valid input
+   * @throws InvalidTopLevelDomainException if the provided string is an invalid top level domain
+   */
+  static TopLevelDomain fromString(String tld, InternTable table) {
     if (tld == null || tld.isEmpty()) throw new InvalidTopLevelDomainException();
 
-    String dotless = tld.charAt(0) == '.' ? tld.substring(1) : tld;
+    // Only valid top level domains are interned, so they do not need to be validated again
+    TopLevelDomain interned = table.get(tld);
+    if (interned != null) return interned;
+
+    String dotless = tld;
+
+    if (tld.charAt(0) == '.') {
+      dotless = tld.substring(1);
+      interned = table.get(dotless);
+      if (interned != null) return interned;
+    }
 
     if (!isValidTopLevelDomain(dotless)) throw new InvalidTopLevelDomainException();
 
-    return new TopLevelDomain(dotless);
+    return table.intern(new TopLevelDomain(dotless));
   }
 
   @Override
@@ -57,12 +98,16 @@ public final class TopLevelDomain {
     TopLevelDomain that = (TopLevelDomain) o;
     if (tld == null) return that.tld == null;
     if (that.tld == null) return false;
-    return tld.compareToIgnoreCase(that.tld) == 0;
+    return CaseFolding.equals(tld, that.tld);
   }
 
   @Override
   public int hashCode() {
-    return tld != null ? Objects.hash(tld.toLowerCase()) : 0;
+    return hash;
+  }
+
+  private int calculateHashCode() {
+    return tld != null ? CaseFolding.hashCode(tld) : 0;
   }
 
   @Override
@@ -95,4 +140,52 @@ public final class TopLevelDomain {
     // TLD cannot be all numeric
     return !isAllNumeric;
   }
+
+  /**
+   * A table of interned top level domains that holds at most a fixed number of distinct strings,
+   * starting with the constants of {@link TopLevelDomain}. Once it is full, new instances are
+   * returned without being stored.
+   */
+  static final class InternTable {
+    private final ConcurrentMap<String, TopLevelDomain> interned = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private final int capacity;
+
+    InternTable(int capacity) {
+      this.capacity = capacity;
+
+      for (TopLevelDomain tld : new TopLevelDomain[] {
+          DOT_COM, DOT_ORG, DOT_NET, DOT_INT, DOT_EDU, DOT_GOV, DOT_MIL}) {
+        intern(tld);
+      }
+    }
+
+    TopLevelDomain get(String tld) {
+      return interned.get(tld);
+    }
+
+    int size() {
+      return interned.size();
+    }
+
+    TopLevelDomain intern(TopLevelDomain tld) {
+      // Reserve a slot before inserting, so that concurrent misses cannot grow the table
+      // beyond its capacity
+      int reserved;
+      do {
+        reserved = count.get();
+        if (reserved >= capacity) return tld;
+      } while (!count.compareAndSet(reserved, reserved + 1));
+
+      TopLevelDomain existing = interned.putIfAbsent(tld.tld, tld);
+
+      if (existing != null) {
+        // Another thread interned the same string, so give back the slot
+        count.decrementAndGet();
+        return existing;
+      }
+
+      return tld;
+    }
+  }
 }
@@ -0,0 +1,215 @@
+package com.sanctionco.jmail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Validates email addresses that are encoded as UTF-8 bytes, without first decoding them into
+ * a {@link String} when possible.
+ *
+ * <p>Most addresses are entirely ASCII, and every ASCII character is encoded as the single byte
+ * with the same value. So if no byte has its high bit set, the bytes are read by
+ * {@link EmailScanner} through a {@link CharSequence} view that maps each byte to the
+ * {@code char} with the same value, and nothing is copied. Otherwise, the address contains
+ * multi-byte code points (or malformed bytes), and it is decoded exactly as
+ * {@code new String(bytes, StandardCharsets.UTF_8)} would decode it, so that the result is
+ * always the same as validating that string.
+ *
+ * <p>Internal usage only.
+ */
+final class Utf8Input {
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private Utf8Input() {
+  }
+
+  /**
+   * Validate the email address encoded in the given range of UTF-8 bytes, returning the same
+   * {@link FailureReason} as validating the decoded string.
+   *
+   * @param utf8 the bytes that contain the address
+   * @param off the index of the first byte of the address
+   * @param len the number of bytes in the address
+   * @param allowNonstandardDots true if a leading or trailing dot in the local-part should be
+   *                             allowed
+   * @return the reason the address is invalid, or {@link FailureReason#NONE} if it is valid
+   */
+  static FailureReason validate(byte[] utf8, int off, int len, boolean allowNonstandardDots) {
+    if (utf8 == null) return FailureReason.NULL_ADDRESS;
+
+    checkRange(utf8.length, off, len);
+
+    CharSequence email = isAscii(utf8, off, len)
+        ? new ByteArraySequence(utf8, off, len)
+        : decode(utf8, off, len);
+
+    return EmailScanner.validate(email, allowNonstandardDots);
+  }
+
+  /**
+   * Validate the email address encoded in the remaining UTF-8 bytes of the given buffer,
+   * returning the same {@link FailureReason} as validating the decoded string. The position,
+   * limit and contents of the buffer are not changed.
+   *
+   * @param utf8 the buffer that contains the address between its position and limit
+   * @param allowNonstandardDots true if a leading or trailing dot in the local-part should be
+   *                             allowed
+   * @return the reason the address is invalid, or {@link FailureReason#NONE} if it is valid
+   */
+  static FailureReason validate(ByteBuffer utf8, boolean allowNonstandardDots) {
+    if (utf8 == null) return FailureReason.NULL_ADDRESS;
+
+    if (utf8.hasArray()) {
+      return validate(
+          utf8.array(), utf8.arrayOffset() + utf8.position(), utf8.remaining(),
+          allowNonstandardDots);
+    }
+
+    CharSequence email = isAscii(utf8)
+        ? new ByteBufferSequence(utf8, utf8.position(), utf8.remaining())
+        : decode(utf8);
+
+    return EmailScanner.validate(email, allowNonstandardDots);
+  }
+
+  /**
+   * Decode the given range of UTF-8 bytes.
+   *
+   * @param utf8 the bytes to decode
+   * @param off the index of the first byte to decode
+   * @param len the number of bytes to decode
+   * @return the decoded string
+   */
+  static String decode(byte[] utf8, int off, int len) {
+    return new String(utf8, off, len, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Decode the remaining UTF-8 bytes of the given buffer, without changing its position.
+   *
+   * @param utf8 the buffer to decode
+   * @return the decoded string
+   */
+  static String decode(ByteBuffer utf8) {
+    if (utf8.hasArray()) {
+      return decode(utf8.array(), utf8.arrayOffset() + utf8.position(), utf8.remaining());
+    }
+
+    byte[] bytes = new byte[utf8.remaining()];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = utf8.get(utf8.position() + i);
+    }
+
+    return decode(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Check that the given range is within an array of the given length, in the same way as
+   * {@link String#String(byte[], int, int, java.nio.charset.Charset)}.
+   *
+   * @param length the length of the array
+   * @param off the index of the first element of the range
+   * @param len the number of elements in the range
+   * @throws IndexOutOfBoundsException if the range is not within the array
+   */
+  static void checkRange(int length, int off, int len) {
+    if (off < 0 || len < 0 || off > length - len) {
+      throw new IndexOutOfBoundsException(
+          "Range [" + off + ", " + off + " + " + len + ") out of bounds for length " + length);
+    }
+  }
+
+  private static boolean isAscii(byte[] bytes, int off, int len) {
+    for (int i = off, end = off + len; i < end; i++) {
+      if (bytes[i] < 0) return false;
+    }
+
+    return true;
+  }
+
+  private static boolean isAscii(ByteBuffer buffer) {
+    for (int i = buffer.position(), end = buffer.limit(); i < end; i++) {
+      if (buffer.get(i) < 0) return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * A view of a range of ASCII bytes as a {@link CharSequence}.
+   */
+  private static final class ByteArraySequence implements CharSequence {
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+
+    ByteArraySequence(byte[] bytes, int offset, int length) {
+      this.bytes = bytes;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return (char) bytes[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return new ByteArraySequence(bytes, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+      return new String(bytes, offset, length, StandardCharsets.US_ASCII);
+    }
+  }
+
+  /**
+   * A view of a range of ASCII bytes in a {@link ByteBuffer} as a {@link CharSequence}. Bytes
+   * are read with absolute gets, so the position of the buffer is never changed.
+   */
+  private static final class ByteBufferSequence implements CharSequence {
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    ByteBufferSequence(ByteBuffer buffer, int offset, int length) {
+      this.buffer = buffer;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return (char) buffer.get(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return new ByteBufferSequence(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+      char[] chars = new char[length];
+      for (int i = 0; i < length; i++) {
+        chars[i] = charAt(i);
+      }
+
+      return new String(chars);
+    }
+  }
+}
@@ -2,9 +2,10 @@ package com.sanctionco.jmail;
 
 import com.sanctionco.jmail.disposable.DisposableDomainSource;
 import com.sanctionco.jmail.dns.DNSLookupUtil;
+import com.sanctionco.jmail.dns.MXRecordCache;
+import com.sanctionco.jmail.internal.CaseInsensitiveSet;
 
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -22,13 +23,13 @@ public final class ValidationRules {
 
   // Set of reserved TLDs according to RFC 2606, section 2
   // https://datatracker.ietf.org/doc/html/rfc2606
-  private static final Set<String> reservedTopLevelDomains = new HashSet<>(
+  private static final CaseInsensitiveSet reservedTopLevelDomains = CaseInsensitiveSet.of(
       Arrays.asList("test", "invalid", "example", "localhost"));
 
   // Set of reserved second level domains according to RFC 2606, section 3
   // Reserved second level domains are all "example.*" The values for * are defined here.
-  private static final Set<TopLevelDomain> reservedExampleTLDs = new HashSet<>(
-      Arrays.asList(TopLevelDomain.DOT_COM, TopLevelDomain.DOT_NET, TopLevelDomain.DOT_ORG));
+  private static final CaseInsensitiveSet reservedExampleTLDs = CaseInsensitiveSet.of(
+      Arrays.asList("com", "net", "org"));
 
   /**
    * Rejects an email address that has an IP address as the domain. For example, the address
@@ -97,6 +98,11 @@ public final class ValidationRules {
    * For example, if {@code allowed} is {@code [DOT_COM, DOT_ORG]}, then the address
    * {@code "test@example.net"} would be rejected.
    *
+   * <p>Top level domains are interned by {@link TopLevelDomain#fromString(String)} and their hash
+   * codes are precomputed, so looking up the top level domain of an address in a
+   * {@link java.util.HashSet} of the constants of {@link TopLevelDomain} usually succeeds or
+   * fails on an identity comparison.
+   *
    * @param email the email address to validate
    * @param allowed the set of allowed {@link TopLevelDomain}
    * @return true if this email address has an allowed top-level domain, or false if it does not
@@ -136,9 +142,10 @@ public final class ValidationRules {
    */
   public static boolean disallowReservedDomains(Email email) {
     List<String> domainParts = email.domainParts();
+    String topLevelDomain = domainParts.get(domainParts.size() - 1);
 
     // Check the top level domain to see if it is reserved, if so return false
-    if (reservedTopLevelDomains.contains(domainParts.get(domainParts.size() - 1).toLowerCase())) {
+    if (reservedTopLevelDomains.containsIgnoreCase(topLevelDomain)) {
       return false;
     }
 
@@ -146,7 +153,7 @@ public final class ValidationRules {
     // the reservedExampleTLDs set
     return domainParts.size() == 1
         || !"example".equalsIgnoreCase(domainParts.get(domainParts.size() - 2))
-        || !reservedExampleTLDs.contains(email.topLevelDomain());
+        || !reservedExampleTLDs.containsIgnoreCase(topLevelDomain);
   }
 
   /**
@@ -171,6 +178,18 @@ public final class ValidationRules {
     return DNSLookupUtil.hasMXRecord(email.domainWithoutComments(), initialTimeout, numRetries);
   }
 
+  /**
+   * Rejects an email address that does not have a valid MX record for the domain, using the
+   * given {@link MXRecordCache} to avoid repeating the DNS lookup for recently seen domains.
+   *
+   * @param email the email address to validate
+   * @param cache the cache of MX record lookups
+   * @return true if this email address has a valid MX record, or false if it does not
+   */
+  public static boolean requireValidMXRecord(Email email, MXRecordCache cache) {
+    return cache.hasMXRecord(email.domainWithoutComments());
+  }
+
   /**
    * Rejects an email address that has a disposable domain. The set of disposable domains
    * is determined by the provided {@link DisposableDomainSource}.
@@ -0,0 +1,187 @@
+package com.sanctionco.jmail.disposable;
+
+import com.sanctionco.jmail.RuleCost;
+import com.sanctionco.jmail.internal.ExpiringCache;
+import com.sanctionco.jmail.internal.SingleFlight;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A {@link DisposableDomainSource} that wraps another source, such as an
+ * {@link IsTempMailAPISource}, and caches its results in a bounded cache keyed by the lowercase
+ * domain. This way, a validator that sees the same domain many times only asks the wrapped
+ * source once per domain while the result is cached.</p>
+ *
+ * <ul>
+ *   <li>Results are cached for the TTL, and failures of the wrapped source are cached for the
+ *       (usually shorter) error TTL. While a failure is cached, the domain is considered not
+ *       disposable, in the same way as when an {@link IsTempMailAPISource} request fails.</li>
+ *   <li>Concurrent lookups of the same domain that is not in the cache share a single lookup
+ *       of the wrapped source.</li>
+ *   <li>At most a fixed number of lookups of the wrapped source are made at once, and further
+ *       lookups wait for one of them to finish.</li>
+ * </ul>
+ *
+ * <p>When wrapping an {@link IsTempMailAPISource}, a failed request or an unexpected response is
+ * a failure. For any other source, a failure is a {@link RuntimeException} thrown by
+ * {@link DisposableDomainSource#isDisposableDomain(String)}.</p>
+ *
+ * <p>Create a new source using {@link #builder(DisposableDomainSource)}.</p>
+ *
+ * @see DisposableDomainSource
+ */
+public final class CachingSource implements DisposableDomainSource {
+  private final DisposableDomainSource source;
+  private final Lookup lookup;
+  private final long ttlMillis;
+  private final long errorTtlMillis;
+  private final Semaphore permits;
+
+  private final ExpiringCache<String, Boolean> results;
+
+  // Concurrent misses for the same domain share a single lookup
+  private final SingleFlight<String, Boolean> lookups = new SingleFlight<>();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+
+  CachingSource(CachingSourceBuilder builder) {
+    this.source = builder.source;
+    this.lookup = source instanceof IsTempMailAPISource
+        ? ((IsTempMailAPISource) source)::lookup
+        : source::isDisposableDomain;
+    this.ttlMillis = builder.ttl.toMillis();
+    this.errorTtlMillis = builder.errorTtl.toMillis();
+    this.permits = new Semaphore(builder.maxInFlight);
+    this.results = new ExpiringCache<>(builder.maximumSize, builder.clock);
+  }
+
+  /**
+   * Create a new builder to configure a {@link CachingSource} that wraps the given source.
+   *
+   * @param source the source whose results to cache
+   * @return a new {@link CachingSourceBuilder}
+   */
+  public static CachingSourceBuilder builder(DisposableDomainSource source) {
+    return new CachingSourceBuilder(source);
+  }
+
+  @Override
+  public boolean isDisposableDomain(String domain) {
+    String key = domain.toLowerCase(Locale.ROOT);
+    Boolean cached = cachedResult(key);
+
+    return cached != null ? cached : lookups.execute(key, this::lookupAndStore);
+  }
+
+  @Override
+  public RuleCost lookupCost() {
+    return source.lookupCost();
+  }
+
+  /**
+   * Get the number of domains currently in the cache, including domains that have expired
+   * but not yet been removed.
+   *
+   * @return the number of cached domains
+   */
+  public int size() {
+    return results.size();
+  }
+
+  /**
+   * Get the number of lookups that were answered from the cache, including cached failures.
+   *
+   * @return the number of cache hits
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Get the number of lookups that were not in the cache (or had expired) and therefore
+   * asked the wrapped source.
+   *
+   * @return the number of cache misses
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Get the number of lookups of the wrapped source that failed.
+   *
+   * @return the number of failed lookups
+   */
+  public long errorCount() {
+    return errors.sum();
+  }
+
+  /**
+   * Get the number of lookups that were not in the cache, but did not ask the wrapped source
+   * themselves because a lookup of the same domain was already in progress on another thread.
+   * Those lookups wait for and return the result of the lookup that was in progress instead,
+   * and are not included in the {@link #missCount()}.
+   *
+   * @return the number of coalesced lookups
+   */
+  public long coalescedCount() {
+    return lookups.coalescedCount();
+  }
+
+  /**
+   * Get the number of domains that were removed because the cache grew beyond its
+   * maximum size.
+   *
+   * @return the number of evictions
+   */
+  public long evictionCount() {
+    return results.evictionCount();
+  }
+
+  private Boolean cachedResult(String key) {
+    Boolean result = results.get(key);
+    if (result != null) hits.increment();
+
+    return result;
+  }
+
+  private boolean lookupAndStore(String key) {
+    // Another thread may have stored the result between the cache miss and this lookup
+    Boolean cached = cachedResult(key);
+    if (cached != null) return cached;
+
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      // Do not cache anything, since the wrapped source was never asked
+      Thread.currentThread().interrupt();
+      return false;
+    }
+
+    misses.increment();
+
+    try {
+      boolean disposable = lookup.test(key);
+      results.put(key, disposable, ttlMillis);
+
+      return disposable;
+    } catch (IOException | RuntimeException e) {
+      errors.increment();
+      results.put(key, false, errorTtlMillis);
+
+      return false;
+    } finally {
+      permits.release();
+    }
+  }
+
+  @FunctionalInterface
+  private interface Lookup {
+    boolean test(String domain) throws IOException;
+  }
+}
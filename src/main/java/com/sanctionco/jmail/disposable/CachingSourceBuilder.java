@@ -0,0 +1,130 @@
+package com.sanctionco.jmail.disposable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The builder class used to build a {@link CachingSource}.
+ */
+public class CachingSourceBuilder {
+  // Longer durations cannot be converted to milliseconds, so they are reduced to this one
+  private static final Duration MAX_TTL = Duration.ofMillis(Long.MAX_VALUE);
+
+  final DisposableDomainSource source;
+  int maximumSize = 10_000;
+  Duration ttl = Duration.ofHours(1);
+  Duration errorTtl = Duration.ofMinutes(1);
+  int maxInFlight = 16;
+  Clock clock = Clock.systemUTC();
+
+  CachingSourceBuilder(DisposableDomainSource source) {
+    this.source = Objects.requireNonNull(source);
+  }
+
+  /**
+   * <p>Set the maximum number of domains to keep in the cache. When the cache grows beyond
+   * this size, domains that have expired or have not been looked up recently are evicted.</p>
+   *
+   * <p>By default, the maximum size is {@code 10,000} domains.</p>
+   *
+   * @param maximumSize the maximum number of domains to cache
+   * @return this
+   * @throws IllegalArgumentException if the maximum size is not positive
+   */
+  public CachingSourceBuilder maximumSize(int maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("The maximum size must be positive");
+    }
+
+    this.maximumSize = maximumSize;
+    return this;
+  }
+
+  /**
+   * <p>Set how long to cache whether a domain is disposable, once the wrapped source has
+   * answered.</p>
+   *
+   * <p>By default, results are cached for one hour.</p>
+   *
+   * <p>A duration of {@link Long#MAX_VALUE} milliseconds or longer (such as
+   * {@code ChronoUnit.FOREVER.getDuration()}) keeps results until they are evicted.</p>
+   *
+   * @param ttl how long to cache a result
+   * @return this
+   * @throws IllegalArgumentException if the duration is negative
+   */
+  public CachingSourceBuilder ttl(Duration ttl) {
+    this.ttl = requireNonNegative(ttl);
+    return this;
+  }
+
+  /**
+   * <p>Set how long to remember that the wrapped source failed to answer for a domain. While
+   * a failure is remembered, the domain is considered not disposable without asking the
+   * wrapped source again. Use {@link Duration#ZERO} to ask again on every lookup.</p>
+   *
+   * <p>By default, failures are remembered for one minute.</p>
+   *
+   * <p>A duration of {@link Long#MAX_VALUE} milliseconds or longer (such as
+   * {@code ChronoUnit.FOREVER.getDuration()}) remembers failures until they are evicted.</p>
+   *
+   * @param errorTtl how long to remember a failure
+   * @return this
+   * @throws IllegalArgumentException if the duration is negative
+   */
+  public CachingSourceBuilder errorTtl(Duration errorTtl) {
+    this.errorTtl = requireNonNegative(errorTtl);
+    return this;
+  }
+
+  /**
+   * <p>Set the maximum number of lookups of the wrapped source that can be in progress at
+   * once. Lookups beyond this limit wait until an earlier lookup finishes.</p>
+   *
+   * <p>By default, at most 16 lookups are made at once.</p>
+   *
+   * @param maxInFlight the maximum number of concurrent lookups
+   * @return this
+   * @throws IllegalArgumentException if the limit is not positive
+   */
+  public CachingSourceBuilder maxInFlight(int maxInFlight) {
+    if (maxInFlight <= 0) {
+      throw new IllegalArgumentException("The maximum concurrent lookups must be positive");
+    }
+
+    this.maxInFlight = maxInFlight;
+    return this;
+  }
+
+  /**
+   * <p>Set the clock used to determine when cached results expire. This is useful to control
+   * time in tests.</p>
+   *
+   * <p>By default, {@link Clock#systemUTC()} is used.</p>
+   *
+   * @param clock the clock to use
+   * @return this
+   */
+  public CachingSourceBuilder clock(Clock clock) {
+    this.clock = Objects.requireNonNull(clock);
+    return this;
+  }
+
+  /**
+   * Build the new {@code CachingSource} instance.
+   *
+   * @return the new {@link CachingSource} instance
+   */
+  public CachingSource build() {
+    return new CachingSource(this);
+  }
+
+  private static Duration requireNonNegative(Duration ttl) {
+    if (ttl.isNegative()) {
+      throw new IllegalArgumentException("The TTL must not be negative");
+    }
+
+    return ttl.compareTo(MAX_TTL) > 0 ? MAX_TTL : ttl;
+  }
+}
@@ -1,9 +1,14 @@
 package com.sanctionco.jmail.disposable;
 
+import com.sanctionco.jmail.RuleCost;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Objects;
 
 /**
  * <p>A {@code DisposableDomainSource} is used as a source of truth for which domains are considered
@@ -13,11 +18,14 @@ import java.nio.file.Paths;
  * {@link com.sanctionco.jmail.EmailValidator} in order to consider email addresses that use a
  * disposable domain as invalid.
  *
- * <p>Currently, there are two types of {@code DisposableDomainSource}: {@link InputStreamSource}
- * and {@link IsTempMailAPISource}. Both of these can be instantiated via static methods on this
- * class: {@link #inputStream(InputStream)} and {@link #isTempMailAPI(String)} respectively. There
- * is an additional static method {@link #file(String)} used to instantiate a
- * {@code DisposableDomainSource} from a file, which uses an {@link InputStreamSource} underneath.
+ * <p>Currently, there are three types of {@code DisposableDomainSource}:
+ * {@link InputStreamSource}, {@link IndexSource} and {@link IsTempMailAPISource}. These can be
+ * instantiated via static methods on this class: {@link #inputStream(InputStream)},
+ * {@link #index(Path)} (or {@link #mappedIndex(Path)}) and {@link #isTempMailAPI(String)}
+ * respectively. There is an additional static method {@link #file(String)} used to instantiate
+ * a {@code DisposableDomainSource} from a file, which uses an {@link InputStreamSource}
+ * underneath. To pick up changes to the file without creating a new source, use a
+ * {@link ReloadingSource} instead.
  *
  * <p>Additionally, you can easily create your own {@code DisposableDomainSource} by writing a
  * class that implements {@code DisposableDomainSource}.
@@ -34,6 +42,18 @@ public interface DisposableDomainSource {
    */
   boolean isDisposableDomain(String domain);
 
+  /**
+   * Get the relative cost of looking up a domain in this source, which an
+   * {@link com.sanctionco.jmail.EmailValidator} uses to decide when to test the
+   * {@code disallowDisposableDomains} rule if it is configured to order rules by cost.
+   * Sources are assumed to perform I/O unless they override this method.
+   *
+   * @return the cost of {@link #isDisposableDomain(String)}
+   */
+  default RuleCost lookupCost() {
+    return RuleCost.IO;
+  }
+
   /**
    * <p>Create and return a new {@code DisposableDomainSource} which uses a file as the source
    * of disposable domains.
@@ -51,6 +71,68 @@ public interface DisposableDomainSource {
     }
   }
 
+  /**
+   * <p>Create and return a new {@code DisposableDomainSource} which uses a file as the source
+   * of disposable domains, and matches domains against them in the given way.
+   *
+   * <p>The file should have each disposable domain on its own line in the file. With
+   * {@link DomainMatching#SUBDOMAINS}, any subdomain of a domain in the file is also
+   * considered disposable.
+   *
+   * @param path the path to the file containing disposable domains
+   * @param matching how domains are matched against the disposable domains
+   * @return a new instance of {@code DisposableDomainSource}
+   * @throws IOException if the file at the given path does not exist or there is an issue reading
+   *                     the file
+   */
+  static DisposableDomainSource file(String path, DomainMatching matching) throws IOException {
+    try (InputStream in = Files.newInputStream(Paths.get(path))) {
+      return new InputStreamSource(in, matching);
+    }
+  }
+
+  /**
+   * <p>Create and return a new {@link IndexSource}, which can be used as a
+   * {@code DisposableDomainSource} that uses a binary index file as the source of disposable
+   * domains. Index files are created with an {@link IndexSourceBuilder}.
+   *
+   * <p>An index uses much less memory than the set of domains held by an
+   * {@link InputStreamSource}, and loads much faster than a text file since the domains are
+   * already sorted and encoded. The whole file is verified against its checksum when loaded.
+   *
+   * @param path the path to the index file
+   * @return a new instance of {@link IndexSource}
+   * @throws IOException if the file at the given path does not exist, cannot be read, or is not
+   *                     a valid index file of a supported version
+   */
+  static IndexSource index(Path path) throws IOException {
+    return new IndexSource(SortedDomainTable.open(ByteBuffer.wrap(Files.readAllBytes(path)), true));
+  }
+
+  /**
+   * <p>Create and return a new {@link IndexSource}, which can be used as a
+   * {@code DisposableDomainSource} that searches a binary index file directly in memory mapped
+   * from the file, without copying it onto the heap. Index files are created with an
+   * {@link IndexSourceBuilder}.
+   *
+   * <p>The mapped pages are part of the operating system's page cache, so the heap used by the
+   * source does not grow with the number of domains, and every process on the same host that
+   * maps the same file shares a single copy of it. The whole file is verified against its
+   * checksum when it is mapped.
+   *
+   * <p>The file must not be modified or truncated while it is mapped. To update the index,
+   * write a new file and move it over the old one (as {@link IndexSourceBuilder#writeTo(Path)}
+   * does), then map the new file. Sources that mapped the old file keep using it unchanged.
+   *
+   * @param path the path to the index file
+   * @return a new instance of {@link IndexSource}
+   * @throws IOException if the file at the given path does not exist, cannot be mapped, or is
+   *                     not a valid index file of a supported version
+   */
+  static IndexSource mappedIndex(Path path) throws IOException {
+    return new IndexSource(SortedDomainTable.map(path, true));
+  }
+
   /**
    * <p>Create and return a new {@link InputStreamSource}, which can be used as a
    * {@code DisposableDomainSource} that uses an input stream as the source of disposable domains.
@@ -66,6 +148,25 @@ public interface DisposableDomainSource {
     return new InputStreamSource(inputStream);
   }
 
+  /**
+   * <p>Create and return a new {@link InputStreamSource}, which can be used as a
+   * {@code DisposableDomainSource} that uses an input stream as the source of disposable domains,
+   * and matches domains against them in the given way. With {@link DomainMatching#SUBDOMAINS},
+   * any subdomain of a domain in the input stream is also considered disposable.
+   * <p>
+   * The input stream is not closed by this method, so the caller is responsible for closing it.
+   * Once the InputStreamSource instance is created, the input stream is no longer used by it.
+   *
+   * @param inputStream the input stream containing disposable domains. Will not be closed.
+   * @param matching how domains are matched against the disposable domains
+   * @return a new instance of {@link InputStreamSource}
+   * @throws IOException if the input stream is already closed or cannot be read
+   */
+  static DisposableDomainSource inputStream(InputStream inputStream, DomainMatching matching)
+      throws IOException {
+    return new InputStreamSource(inputStream, matching);
+  }
+
   /**
    * <p>Create and return a new {@link IsTempMailAPISource}, which can be used as a
    * {@code DisposableDomainSource} that uses the
@@ -75,6 +176,23 @@ public interface DisposableDomainSource {
    * @return a new instance of {@link IsTempMailAPISource}
    */
   static DisposableDomainSource isTempMailAPI(String apiKey) {
-    return new IsTempMailAPISource(new HttpClient(), apiKey);
+    return new IsTempMailAPISource(HttpTransport.builder().build(), apiKey);
+  }
+
+  /**
+   * <p>Create and return a new {@link IsTempMailAPISource}, which can be used as a
+   * {@code DisposableDomainSource} that uses the
+   * <a href="https://www.istempmail.com">IsTempMail API</a> as the source of disposable domains,
+   * and makes its requests with the given {@link HttpTransport}.
+   *
+   * <p>Use this method to configure the timeouts of the default transport (see
+   * {@link HttpTransport#builder()}), or to make requests with your own HTTP client.
+   *
+   * @param apiKey the API key to use when making requests to the IsTempMail API
+   * @param transport the transport used to make HTTP requests
+   * @return a new instance of {@link IsTempMailAPISource}
+   */
+  static IsTempMailAPISource isTempMailAPI(String apiKey, HttpTransport transport) {
+    return new IsTempMailAPISource(Objects.requireNonNull(transport), apiKey);
   }
 }
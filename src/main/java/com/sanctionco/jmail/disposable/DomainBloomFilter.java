@@ -0,0 +1,230 @@
+package com.sanctionco.jmail.disposable;
+
+import com.sanctionco.jmail.internal.CaseFolding;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bloom filter of disposable domains that is checked before the exact set of domains in a
+ * {@link DisposableDomainSource}, so that most domains that are not disposable are rejected
+ * after a few hashes instead of a lookup in a large set or index.
+ *
+ * <p>Each lookup hashes the characters of the domain once, folding ASCII letters to lowercase
+ * as it goes, so no lowercase copy of the domain is created. A domain that the filter rejects is
+ * certainly not disposable. A domain that the filter accepts is probably disposable, and is
+ * then looked up in the exact structure of the source. The fraction of domains that are not
+ * disposable but are still accepted is the false positive rate, which is chosen when the filter
+ * is created with {@link InputStreamSource#withPrefilter(double)} or
+ * {@link IndexSource#withPrefilter(double)}.
+ *
+ * <p>Domains that contain non-ASCII characters are always accepted, and are left to the exact
+ * structure of the source to look up.
+ *
+ * @see InputStreamSource#withPrefilter(double)
+ * @see IndexSource#withPrefilter(double)
+ */
+public final class DomainBloomFilter {
+  private static final long SEED = 0xCBF29CE484222325L;
+  private static final long PRIME = 0x100000001B3L;
+
+  private static final int MIN_BITS = 64;
+  private static final int MAX_BITS = 1 << 30;
+  private static final int MAX_HASHES = 16;
+
+  private final long[] bits;
+  private final int mask;
+  private final int hashCount;
+  private final double falsePositiveRate;
+  private final double expectedFalsePositiveRate;
+
+  private final LongAdder rejects = new LongAdder();
+  private final LongAdder falsePositives = new LongAdder();
+
+  private DomainBloomFilter(int domainCount, double falsePositiveRate) {
+    // The optimal number of bits is -n * ln(p) / ln(2)^2, rounded up to a power of two so that
+    // bit indexes are computed with a mask
+    double optimalBits = -domainCount * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+    int bitCount = MIN_BITS;
+    while (bitCount < optimalBits && bitCount < MAX_BITS) {
+      bitCount <<= 1;
+    }
+
+    this.bits = new long[bitCount / Long.SIZE];
+    this.mask = bitCount - 1;
+    this.hashCount = domainCount == 0 ? 1 : (int) Math.max(1,
+        Math.min(MAX_HASHES, Math.round((double) bitCount / domainCount * Math.log(2))));
+    this.falsePositiveRate = falsePositiveRate;
+    this.expectedFalsePositiveRate
+        = Math.pow(1 - Math.exp(-(double) hashCount * domainCount / bitCount), hashCount);
+  }
+
+  /**
+   * Create a bloom filter that contains the given domains, which must already be in lowercase.
+   *
+   * @param domains the domains to add
+   * @param domainCount the number of domains
+   * @param falsePositiveRate the target false positive rate
+   * @return the bloom filter
+   * @throws IllegalArgumentException if the false positive rate is not between 0 and 1
+   */
+  static DomainBloomFilter of(Iterable<String> domains, int domainCount,
+                              double falsePositiveRate) {
+    if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+      throw new IllegalArgumentException("The false positive rate must be between 0 and 1");
+    }
+
+    DomainBloomFilter filter = new DomainBloomFilter(domainCount, falsePositiveRate);
+    domains.forEach(filter::add);
+
+    return filter;
+  }
+
+  /**
+   * Determine if the given domain might be in the filter, ignoring case. A rejected domain is
+   * counted in the {@link #rejectCount()}.
+   *
+   * @param domain the domain to check
+   * @return false if the domain is certainly not in the filter, true otherwise
+   */
+  boolean mightContain(String domain) {
+    long hash = SEED;
+
+    for (int i = 0; i < domain.length(); i++) {
+      char c = domain.charAt(i);
+
+      // The domains were converted to lowercase with the rules of the whole string, which
+      // cannot be repeated one character at a time
+      if (c >= 0x80) return true;
+
+      hash = (hash ^ CaseFolding.fold(c)) * PRIME;
+    }
+
+    if (probe(mix(hash))) return true;
+
+    rejects.increment();
+    return false;
+  }
+
+  /**
+   * Record that a domain was accepted by the filter, but was not found by the exact lookup.
+   */
+  void recordFalsePositive() {
+    falsePositives.increment();
+  }
+
+  /**
+   * Get the false positive rate that this filter was created for.
+   *
+   * @return the target false positive rate
+   */
+  public double falsePositiveRate() {
+    return falsePositiveRate;
+  }
+
+  /**
+   * Get the false positive rate that is expected for the size of this filter, its number of
+   * hashes and the number of domains in it. Since the size of the filter is rounded up to a
+   * power of two, this is usually lower than the {@link #falsePositiveRate()}.
+   *
+   * @return the expected false positive rate
+   */
+  public double expectedFalsePositiveRate() {
+    return expectedFalsePositiveRate;
+  }
+
+  /**
+   * Get the fraction of the domains that were looked up and were not disposable, but were
+   * still accepted by the filter. Domains with non-ASCII characters are included, since the
+   * filter always accepts them.
+   *
+   * @return the observed false positive rate, or {@code 0} if no domains that are not
+   *         disposable have been looked up
+   */
+  public double observedFalsePositiveRate() {
+    long falsePositiveCount = falsePositives.sum();
+    long negatives = rejects.sum() + falsePositiveCount;
+
+    return negatives == 0 ? 0 : (double) falsePositiveCount / negatives;
+  }
+
+  /**
+   * Get the number of lookups that the filter rejected without asking the exact structure.
+   *
+   * @return the number of rejected lookups
+   */
+  public long rejectCount() {
+    return rejects.sum();
+  }
+
+  /**
+   * Get the number of lookups that the filter accepted, but that were not disposable.
+   *
+   * @return the number of false positives
+   */
+  public long falsePositiveCount() {
+    return falsePositives.sum();
+  }
+
+  /**
+   * Get the size of the filter in bits.
+   *
+   * @return the number of bits
+   */
+  public int bitCount() {
+    return mask + 1;
+  }
+
+  /**
+   * Get the number of bits that are checked for each domain.
+   *
+   * @return the number of hashes
+   */
+  public int hashCount() {
+    return hashCount;
+  }
+
+  private void add(String domain) {
+    long hash = SEED;
+
+    for (int i = 0; i < domain.length(); i++) {
+      hash = (hash ^ domain.charAt(i)) * PRIME;
+    }
+
+    long mixed = mix(hash);
+    int h1 = (int) mixed;
+    int h2 = (int) (mixed >>> 32);
+
+    for (int i = 0; i < hashCount; i++) {
+      int bit = (h1 + i * h2) & mask;
+      bits[bit >>> 6] |= 1L << bit;
+    }
+  }
+
+  /**
+   * Check the bits of a hash, which are derived from its two halves as described by
+   * Kirsch and Mitzenmacher in "Less Hashing, Same Performance".
+   */
+  private boolean probe(long hash) {
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+
+    for (int i = 0; i < hashCount; i++) {
+      int bit = (h1 + i * h2) & mask;
+      if ((bits[bit >>> 6] & (1L << bit)) == 0) return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Spread the bits of an FNV-1a hash with the finalizer of MurmurHash3.
+   */
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    hash *= 0xC4CEB9FE1A85EC53L;
+
+    return hash ^ (hash >>> 33);
+  }
+}
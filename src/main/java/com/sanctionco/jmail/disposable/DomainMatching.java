@@ -0,0 +1,22 @@
+package com.sanctionco.jmail.disposable;
+
+/**
+ * How a {@link DisposableDomainSource} that loads a list of domains matches a domain against
+ * the list.
+ */
+public enum DomainMatching {
+
+  /**
+   * A domain only matches if it is in the list, ignoring case. For example, if the list contains
+   * {@code mailinator.com}, then {@code mailinator.com} matches but {@code foo.mailinator.com}
+   * does not.
+   */
+  EXACT,
+
+  /**
+   * A domain matches if it or any of its parent domains is in the list, ignoring case. For
+   * example, if the list contains {@code mailinator.com}, then {@code mailinator.com} and
+   * {@code foo.mailinator.com} both match, but {@code notmailinator.com} does not.
+   */
+  SUBDOMAINS
+}
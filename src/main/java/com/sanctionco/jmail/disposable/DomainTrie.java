@@ -0,0 +1,173 @@
+package com.sanctionco.jmail.disposable;
+
+import com.sanctionco.jmail.internal.CaseFolding;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * A trie of domains stored by their labels in reverse order, so that {@code foo.mailinator.com}
+ * is found by following {@code com}, then {@code mailinator}, then {@code foo}. A domain
+ * matches if the walk from its last label reaches a domain that was added, which is either
+ * the domain itself or one of its parents.
+ *
+ * <p>The edges of the trie are held in a single open-addressing hash table keyed by the parent
+ * node and the label. Lookups hash and compare each label of the domain in place, folding ASCII
+ * letters to lowercase, so no substrings are created. Domains that contain non-ASCII characters
+ * are converted to lowercase before the walk.
+ *
+ * <p>Internal usage only.
+ */
+final class DomainTrie {
+  private static final int ROOT = 0;
+  private static final int NO_NODE = -1;
+
+  private int[] parents;
+  private int[] hashes;
+  private int[] children;
+  private String[] labels;
+  private int mask;
+  private int edgeCount;
+
+  private boolean[] terminal = new boolean[16];
+  private int nodeCount = 1;
+
+  private DomainTrie() {
+    allocate(16);
+  }
+
+  /**
+   * Create a trie that contains the given domains, which must already be trimmed and in
+   * lowercase. Empty domains are ignored.
+   *
+   * @param domains the domains to add
+   * @return the trie
+   */
+  static DomainTrie of(Collection<String> domains) {
+    DomainTrie trie = new DomainTrie();
+    domains.forEach(trie::add);
+
+    return trie;
+  }
+
+  /**
+   * Determine if the trie contains the given domain or any of its parent domains, ignoring case.
+   *
+   * @param domain the domain to find
+   * @return true if the domain or one of its parents is in the trie, false otherwise
+   */
+  boolean matches(String domain) {
+    if (!CaseFolding.isAscii(domain)) domain = domain.toLowerCase(Locale.ROOT);
+
+    int node = ROOT;
+    int end = domain.length();
+
+    while (end >= 0) {
+      int start = domain.lastIndexOf('.', end - 1) + 1;
+
+      node = child(node, domain, start, end);
+
+      if (node == NO_NODE) return false;
+      if (terminal[node]) return true;
+
+      end = start - 1;
+    }
+
+    return false;
+  }
+
+  private void add(String domain) {
+    if (domain.isEmpty()) return;
+
+    int node = ROOT;
+    int end = domain.length();
+
+    while (end >= 0) {
+      int start = domain.lastIndexOf('.', end - 1) + 1;
+      int next = child(node, domain, start, end);
+
+      node = next == NO_NODE ? addChild(node, domain, start, end) : next;
+      end = start - 1;
+    }
+
+    terminal[node] = true;
+  }
+
+  private int child(int parent, String domain, int start, int end) {
+    int hash = hash(parent, domain, start, end);
+
+    for (int slot = hash & mask; labels[slot] != null; slot = (slot + 1) & mask) {
+      if (parents[slot] == parent && hashes[slot] == hash
+          && CaseFolding.regionEquals(labels[slot], domain, start, end)) {
+        return children[slot];
+      }
+    }
+
+    return NO_NODE;
+  }
+
+  private int addChild(int parent, String domain, int start, int end) {
+    if (2 * (edgeCount + 1) > labels.length) resize();
+
+    int node = nodeCount++;
+    if (node == terminal.length) {
+      boolean[] grown = new boolean[terminal.length * 2];
+      System.arraycopy(terminal, 0, grown, 0, terminal.length);
+      terminal = grown;
+    }
+
+    insert(parent, hash(parent, domain, start, end), domain.substring(start, end), node);
+    edgeCount++;
+
+    return node;
+  }
+
+  private void insert(int parent, int hash, String label, int child) {
+    int slot = hash & mask;
+
+    while (labels[slot] != null) {
+      slot = (slot + 1) & mask;
+    }
+
+    parents[slot] = parent;
+    hashes[slot] = hash;
+    labels[slot] = label;
+    children[slot] = child;
+  }
+
+  private void resize() {
+    int[] oldParents = parents;
+    int[] oldHashes = hashes;
+    int[] oldChildren = children;
+    String[] oldLabels = labels;
+
+    allocate(oldLabels.length * 2);
+
+    for (int i = 0; i < oldLabels.length; i++) {
+      if (oldLabels[i] != null) insert(oldParents[i], oldHashes[i], oldLabels[i], oldChildren[i]);
+    }
+  }
+
+  private void allocate(int capacity) {
+    parents = new int[capacity];
+    hashes = new int[capacity];
+    children = new int[capacity];
+    labels = new String[capacity];
+    mask = capacity - 1;
+  }
+
+  /**
+   * Hash the parent node and the label between {@code start} and {@code end}, folding ASCII
+   * letters to lowercase.
+   */
+  private static int hash(int parent, String domain, int start, int end) {
+    int hash = parent * 0x9E3779B9;
+
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + CaseFolding.fold(domain.charAt(i));
+    }
+
+    // Spread the bits, since the table is indexed by the low bits of the hash
+    return hash ^ (hash >>> 16);
+  }
+}
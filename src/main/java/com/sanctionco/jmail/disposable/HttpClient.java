@@ -1,39 +1,87 @@
 package com.sanctionco.jmail.disposable;
 
-import java.io.BufferedReader;
+import com.sanctionco.jmail.internal.IoExecutor;
+
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
- * An HTTP client that is capable of making HTTP requests.
+ * The default {@link HttpTransport}, which makes HTTP requests with {@link HttpURLConnection}.
+ *
+ * <p>The JDK keeps the connection of a request alive and reuses it for the next request to the
+ * same server once the whole response has been read and its stream closed. To make sure that
+ * connections are always reused, this client reads every response to the end, including the
+ * body of error responses, and never disconnects.
  */
-class HttpClient {
+final class HttpClient implements HttpTransport {
+  private static final int BUFFER_SIZE = 8192;
+
+  private final int connectTimeoutMillis;
+  private final int readTimeoutMillis;
+  private final Executor executor;
+
+  HttpClient(HttpTransportBuilder builder) {
+    this.connectTimeoutMillis = (int) builder.connectTimeout.toMillis();
+    this.readTimeoutMillis = (int) builder.readTimeout.toMillis();
+    this.executor = builder.executor;
+  }
 
   /**
    * Get data from the given URL using the HTTP GET method.
    *
    * @param urlString the URL to make the HTTP GET request against
-   * @return the string response, or an empty string if there was an error making the request
+   * @return the response, or the exception that prevented a response from being received
    */
-  public String get(String urlString) {
+  @Override
+  public HttpResult get(String urlString) {
     try {
-      URL url = new URL(urlString);
-      HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-      conn.setRequestMethod("GET");
+      URLConnection connection = new URL(urlString).openConnection();
 
-      BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-      StringBuilder response = new StringBuilder();
-      String line;
-      while ((line = reader.readLine()) != null) {
-        response.append(line);
+      if (!(connection instanceof HttpURLConnection)) {
+        throw new IOException("The URL " + urlString + " is not an HTTP URL");
       }
-      reader.close();
 
-      return response.toString();
+      HttpURLConnection conn = (HttpURLConnection) connection;
+      conn.setRequestMethod("GET");
+      conn.setConnectTimeout(connectTimeoutMillis);
+      conn.setReadTimeout(readTimeoutMillis);
+      conn.setUseCaches(false);
+      conn.setRequestProperty("Accept", "application/json");
+
+      int statusCode = conn.getResponseCode();
+      InputStream stream = statusCode >= 400 ? conn.getErrorStream() : conn.getInputStream();
+
+      return HttpResult.response(statusCode, readFully(stream));
     } catch (IOException e) {
-      return "";
+      return HttpResult.failed(e);
+    }
+  }
+
+  @Override
+  public CompletableFuture<HttpResult> getAsync(String url) {
+    return IoExecutor.supplyAsync(() -> get(url), executor);
+  }
+
+  private static String readFully(InputStream stream) throws IOException {
+    // There is no error stream if the error response has no body
+    if (stream == null) return "";
+
+    try (InputStream in = stream) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[BUFFER_SIZE];
+
+      for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+        out.write(buffer, 0, read);
+      }
+
+      return new String(out.toByteArray(), StandardCharsets.UTF_8);
     }
   }
 }
@@ -0,0 +1,86 @@
+package com.sanctionco.jmail.disposable;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The result of an HTTP request made by an {@link HttpTransport}, which is either a response
+ * with a status code and body, or the exception that prevented a response from being received
+ * (such as a timeout or a refused connection).
+ */
+public final class HttpResult {
+  private final int statusCode;
+  private final String body;
+  private final IOException failure;
+
+  private HttpResult(int statusCode, String body, IOException failure) {
+    this.statusCode = statusCode;
+    this.body = body;
+    this.failure = failure;
+  }
+
+  /**
+   * Create the result of a request that received a response, whatever its status code.
+   *
+   * @param statusCode the HTTP status code of the response
+   * @param body the body of the response
+   * @return a new {@code HttpResult}
+   */
+  public static HttpResult response(int statusCode, String body) {
+    return new HttpResult(statusCode, Objects.requireNonNull(body), null);
+  }
+
+  /**
+   * Create the result of a request that did not receive a response.
+   *
+   * @param failure the exception that prevented a response from being received
+   * @return a new {@code HttpResult}
+   */
+  public static HttpResult failed(IOException failure) {
+    return new HttpResult(-1, "", Objects.requireNonNull(failure));
+  }
+
+  /**
+   * Determine if the request received a response with a successful ({@code 2xx}) status code.
+   *
+   * @return true if the request was successful, false otherwise
+   */
+  public boolean isSuccessful() {
+    return statusCode >= 200 && statusCode < 300;
+  }
+
+  /**
+   * Get the HTTP status code of the response.
+   *
+   * @return the status code, or {@code -1} if the request did not receive a response
+   */
+  public int statusCode() {
+    return statusCode;
+  }
+
+  /**
+   * Get the body of the response. The body of an error response is also returned.
+   *
+   * @return the body, or an empty string if the request did not receive a response
+   */
+  public String body() {
+    return body;
+  }
+
+  /**
+   * Get the exception that prevented the request from receiving a response.
+   *
+   * @return the exception, or an empty {@code Optional} if the request received a response
+   */
+  public Optional<IOException> failure() {
+    return Optional.ofNullable(failure);
+  }
+
+  @Override
+  public String toString() {
+    return failure != null
+        ? "HttpResult{failure=" + failure + "}"
+        : "HttpResult{statusCode=" + statusCode + ", body=" + body + "}";
+  }
+}
@@ -0,0 +1,54 @@
+package com.sanctionco.jmail.disposable;
+
+import com.sanctionco.jmail.internal.IoExecutor;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>Makes the HTTP requests of a {@link DisposableDomainSource} that calls a remote API, such
+ * as {@link IsTempMailAPISource}.
+ *
+ * <p>A transport never throws for a failed request. Instead, every request completes with an
+ * {@link HttpResult} that holds either the response (whatever its status code) or the
+ * exception that prevented a response from being received, so that callers can tell a failed
+ * request apart from a successful response.
+ *
+ * <p>The default transport, created with {@link #builder()}, uses {@link java.net.URL}
+ * connections that are kept alive and reused between requests. You can use another HTTP client
+ * by implementing this interface and passing it to
+ * {@link DisposableDomainSource#isTempMailAPI(String, HttpTransport)}.
+ */
+public interface HttpTransport {
+
+  /**
+   * Make an HTTP GET request to the given URL and wait for the result.
+   *
+   * @param url the URL to request
+   * @return the result of the request
+   */
+  HttpResult get(String url);
+
+  /**
+   * Make an HTTP GET request to the given URL without blocking the calling thread.
+   *
+   * <p>By default, this runs {@link #get(String)} on a shared, bounded pool of daemon threads
+   * intended for I/O. If every thread in that pool is busy and its queue is full, the returned
+   * future fails with a {@link java.util.concurrent.RejectedExecutionException}. Transports that
+   * are asynchronous by nature should override this method.
+   *
+   * @param url the URL to request
+   * @return a future that completes with the result of the request
+   */
+  default CompletableFuture<HttpResult> getAsync(String url) {
+    return IoExecutor.supplyAsync(() -> get(url), IoExecutor.shared());
+  }
+
+  /**
+   * Create a new builder to configure the default {@code HttpTransport}.
+   *
+   * @return a new {@link HttpTransportBuilder}
+   */
+  static HttpTransportBuilder builder() {
+    return new HttpTransportBuilder();
+  }
+}
@@ -0,0 +1,84 @@
+package com.sanctionco.jmail.disposable;
+
+import com.sanctionco.jmail.internal.IoExecutor;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * The builder class used to build the default {@link HttpTransport}.
+ */
+public class HttpTransportBuilder {
+  Duration connectTimeout = Duration.ofSeconds(2);
+  Duration readTimeout = Duration.ofSeconds(5);
+  Executor executor = IoExecutor.shared();
+
+  HttpTransportBuilder() {
+  }
+
+  /**
+   * <p>Set how long to wait for a connection to the server to be established.</p>
+   *
+   * <p>By default, the connect timeout is 2 seconds.</p>
+   *
+   * @param connectTimeout the connect timeout
+   * @return this
+   * @throws IllegalArgumentException if the timeout is not positive, or is longer than
+   *                                  {@link Integer#MAX_VALUE} milliseconds
+   */
+  public HttpTransportBuilder connectTimeout(Duration connectTimeout) {
+    this.connectTimeout = requireValidTimeout(connectTimeout);
+    return this;
+  }
+
+  /**
+   * <p>Set how long to wait for data from the server once connected, before the request
+   * fails with a {@link java.net.SocketTimeoutException}.</p>
+   *
+   * <p>By default, the read timeout is 5 seconds.</p>
+   *
+   * @param readTimeout the read timeout
+   * @return this
+   * @throws IllegalArgumentException if the timeout is not positive, or is longer than
+   *                                  {@link Integer#MAX_VALUE} milliseconds
+   */
+  public HttpTransportBuilder readTimeout(Duration readTimeout) {
+    this.readTimeout = requireValidTimeout(readTimeout);
+    return this;
+  }
+
+  /**
+   * <p>Set the executor that runs the requests made with
+   * {@link HttpTransport#getAsync(String)}.</p>
+   *
+   * <p>By default, requests run on a shared, bounded pool of daemon threads intended for I/O.
+   * If the executor rejects a request, the future returned by {@code getAsync} fails with a
+   * {@link java.util.concurrent.RejectedExecutionException}.</p>
+   *
+   * @param executor the executor to use
+   * @return this
+   */
+  public HttpTransportBuilder executor(Executor executor) {
+    this.executor = Objects.requireNonNull(executor);
+    return this;
+  }
+
+  /**
+   * Build the new {@code HttpTransport} instance.
+   *
+   * @return the new {@link HttpTransport} instance
+   */
+  public HttpTransport build() {
+    return new HttpClient(this);
+  }
+
+  private static Duration requireValidTimeout(Duration timeout) {
+    if (timeout.isNegative() || timeout.isZero() || timeout.toMillis() > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("The timeout must be positive and at most "
+          + Integer.MAX_VALUE + " milliseconds");
+    }
+
+    return timeout;
+  }
+}
@@ -0,0 +1,126 @@
+package com.sanctionco.jmail.disposable;
+
+import com.sanctionco.jmail.RuleCost;
+
+import java.util.AbstractList;
+import java.util.Optional;
+
+/**
+ * An implementation of {@link DisposableDomainSource} that looks up domains in a compact,
+ * sorted index of disposable domains.
+ *
+ * <p>Instead of a set of strings, the index stores every domain as lowercase UTF-8 bytes in a
+ * single sorted array, which uses a small fraction of the memory and is searched with a binary
+ * search that does not create any objects for ASCII domains. An index is created with an
+ * {@link IndexSourceBuilder}, which can also write it to a binary file that is loaded with
+ * {@link DisposableDomainSource#index(java.nio.file.Path)} much faster than a text file.
+ *
+ * <p>An index file can also be memory-mapped with
+ * {@link DisposableDomainSource#mappedIndex(java.nio.file.Path)}, in which case the domains are
+ * searched directly in the mapped file instead of being copied onto the heap.
+ *
+ * <p>When most domains that are looked up are not disposable, use {@link #withPrefilter(double)}
+ * to check a {@link DomainBloomFilter} before the index, which rejects most of those domains
+ * without searching the index.
+ *
+ * @see DisposableDomainSource
+ */
+public class IndexSource implements DisposableDomainSource {
+  private final SortedDomainTable table;
+  private final DomainBloomFilter prefilter;
+
+  IndexSource(SortedDomainTable table) {
+    this(table, null);
+  }
+
+  private IndexSource(SortedDomainTable table, DomainBloomFilter prefilter) {
+    this.table = table;
+    this.prefilter = prefilter;
+  }
+
+  /**
+   * Create a new builder to build an index of disposable domains.
+   *
+   * @return a new {@link IndexSourceBuilder}
+   */
+  public static IndexSourceBuilder builder() {
+    return new IndexSourceBuilder();
+  }
+
+  @Override
+  public boolean isDisposableDomain(String domain) {
+    if (prefilter == null) return table.contains(domain);
+    if (!prefilter.mightContain(domain)) return false;
+
+    boolean disposable = table.contains(domain);
+    if (!disposable) prefilter.recordFalsePositive();
+
+    return disposable;
+  }
+
+  @Override
+  public RuleCost lookupCost() {
+    return RuleCost.IN_MEMORY;
+  }
+
+  /**
+   * Get the number of disposable domains in the index.
+   *
+   * @return the number of domains
+   */
+  public int size() {
+    return table.size();
+  }
+
+  /**
+   * Determine if this index is searched directly in a memory-mapped file, as opposed to a copy
+   * of the index on the heap.
+   *
+   * @return true if the index is memory-mapped, false otherwise
+   */
+  public boolean isMemoryMapped() {
+    return table.isMemoryMapped();
+  }
+
+  /**
+   * Create a new {@code IndexSource} that searches the same index as this source, but checks a
+   * {@link DomainBloomFilter} of the domains before searching the index. Most domains that are
+   * not disposable are rejected by the filter, so only a small fraction of them (the false
+   * positive rate) are searched for in the index.
+   *
+   * <p>The filter is always held on the heap, even if the index is memory-mapped. A lower false
+   * positive rate makes the filter larger. For example, a rate of {@code 0.01} uses about 10 bits
+   * for each domain, and a rate of {@code 0.001} about 15 bits.
+   *
+   * @param falsePositiveRate the fraction of domains that are not disposable, but are still
+   *                          searched for in the index
+   * @return a new {@code IndexSource} that checks the filter first
+   * @throws IllegalArgumentException if the false positive rate is not between 0 and 1
+   */
+  public IndexSource withPrefilter(double falsePositiveRate) {
+    AbstractList<String> domains = new AbstractList<String>() {
+      @Override
+      public String get(int index) {
+        return table.domain(index);
+      }
+
+      @Override
+      public int size() {
+        return table.size();
+      }
+    };
+
+    return new IndexSource(table,
+        DomainBloomFilter.of(domains, domains.size(), falsePositiveRate));
+  }
+
+  /**
+   * Get the {@link DomainBloomFilter} that is checked before the index, which reports its
+   * false positive rate.
+   *
+   * @return the filter, or an empty {@code Optional} if this source does not use a filter
+   */
+  public Optional<DomainBloomFilter> prefilter() {
+    return Optional.ofNullable(prefilter);
+  }
+}
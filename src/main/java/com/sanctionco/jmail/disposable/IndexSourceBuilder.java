@@ -0,0 +1,186 @@
+package com.sanctionco.jmail.disposable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The builder class used to build a compact index of disposable domains, which can be written
+ * to a binary index file and loaded with {@link DisposableDomainSource#index(Path)}, or used
+ * directly as an {@link IndexSource}.
+ *
+ * <p>Example usage, to convert a list of domains (one per line) into an index file:
+ *
+ * <pre>
+ * try (InputStream in = Files.newInputStream(Paths.get("disposable_email_blocklist.conf"))) {
+ *   IndexSource.builder().addAll(in).writeTo(Paths.get("disposable_domains.idx"));
+ * }
+ * </pre>
+ */
+public class IndexSourceBuilder {
+  private final Set<String> domains = new HashSet<>();
+
+  IndexSourceBuilder() {
+  }
+
+  /**
+   * Add a disposable domain to the index. The domain is trimmed and stored in lowercase, and
+   * empty domains are ignored.
+   *
+   * @param domain the domain to add
+   * @return this
+   */
+  public IndexSourceBuilder add(String domain) {
+    String trimmed = domain.trim();
+
+    if (!trimmed.isEmpty()) domains.add(trimmed.toLowerCase(Locale.ROOT));
+
+    return this;
+  }
+
+  /**
+   * Add all the given disposable domains to the index.
+   *
+   * @param domains the domains to add
+   * @return this
+   */
+  public IndexSourceBuilder addAll(Collection<String> domains) {
+    domains.forEach(this::add);
+    return this;
+  }
+
+  /**
+   * Add all disposable domains from the given input stream, which must contain one domain per
+   * line, to the index. The input stream is not closed by this method.
+   *
+   * @param inputStream the input stream containing disposable domains
+   * @return this
+   * @throws IOException if the input stream is closed or cannot be read
+   */
+  public IndexSourceBuilder addAll(InputStream inputStream) throws IOException {
+    // not closing the BufferedReader, since that would close the input stream
+    BufferedReader reader = new BufferedReader(
+        new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+    String line;
+    while ((line = reader.readLine()) != null) {
+      add(line);
+    }
+
+    return this;
+  }
+
+  /**
+   * Build a new {@link IndexSource} that holds the index in memory.
+   *
+   * @return the new {@link IndexSource}
+   */
+  public IndexSource build() {
+    try {
+      return new IndexSource(SortedDomainTable.open(ByteBuffer.wrap(toByteArray()), false));
+    } catch (IOException e) {
+      // The index was just created, so it is always valid
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Write the index to the file at the given path, replacing the file if it exists. The index
+   * is first written to a temporary file in the same directory, which is then moved over the
+   * given path, so a reader never sees a partially written index.
+   *
+   * @param path the path of the index file to write
+   * @throws IOException if the file cannot be written
+   */
+  public void writeTo(Path path) throws IOException {
+    Path absolute = path.toAbsolutePath();
+    Path temporary = Files.createTempFile(
+        absolute.getParent(), absolute.getFileName() + ".", ".tmp");
+
+    try {
+      Files.write(temporary, toByteArray());
+
+      try {
+        Files.move(temporary, absolute,
+            StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Write the index to the given output stream. The output stream is not closed by this method.
+   *
+   * @param outputStream the output stream to write the index to
+   * @throws IOException if the index cannot be written
+   */
+  public void writeTo(OutputStream outputStream) throws IOException {
+    outputStream.write(toByteArray());
+  }
+
+  private byte[] toByteArray() {
+    List<byte[]> encoded = new ArrayList<>(domains.size());
+    int dataLength = 0;
+
+    for (String domain : domains) {
+      byte[] bytes = domain.getBytes(StandardCharsets.UTF_8);
+      encoded.add(bytes);
+      dataLength += bytes.length;
+    }
+
+    encoded.sort(IndexSourceBuilder::compareUnsigned);
+
+    int count = encoded.size();
+    int length = SortedDomainTable.HEADER_LENGTH + 4 * (count + 1) + dataLength + 4;
+
+    ByteBuffer buffer = ByteBuffer.allocate(length)
+        .put(SortedDomainTable.MAGIC)
+        .putInt(SortedDomainTable.VERSION)
+        .putInt(count)
+        .putInt(dataLength);
+
+    int offset = 0;
+    for (byte[] domain : encoded) {
+      buffer.putInt(offset);
+      offset += domain.length;
+    }
+    buffer.putInt(offset);
+
+    for (byte[] domain : encoded) {
+      buffer.put(domain);
+    }
+
+    buffer.putInt(SortedDomainTable.checksum(buffer, length - 4));
+
+    return buffer.array();
+  }
+
+  // Arrays.compareUnsigned requires Java 9
+  private static int compareUnsigned(byte[] left, byte[] right) {
+    int common = Math.min(left.length, right.length);
+
+    for (int i = 0; i < common; i++) {
+      int cmp = (left[i] & 0xFF) - (right[i] & 0xFF);
+      if (cmp != 0) return cmp;
+    }
+
+    return left.length - right.length;
+  }
+}
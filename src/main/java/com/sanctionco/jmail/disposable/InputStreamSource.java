@@ -1,5 +1,8 @@
 package com.sanctionco.jmail.disposable;
 
+import com.sanctionco.jmail.RuleCost;
+import com.sanctionco.jmail.internal.CaseInsensitiveSet;
+
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
@@ -7,6 +10,8 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.sanctionco.jmail.disposable.JavaCollectors.toUnmodifiableSet;
@@ -15,12 +20,24 @@ import static com.sanctionco.jmail.disposable.JavaCollectors.toUnmodifiableSet;
  * An implementation of {@link DisposableDomainSource} that loads domains from an input stream.
  * <p>
  * The input stream must contain one domain per line.
- * All domains are read into memory and stored in an unmodifiable set for fast lookup.
+ * All domains are read into memory and stored in an unmodifiable set for fast lookup. The set
+ * is searched ignoring case without creating a lowercase copy of each domain that is looked up.
+ * <p>
+ * With {@link DomainMatching#SUBDOMAINS}, the domains are instead stored in a trie of their
+ * labels in reverse order, so that a subdomain of a disposable domain (such as
+ * {@code foo.mailinator.com}) is also found to be disposable. Each lookup walks the labels of
+ * the domain once from right to left, without creating a string for each parent domain.
+ * <p>
+ * When most domains that are looked up are not disposable, use {@link #withPrefilter(double)}
+ * to check a {@link DomainBloomFilter} before the set, which rejects most of those domains
+ * without converting them to lowercase or looking them up in the set.
  *
  * @see DisposableDomainSource
  */
 public class InputStreamSource implements DisposableDomainSource {
-  private final Set<String> disposableDomains;
+  private final CaseInsensitiveSet disposableDomains;
+  private final DomainTrie disposableDomainTrie;
+  private final DomainBloomFilter prefilter;
 
   /**
    * Reads all domains (one per line) from the given input stream into memory and constructs
@@ -33,12 +50,95 @@ public class InputStreamSource implements DisposableDomainSource {
    * @throws IOException if the input stream is closed or cannot be read
    */
   InputStreamSource(InputStream inputStream) throws IOException {
-    this.disposableDomains = readAllLines(inputStream);
+    this(inputStream, DomainMatching.EXACT);
+  }
+
+  /**
+   * Reads all domains (one per line) from the given input stream into memory and constructs
+   * the new {@code InputStreamSource}, which matches domains in the given way.
+   * <p>
+   * The input stream is not closed by this constructor, so the caller is responsible
+   * for closing it. Once the instance is created, the input stream is no longer used.
+   *
+   * @param inputStream the input stream containing disposable domains
+   * @param matching how domains are matched against the disposable domains
+   * @throws IOException if the input stream is closed or cannot be read
+   */
+  InputStreamSource(InputStream inputStream, DomainMatching matching) throws IOException {
+    Set<String> domains = readAllLines(inputStream);
+
+    if (matching == DomainMatching.SUBDOMAINS) {
+      this.disposableDomains = null;
+      this.disposableDomainTrie = DomainTrie.of(domains);
+    } else {
+      this.disposableDomains = CaseInsensitiveSet.of(domains);
+      this.disposableDomainTrie = null;
+    }
+
+    this.prefilter = null;
+  }
+
+  private InputStreamSource(CaseInsensitiveSet disposableDomains, DomainBloomFilter prefilter) {
+    this.disposableDomains = disposableDomains;
+    this.disposableDomainTrie = null;
+    this.prefilter = prefilter;
   }
 
   @Override
   public boolean isDisposableDomain(String domain) {
-    return this.disposableDomains.contains(domain.toLowerCase());
+    if (disposableDomainTrie != null) return disposableDomainTrie.matches(domain);
+    if (prefilter == null) return this.disposableDomains.containsIgnoreCase(domain);
+
+    if (!prefilter.mightContain(domain)) return false;
+
+    boolean disposable = this.disposableDomains.containsIgnoreCase(domain);
+    if (!disposable) prefilter.recordFalsePositive();
+
+    return disposable;
+  }
+
+  @Override
+  public RuleCost lookupCost() {
+    return RuleCost.IN_MEMORY;
+  }
+
+  /**
+   * Create a new {@code InputStreamSource} with the same disposable domains as this source,
+   * that checks a {@link DomainBloomFilter} of the domains before looking them up in the set.
+   * Most domains that are not disposable are rejected by the filter, so only a small fraction
+   * of them (the false positive rate) are looked up in the set.
+   * <p>
+   * A lower false positive rate makes the filter larger. For example, a rate of {@code 0.01}
+   * uses about 10 bits for each domain, and a rate of {@code 0.001} about 15 bits.
+   * <p>
+   * The filter can only be used with {@link DomainMatching#EXACT}, since with
+   * {@link DomainMatching#SUBDOMAINS} the trie already rejects a domain at its first label
+   * that is not part of any disposable domain.
+   *
+   * @param falsePositiveRate the fraction of domains that are not disposable, but are still
+   *                          looked up in the set
+   * @return a new {@code InputStreamSource} that checks the filter first
+   * @throws IllegalArgumentException if the false positive rate is not between 0 and 1
+   * @throws IllegalStateException if this source uses {@link DomainMatching#SUBDOMAINS}
+   */
+  public InputStreamSource withPrefilter(double falsePositiveRate) {
+    if (disposableDomainTrie != null) {
+      throw new IllegalStateException(
+          "A prefilter can only be used with DomainMatching.EXACT");
+    }
+
+    return new InputStreamSource(disposableDomains,
+        DomainBloomFilter.of(disposableDomains, disposableDomains.size(), falsePositiveRate));
+  }
+
+  /**
+   * Get the {@link DomainBloomFilter} that is checked before the set of domains, which reports
+   * its false positive rate.
+   *
+   * @return the filter, or an empty {@code Optional} if this source does not use a filter
+   */
+  public Optional<DomainBloomFilter> prefilter() {
+    return Optional.ofNullable(prefilter);
   }
 
   private static Set<String> readAllLines(InputStream inputStream) throws IOException {
@@ -50,7 +150,7 @@ public class InputStreamSource implements DisposableDomainSource {
       return bufferedReader.lines()
           .map(String::trim)
           .filter(s -> !s.isEmpty())
-          .map(String::toLowerCase)
+          .map(s -> s.toLowerCase(Locale.ROOT))
           .collect(toUnmodifiableSet());
     } catch (UncheckedIOException e) {
       // As documented by BufferedReader.lines(), IOException is wrapped in UncheckedIOException.
@@ -1,5 +1,8 @@
 package com.sanctionco.jmail.disposable;
 
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * <p>An implementation of {@link DisposableDomainSource} that uses the
  * <a href="https://www.istempmail.com">IsTempMail API</a> as the source for disposable domains.
@@ -14,9 +17,19 @@ package com.sanctionco.jmail.disposable;
  * This class does not do any caching of its own so that control of any cache can remain within
  * your own codebase.
  *
- * <p>To do such caching, the recommended approach is to create your own
- * {@link DisposableDomainSource} that wraps this source and performs caching, and then use that
- * class in your {@link com.sanctionco.jmail.EmailValidator}. An example using a simple
+ * <p>To do such caching, wrap this source in a {@link CachingSource}, which caches results for
+ * a limited time, remembers failed requests for a shorter time, and limits how many requests
+ * are made at once:
+ *
+ * <pre>
+ * DisposableDomainSource source = CachingSource
+ *     .builder(DisposableDomainSource.isTempMailAPI("MY_API_KEY"))
+ *     .build();
+ * </pre>
+ *
+ * <p>Alternatively, you can create your own {@link DisposableDomainSource} that wraps this
+ * source and performs caching, and then use that class in your
+ * {@link com.sanctionco.jmail.EmailValidator}. An example using a simple
  * {@link java.util.concurrent.ConcurrentHashMap} is given below.
  *
  * <pre>
@@ -42,31 +55,99 @@ package com.sanctionco.jmail.disposable;
 public class IsTempMailAPISource implements DisposableDomainSource {
   private static final String BASE_URL = "https://istempmail.com/api/check/";
 
-  private final HttpClient httpClient;
+  private final HttpTransport transport;
   private final String apiKey;
+  private final String baseUrl;
 
   /**
    * Create a new instance of {@code IsTempMailAPISource}.
    *
-   * @param httpClient the client used to make HTTP requests
-   * @param apiKey     the IsTempMail API key to use when making requests to the API
+   * @param transport the transport used to make HTTP requests
+   * @param apiKey    the IsTempMail API key to use when making requests to the API
    */
-  IsTempMailAPISource(HttpClient httpClient, String apiKey) {
-    this.httpClient = httpClient;
+  IsTempMailAPISource(HttpTransport transport, String apiKey) {
+    this(transport, apiKey, BASE_URL);
+  }
+
+  /**
+   * Create a new instance of {@code IsTempMailAPISource} that makes requests to the given
+   * base URL instead of the IsTempMail API, which is useful for testing.
+   *
+   * @param transport the transport used to make HTTP requests
+   * @param apiKey    the IsTempMail API key to use when making requests to the API
+   * @param baseUrl   the URL that the API key and domain are appended to
+   */
+  IsTempMailAPISource(HttpTransport transport, String apiKey, String baseUrl) {
+    this.transport = transport;
     this.apiKey = apiKey;
+    this.baseUrl = baseUrl;
   }
 
   @Override
   public boolean isDisposableDomain(String domain) {
-    String url = BASE_URL + apiKey + "/" + domain;
-    String httpResponse = httpClient.get(url);
+    return isBlocked(transport.get(url(domain)));
+  }
 
-    return parseBlockedValue(httpResponse);
+  /**
+   * Determine if the given domain is a disposable domain without blocking the calling thread,
+   * using {@link HttpTransport#getAsync(String)} to make the request. As with
+   * {@link #isDisposableDomain(String)}, the domain is not considered disposable if the request
+   * fails. If the transport cannot start the request (for example, because its executor is
+   * saturated), the returned future fails with the exception from
+   * {@link HttpTransport#getAsync(String)}.
+   *
+   * @param domain the domain to check
+   * @return a future that completes with {@code true} if the domain is a disposable domain, or
+   *         {@code false} if not
+   */
+  public CompletableFuture<Boolean> isDisposableDomainAsync(String domain) {
+    return transport.getAsync(url(domain)).thenApply(this::isBlocked);
   }
 
-  private boolean parseBlockedValue(String s) {
-    // Assume the response is false by default
-    boolean resp = false;
+  /**
+   * Determine if the given domain is a disposable domain, throwing an exception instead of
+   * returning {@code false} if the request fails or the response does not contain a result.
+   *
+   * @param domain the domain to check
+   * @return {@code true} if the domain is a disposable domain, or {@code false} if not
+   * @throws IOException if the request failed, the response had an error status, or the
+   *                     response could not be understood
+   */
+  boolean lookup(String domain) throws IOException {
+    HttpResult result = transport.get(url(domain));
+
+    if (result.failure().isPresent()) throw result.failure().get();
+
+    if (!result.isSuccessful()) {
+      throw new IOException("The IsTempMail API responded with status " + result.statusCode()
+          + " for " + domain + ": " + result.body());
+    }
+
+    Boolean blocked = parseBlockedValue(result.body());
+
+    if (blocked == null) {
+      throw new IOException("The IsTempMail API response did not contain a result for " + domain);
+    }
+
+    return blocked;
+  }
+
+  private String url(String domain) {
+    return baseUrl + apiKey + "/" + domain;
+  }
+
+  private boolean isBlocked(HttpResult result) {
+    return result.isSuccessful() && Boolean.TRUE.equals(parseBlockedValue(result.body()));
+  }
+
+  /**
+   * Parse the value of the "blocked" key from the response.
+   *
+   * @return the value, or null if the response does not contain the key
+   */
+  private Boolean parseBlockedValue(String s) {
+    // The response has no result by default
+    Boolean resp = null;
 
     // Parse the value with string manipulation since it's faster than regex (by up to 10x!)
     if (s.contains("blocked")) {
@@ -0,0 +1,221 @@
+package com.sanctionco.jmail.disposable;
+
+import com.sanctionco.jmail.RuleCost;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>An implementation of {@link DisposableDomainSource} that loads domains from a file (one
+ * per line), and reloads the file whenever it changes. This allows the list of disposable
+ * domains to be updated without creating a new {@link com.sanctionco.jmail.EmailValidator}.
+ *
+ * <p>A background thread checks the modification time, size and identity of the file at a
+ * fixed interval. When the file has changed, the new list is loaded on that thread and then
+ * swapped in atomically, so lookups are never blocked by a reload and always see either the
+ * whole old list or the whole new list. If the file cannot be read, or changes again while it
+ * is being loaded, the previous list is kept and the file is loaded again at the next check.
+ *
+ * <p>To update the file, it is best to write the new list to a temporary file in the same
+ * directory and move it over the old file, so that the file is never seen partially written.
+ *
+ * <p>Create a new source using {@link #builder(Path)}, and {@link #close()} it to stop
+ * watching the file.
+ *
+ * @see DisposableDomainSource
+ */
+public final class ReloadingSource implements DisposableDomainSource, Closeable {
+  private final Path path;
+  private final DomainMatching matching;
+  private final ScheduledExecutorService scheduler;
+
+  private volatile DisposableDomainSource current;
+  private volatile Duration lastReloadDuration;
+  private volatile IOException lastReloadFailure;
+
+  // Only read and written while holding the lock on this source
+  private FileVersion loadedVersion;
+
+  private final LongAdder reloads = new LongAdder();
+  private final LongAdder reloadFailures = new LongAdder();
+
+  ReloadingSource(ReloadingSourceBuilder builder) throws IOException {
+    this.path = builder.path;
+    this.matching = builder.matching;
+
+    reloadIfModified();
+
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "jmail-disposable-reload");
+      thread.setDaemon(true);
+
+      return thread;
+    });
+
+    long interval = builder.pollInterval.toNanos();
+    scheduler.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Create a new builder to configure a {@link ReloadingSource} that loads the file at the
+   * given path.
+   *
+   * @param path the path to the file containing disposable domains
+   * @return a new {@link ReloadingSourceBuilder}
+   */
+  public static ReloadingSourceBuilder builder(Path path) {
+    return new ReloadingSourceBuilder(path);
+  }
+
+  @Override
+  public boolean isDisposableDomain(String domain) {
+    return current.isDisposableDomain(domain);
+  }
+
+  @Override
+  public RuleCost lookupCost() {
+    return RuleCost.IN_MEMORY;
+  }
+
+  /**
+   * Check whether the file has changed since it was last loaded, and if so, load it and swap
+   * in the new list now instead of waiting for the next check in the background.
+   *
+   * @return true if the file had changed and was reloaded, false if it had not changed
+   * @throws IOException if the file cannot be read or changed while it was being loaded, in
+   *                     which case the previous list is kept
+   */
+  public synchronized boolean reloadIfModified() throws IOException {
+    FileVersion before = FileVersion.of(path);
+    if (before.equals(loadedVersion)) return false;
+
+    final long start = System.nanoTime();
+    DisposableDomainSource loaded;
+
+    try (InputStream in = Files.newInputStream(path)) {
+      loaded = new InputStreamSource(in, matching);
+    }
+
+    if (!before.equals(FileVersion.of(path))) {
+      throw new IOException("The file " + path + " changed while it was being loaded");
+    }
+
+    // The first load happens when the source is created, and is not counted as a reload
+    if (current != null) reloads.increment();
+
+    current = loaded;
+    loadedVersion = before;
+    lastReloadDuration = Duration.ofNanos(System.nanoTime() - start);
+
+    return true;
+  }
+
+  /**
+   * Get the number of times the file has been reloaded since this source was created, not
+   * including the first load.
+   *
+   * @return the number of reloads
+   */
+  public long reloadCount() {
+    return reloads.sum();
+  }
+
+  /**
+   * Get the number of times the file was found to have changed but could not be reloaded.
+   *
+   * @return the number of failed reloads
+   */
+  public long reloadFailureCount() {
+    return reloadFailures.sum();
+  }
+
+  /**
+   * Get how long it took to load the file the last time it was loaded successfully, which is
+   * the first load if the file has not been reloaded since.
+   *
+   * @return the duration of the last load
+   */
+  public Duration lastReloadDuration() {
+    return lastReloadDuration;
+  }
+
+  /**
+   * Get the exception that caused the most recent failed reload in the background, if any.
+   *
+   * @return the exception of the most recent failed reload, or null if no reload has failed
+   */
+  public IOException lastReloadFailure() {
+    return lastReloadFailure;
+  }
+
+  /**
+   * Stop watching the file for changes. The source can still be used after it is closed, and
+   * keeps the list of domains that was last loaded.
+   */
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  private void poll() {
+    try {
+      reloadIfModified();
+    } catch (IOException e) {
+      lastReloadFailure = e;
+      reloadFailures.increment();
+    } catch (RuntimeException e) {
+      // An unchecked exception would cancel all future checks, so record it instead
+      lastReloadFailure = new IOException(e);
+      reloadFailures.increment();
+    }
+  }
+
+  /**
+   * The attributes of a file that are used to determine if the file has changed. The file key
+   * (such as the inode) changes when a new file is moved over the old one, even if the new file
+   * has the same modification time and size.
+   */
+  private static final class FileVersion {
+    private final FileTime lastModified;
+    private final long size;
+    private final Object fileKey;
+
+    private FileVersion(BasicFileAttributes attributes) {
+      this.lastModified = attributes.lastModifiedTime();
+      this.size = attributes.size();
+      this.fileKey = attributes.fileKey();
+    }
+
+    private static FileVersion of(Path path) throws IOException {
+      return new FileVersion(Files.readAttributes(path, BasicFileAttributes.class));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof FileVersion)) return false;
+
+      FileVersion other = (FileVersion) o;
+
+      return size == other.size
+          && lastModified.equals(other.lastModified)
+          && Objects.equals(fileKey, other.fileKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(lastModified, size, fileKey);
+    }
+  }
+}
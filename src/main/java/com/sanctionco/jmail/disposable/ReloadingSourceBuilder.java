@@ -0,0 +1,61 @@
+package com.sanctionco.jmail.disposable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The builder class used to build a {@link ReloadingSource}.
+ */
+public class ReloadingSourceBuilder {
+  final Path path;
+  Duration pollInterval = Duration.ofSeconds(10);
+  DomainMatching matching = DomainMatching.EXACT;
+
+  ReloadingSourceBuilder(Path path) {
+    this.path = Objects.requireNonNull(path);
+  }
+
+  /**
+   * <p>Set how often to check whether the file has been modified.</p>
+   *
+   * <p>By default, the file is checked every 10 seconds.</p>
+   *
+   * @param pollInterval how often to check the file for changes
+   * @return this
+   * @throws IllegalArgumentException if the interval is not positive
+   */
+  public ReloadingSourceBuilder pollInterval(Duration pollInterval) {
+    if (pollInterval.isNegative() || pollInterval.isZero()) {
+      throw new IllegalArgumentException("The poll interval must be positive");
+    }
+
+    this.pollInterval = pollInterval;
+    return this;
+  }
+
+  /**
+   * <p>Set how domains are matched against the disposable domains in the file.</p>
+   *
+   * <p>By default, domains are matched exactly with {@link DomainMatching#EXACT}.</p>
+   *
+   * @param matching how domains are matched against the disposable domains
+   * @return this
+   */
+  public ReloadingSourceBuilder matching(DomainMatching matching) {
+    this.matching = Objects.requireNonNull(matching);
+    return this;
+  }
+
+  /**
+   * Build the new {@code ReloadingSource} instance, loading the file for the first time and
+   * starting to watch it for changes.
+   *
+   * @return the new {@link ReloadingSource} instance
+   * @throws IOException if the file does not exist or cannot be read
+   */
+  public ReloadingSource build() throws IOException {
+    return new ReloadingSource(this);
+  }
+}
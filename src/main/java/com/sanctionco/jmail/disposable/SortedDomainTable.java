@@ -0,0 +1,249 @@
+package com.sanctionco.jmail.disposable;
+
+import com.sanctionco.jmail.internal.CaseFolding;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * A read-only table of domains stored in the binary index format written by
+ * {@link IndexSourceBuilder}, which is searched in place without creating any objects for
+ * ASCII domains. The table can be backed by any {@link ByteBuffer}, including one that is
+ * memory-mapped from an index file.
+ *
+ * <p>The format (all integers are big-endian) is:
+ *
+ * <pre>
+ * magic      4 bytes   "JMDI"
+ * version    int       1
+ * count      int       number of domains
+ * dataLength int       number of bytes of domain data
+ * offsets    int[count + 1]  start of each domain within the data, followed by dataLength
+ * data       byte[dataLength]  the lowercase UTF-8 domains, sorted by unsigned byte order
+ * checksum   int       CRC32 of every preceding byte
+ * </pre>
+ *
+ * <p>Internal usage only.
+ */
+final class SortedDomainTable {
+  static final byte[] MAGIC = {'J', 'M', 'D', 'I'};
+  static final int VERSION = 1;
+  static final int HEADER_LENGTH = 16;
+
+  private static final int CHECKSUM_CHUNK_LENGTH = 8 * 1024;
+
+  private final ByteBuffer buffer;
+  private final int count;
+  private final int offsetsStart;
+  private final int dataStart;
+
+  private SortedDomainTable(ByteBuffer buffer, int count) {
+    this.buffer = buffer;
+    this.count = count;
+    this.offsetsStart = HEADER_LENGTH;
+    this.dataStart = HEADER_LENGTH + 4 * (count + 1);
+  }
+
+  /**
+   * Open a table stored in the given buffer, checking that it is a complete index of a
+   * supported version.
+   *
+   * @param buffer the buffer containing the index, starting at position 0
+   * @param verifyChecksum whether to verify the checksum of the whole index
+   * @return the table
+   * @throws IOException if the buffer does not contain a valid index
+   */
+  static SortedDomainTable open(ByteBuffer buffer, boolean verifyChecksum) throws IOException {
+    int length = buffer.limit();
+
+    if (length < HEADER_LENGTH + 8) throw new IOException("The disposable domain index is empty");
+
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (buffer.get(i) != MAGIC[i]) {
+        throw new IOException("The file is not a disposable domain index");
+      }
+    }
+
+    int version = buffer.getInt(4);
+    if (version != VERSION) {
+      throw new IOException("Unsupported disposable domain index version " + version
+          + ", expected version " + VERSION);
+    }
+
+    int count = buffer.getInt(8);
+    int dataLength = buffer.getInt(12);
+
+    if (count < 0 || dataLength < 0
+        || (long) HEADER_LENGTH + 4L * (count + 1) + dataLength + 4 != length) {
+      throw new IOException("The disposable domain index is truncated or corrupt");
+    }
+
+    if (verifyChecksum && checksum(buffer, length - 4) != buffer.getInt(length - 4)) {
+      throw new IOException("The disposable domain index checksum does not match");
+    }
+
+    return new SortedDomainTable(buffer, count);
+  }
+
+  /**
+   * Map the index file at the given path into memory and open a table that is searched
+   * directly in the mapped buffer. The file is closed once it has been mapped, and the mapping
+   * remains valid until the table is garbage collected.
+   *
+   * @param path the path to the index file
+   * @param verifyChecksum whether to verify the checksum of the whole index
+   * @return the table
+   * @throws IOException if the file cannot be mapped or does not contain a valid index
+   */
+  static SortedDomainTable map(Path path, boolean verifyChecksum) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("The disposable domain index is too large to be memory-mapped");
+      }
+
+      return open(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), verifyChecksum);
+    }
+  }
+
+  static int checksum(ByteBuffer buffer, int length) {
+    CRC32 crc = new CRC32();
+
+    if (buffer.hasArray()) {
+      crc.update(buffer.array(), buffer.arrayOffset(), length);
+    } else {
+      // CRC32.update(ByteBuffer) requires Java 9, so copy direct buffers in chunks
+      ByteBuffer source = buffer.duplicate();
+      byte[] chunk = new byte[CHECKSUM_CHUNK_LENGTH];
+
+      source.position(0);
+
+      while (source.position() < length) {
+        int chunkLength = Math.min(chunk.length, length - source.position());
+
+        source.get(chunk, 0, chunkLength);
+        crc.update(chunk, 0, chunkLength);
+      }
+    }
+
+    return (int) crc.getValue();
+  }
+
+  int size() {
+    return count;
+  }
+
+  boolean isMemoryMapped() {
+    return buffer instanceof MappedByteBuffer;
+  }
+
+  /**
+   * Decode the domain at the given index.
+   *
+   * @param index the index of the domain, from {@code 0} to {@code size() - 1}
+   * @return the domain
+   */
+  String domain(int index) {
+    int start = dataStart + buffer.getInt(offsetsStart + 4 * index);
+    int length = buffer.getInt(offsetsStart + 4 * (index + 1)) - (start - dataStart);
+
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = buffer.get(start + i);
+    }
+
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Determine if the table contains the given domain, ignoring case.
+   *
+   * @param domain the domain to find
+   * @return true if the table contains the domain, false otherwise
+   */
+  boolean contains(String domain) {
+    if (!CaseFolding.isAscii(domain)) {
+      return indexOf(domain.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+    int low = 0;
+    int high = count - 1;
+
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = compareAscii(mid, domain);
+
+      if (cmp == 0) return true;
+
+      if (cmp < 0) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+
+    return false;
+  }
+
+  private int indexOf(byte[] domain) {
+    int low = 0;
+    int high = count - 1;
+
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = compareBytes(mid, domain);
+
+      if (cmp == 0) return mid;
+
+      if (cmp < 0) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Compare the domain at the given index with an ASCII domain, folding the ASCII domain
+   * to lowercase as it is compared.
+   */
+  private int compareAscii(int index, String domain) {
+    int start = dataStart + buffer.getInt(offsetsStart + 4 * index);
+    int length = buffer.getInt(offsetsStart + 4 * (index + 1)) - (start - dataStart);
+    int common = Math.min(length, domain.length());
+
+    for (int i = 0; i < common; i++) {
+      int b = buffer.get(start + i) & 0xFF;
+      int c = CaseFolding.fold(domain.charAt(i));
+
+      if (b != c) return b - c;
+    }
+
+    return length - domain.length();
+  }
+
+  private int compareBytes(int index, byte[] domain) {
+    int start = dataStart + buffer.getInt(offsetsStart + 4 * index);
+    int length = buffer.getInt(offsetsStart + 4 * (index + 1)) - (start - dataStart);
+    int common = Math.min(length, domain.length);
+
+    for (int i = 0; i < common; i++) {
+      int b = buffer.get(start + i) & 0xFF;
+      int c = domain[i] & 0xFF;
+
+      if (b != c) return b - c;
+    }
+
+    return length - domain.length;
+  }
+}
@@ -0,0 +1,195 @@
+package com.sanctionco.jmail.disposable;
+
+import com.sanctionco.jmail.RuleCost;
+import com.sanctionco.jmail.internal.IoExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A {@link DisposableDomainSource} that asks a chain of other sources (called tiers) in
+ * order, and stops at the first tier that considers the domain disposable. This way, cheap
+ * tiers such as a source loaded from a file answer most lookups, and an expensive tier such as
+ * an {@link IsTempMailAPISource} (usually wrapped in a {@link CachingSource}) is only asked
+ * when none of the tiers before it consider the domain disposable.</p>
+ *
+ * <p>A domain is not disposable if no tier considers it disposable. A tier that throws a
+ * {@link RuntimeException}, or that was added with a timeout and does not answer in time, is
+ * treated as if it had answered that the domain is not disposable, so the lookup moves on to
+ * the next tier.</p>
+ *
+ * <p>The source counts how many lookups each tier answered, so that it is possible to see
+ * which tier answers most lookups. Tiers are numbered from {@code 0} in the order they were
+ * added.</p>
+ *
+ * <p>Create a new source using {@link #builder()}.</p>
+ *
+ * <pre>
+ * DisposableDomainSource source = TieredSource.builder()
+ *     .tier(DisposableDomainSource.index(Paths.get("disposable_domains.idx")))
+ *     .tier(CachingSource.builder(DisposableDomainSource.isTempMailAPI("MY_API_KEY")).build(),
+ *         Duration.ofMillis(500))
+ *     .build();
+ * </pre>
+ *
+ * @see DisposableDomainSource
+ */
+public final class TieredSource implements DisposableDomainSource {
+  private final Tier[] tiers;
+  private final Executor executor;
+  private final RuleCost lookupCost;
+
+  private final LongAdder misses = new LongAdder();
+
+  TieredSource(TieredSourceBuilder builder) {
+    this.tiers = new Tier[builder.sources.size()];
+    this.executor = builder.executor;
+
+    RuleCost cost = RuleCost.PURE;
+    for (int i = 0; i < tiers.length; i++) {
+      tiers[i] = new Tier(builder.sources.get(i), builder.timeouts.get(i));
+
+      // The source is as expensive as its most expensive tier
+      RuleCost tierCost = tiers[i].source.lookupCost();
+      if (tierCost.compareTo(cost) > 0) cost = tierCost;
+    }
+
+    this.lookupCost = cost;
+  }
+
+  /**
+   * Create a new builder to configure a {@link TieredSource}.
+   *
+   * @return a new {@link TieredSourceBuilder}
+   */
+  public static TieredSourceBuilder builder() {
+    return new TieredSourceBuilder();
+  }
+
+  @Override
+  public boolean isDisposableDomain(String domain) {
+    for (Tier tier : tiers) {
+      if (tier.isDisposableDomain(domain, executor)) {
+        tier.hits.increment();
+        return true;
+      }
+    }
+
+    misses.increment();
+    return false;
+  }
+
+  @Override
+  public RuleCost lookupCost() {
+    return lookupCost;
+  }
+
+  /**
+   * Get the number of tiers in this source.
+   *
+   * @return the number of tiers
+   */
+  public int tierCount() {
+    return tiers.length;
+  }
+
+  /**
+   * Get the number of lookups that the given tier answered, because it was the first tier to
+   * consider the domain disposable.
+   *
+   * @param tier the number of the tier, starting from {@code 0}
+   * @return the number of lookups answered by the tier
+   * @throws IndexOutOfBoundsException if there is no tier with the given number
+   */
+  public long hitCount(int tier) {
+    return tier(tier).hits.sum();
+  }
+
+  /**
+   * Get the number of times that the given tier did not answer within its timeout. This is
+   * always {@code 0} for a tier that was added without a timeout.
+   *
+   * @param tier the number of the tier, starting from {@code 0}
+   * @return the number of lookups of the tier that timed out
+   * @throws IndexOutOfBoundsException if there is no tier with the given number
+   */
+  public long timeoutCount(int tier) {
+    return tier(tier).timeouts.sum();
+  }
+
+  /**
+   * Get the number of times that the given tier failed with an exception.
+   *
+   * @param tier the number of the tier, starting from {@code 0}
+   * @return the number of lookups of the tier that failed
+   * @throws IndexOutOfBoundsException if there is no tier with the given number
+   */
+  public long errorCount(int tier) {
+    return tier(tier).errors.sum();
+  }
+
+  /**
+   * Get the number of lookups that no tier considered disposable, and therefore asked every
+   * tier.
+   *
+   * @return the number of lookups that were not answered by any tier
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  private Tier tier(int tier) {
+    if (tier < 0 || tier >= tiers.length) {
+      throw new IndexOutOfBoundsException("There is no tier " + tier + " in this source");
+    }
+
+    return tiers[tier];
+  }
+
+  private static final class Tier {
+    private final DisposableDomainSource source;
+    private final long timeoutNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    Tier(DisposableDomainSource source, Duration timeout) {
+      this.source = source;
+      this.timeoutNanos = timeout == null ? -1 : timeout.toNanos();
+    }
+
+    boolean isDisposableDomain(String domain, Executor executor) {
+      if (timeoutNanos < 0) {
+        try {
+          return source.isDisposableDomain(domain);
+        } catch (RuntimeException e) {
+          errors.increment();
+          return false;
+        }
+      }
+
+      CompletableFuture<Boolean> lookup
+          = IoExecutor.supplyAsync(() -> source.isDisposableDomain(domain), executor);
+
+      try {
+        return lookup.get(timeoutNanos, TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        timeouts.increment();
+      } catch (ExecutionException e) {
+        errors.increment();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+
+      // The source may still finish later, but its answer is no longer needed
+      lookup.cancel(false);
+      return false;
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.sanctionco.jmail.disposable;
+
+import com.sanctionco.jmail.internal.IoExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * The builder class used to build a {@link TieredSource}.
+ */
+public class TieredSourceBuilder {
+  final List<DisposableDomainSource> sources = new ArrayList<>();
+  final List<Duration> timeouts = new ArrayList<>();
+  Executor executor = IoExecutor.shared();
+
+  TieredSourceBuilder() {
+  }
+
+  /**
+   * <p>Add a tier that is asked on the calling thread, after every tier that was added before
+   * it. Use this for sources that answer quickly, such as a source loaded from a file.</p>
+   *
+   * @param source the source to ask in this tier
+   * @return this
+   */
+  public TieredSourceBuilder tier(DisposableDomainSource source) {
+    sources.add(Objects.requireNonNull(source));
+    timeouts.add(null);
+    return this;
+  }
+
+  /**
+   * <p>Add a tier that is asked after every tier that was added before it, and is given at
+   * most the timeout to answer. The source is asked on the executor of this builder, and if it
+   * does not answer in time the lookup moves on to the next tier as if the source had answered
+   * that the domain is not disposable. Use this for sources that perform I/O, such as an
+   * {@link IsTempMailAPISource}.</p>
+   *
+   * @param source the source to ask in this tier
+   * @param timeout the maximum time to wait for the source to answer
+   * @return this
+   * @throws IllegalArgumentException if the timeout is not positive
+   */
+  public TieredSourceBuilder tier(DisposableDomainSource source, Duration timeout) {
+    if (timeout.isNegative() || timeout.isZero()) {
+      throw new IllegalArgumentException("The timeout must be positive");
+    }
+
+    sources.add(Objects.requireNonNull(source));
+    timeouts.add(timeout);
+    return this;
+  }
+
+  /**
+   * <p>Set the executor that asks the tiers that were added with a timeout.</p>
+   *
+   * <p>By default, those tiers are asked on a shared, bounded pool of daemon threads intended
+   * for I/O. When every thread in that pool is busy and its queue is full, a tier is not asked
+   * at all, and is counted as an error.</p>
+   *
+   * @param executor the executor to use
+   * @return this
+   */
+  public TieredSourceBuilder executor(Executor executor) {
+    this.executor = Objects.requireNonNull(executor);
+    return this;
+  }
+
+  /**
+   * Build the new {@code TieredSource} instance.
+   *
+   * @return the new {@link TieredSource} instance
+   * @throws IllegalStateException if no tiers were added
+   */
+  public TieredSource build() {
+    if (sources.isEmpty()) {
+      throw new IllegalStateException("At least one tier must be added");
+    }
+
+    return new TieredSource(this);
+  }
+}
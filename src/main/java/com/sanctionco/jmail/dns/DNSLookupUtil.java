@@ -1,6 +1,13 @@
 package com.sanctionco.jmail.dns;
 
+import com.sanctionco.jmail.internal.IoExecutor;
+import com.sanctionco.jmail.internal.SingleFlight;
+
 import java.util.Hashtable;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import javax.naming.NamingException;
 import javax.naming.directory.Attribute;
@@ -15,6 +22,9 @@ public final class DNSLookupUtil {
   private static final int DEFAULT_RETRIES = 2;
   private static final String NO_SERVICE_MX_PR_RDATA = "0 .";
 
+  // Concurrent lookups of the same domain share a single DNS query
+  private static final SingleFlight<LookupKey, Boolean> LOOKUPS = new SingleFlight<>();
+
   /**
    * Private constructor to prevent instantiation.
    */
@@ -40,6 +50,27 @@ public final class DNSLookupUtil {
    * @return true if the domain has a valid MX record, or false if it does not
    */
   public static boolean hasMXRecord(String domain, int initialTimeout, int numRetries) {
+    return LOOKUPS.execute(
+        new LookupKey(domain, initialTimeout, numRetries), DNSLookupUtil::lookupMXRecord);
+  }
+
+  /**
+   * Get the number of {@link #hasMXRecord(String, int, int)} calls that did not perform their
+   * own DNS lookup, because a lookup of the same domain with the same timeout and retries was
+   * already in progress on another thread. Those calls wait for and return the result of the
+   * lookup that was in progress instead.
+   *
+   * @return the number of coalesced lookups
+   */
+  public static long coalescedLookupCount() {
+    return LOOKUPS.coalescedCount();
+  }
+
+  private static boolean lookupMXRecord(LookupKey key) {
+    String domain = key.domain;
+    int initialTimeout = key.initialTimeout;
+    int numRetries = key.numRetries;
+
     Hashtable<String, String> env = new Hashtable<>();
     env.put("java.naming.factory.initial", "com.sun.jndi.dns.DnsContextFactory");
     env.put("com.sun.jndi.dns.timeout.initial", String.valueOf(initialTimeout));
@@ -54,4 +85,77 @@ public final class DNSLookupUtil {
       return false;
     }
   }
+
+  /**
+   * Asynchronously determine if the given domain has a valid MX record. The lookup runs on a
+   * shared, bounded pool of daemon threads dedicated to blocking I/O, so that it does not block
+   * the calling thread or the {@link java.util.concurrent.ForkJoinPool#commonPool()}. If every
+   * thread in that pool is busy and its queue is full, the returned future fails with a
+   * {@link java.util.concurrent.RejectedExecutionException} instead.
+   *
+   * @param domain the domain whose MX record to check
+   * @return a {@link CompletableFuture} that completes with true if the domain has a valid
+   *         MX record, or false if it does not
+   */
+  public static CompletableFuture<Boolean> hasMXRecordAsync(String domain) {
+    return hasMXRecordAsync(domain, IoExecutor.shared());
+  }
+
+  /**
+   * Asynchronously determine if the given domain has a valid MX record, performing the lookup
+   * on the given {@link Executor}.
+   *
+   * @param domain the domain whose MX record to check
+   * @param executor the executor to perform the lookup on
+   * @return a {@link CompletableFuture} that completes with true if the domain has a valid
+   *         MX record, or false if it does not
+   */
+  public static CompletableFuture<Boolean> hasMXRecordAsync(String domain, Executor executor) {
+    return hasMXRecordAsync(domain, DEFAULT_INITIAL_TIMEOUT, DEFAULT_RETRIES, executor);
+  }
+
+  /**
+   * Asynchronously determine if the given domain has a valid MX record, performing the lookup
+   * on the given {@link Executor}.
+   *
+   * @param domain the domain whose MX record to check
+   * @param initialTimeout the timeout in milliseconds for the initial DNS lookup
+   * @param numRetries the number of retries to perform using exponential backoff
+   * @param executor the executor to perform the lookup on
+   * @return a {@link CompletableFuture} that completes with true if the domain has a valid
+   *         MX record, or false if it does not
+   */
+  public static CompletableFuture<Boolean> hasMXRecordAsync(String domain, int initialTimeout,
+                                                            int numRetries, Executor executor) {
+    return IoExecutor.supplyAsync(
+        () -> hasMXRecord(domain, initialTimeout, numRetries), executor);
+  }
+
+  private static final class LookupKey {
+    private final String domain;
+    private final int initialTimeout;
+    private final int numRetries;
+
+    private LookupKey(String domain, int initialTimeout, int numRetries) {
+      this.domain = domain.toLowerCase(Locale.ROOT);
+      this.initialTimeout = initialTimeout;
+      this.numRetries = numRetries;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof LookupKey)) return false;
+
+      LookupKey other = (LookupKey) o;
+      return domain.equals(other.domain)
+          && initialTimeout == other.initialTimeout
+          && numRetries == other.numRetries;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(domain, initialTimeout, numRetries);
+    }
+  }
 }
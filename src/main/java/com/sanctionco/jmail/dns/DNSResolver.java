@@ -0,0 +1,636 @@
+package com.sanctionco.jmail.dns;
+
+import com.sanctionco.jmail.internal.IoExecutor;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.IDN;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A DNS resolver that looks up MX records by sending queries directly to a set of
+ * nameservers over UDP.</p>
+ *
+ * <p>Unlike {@link DNSLookupUtil}, which creates a new JNDI context for every lookup, a
+ * {@code DNSResolver} sends every query over a single non-blocking socket. Any number of queries
+ * can be outstanding at once, and each response is matched to its query by the DNS transaction
+ * ID. A single daemon thread sends queries, receives responses and resends queries that did not
+ * receive a response in time, with a timeout that doubles on each retry. A nameserver failure
+ * is retried right away. A truncated response without an MX record is asked again of the same
+ * nameserver over a short-lived TCP connection, on a shared pool of daemon threads intended for
+ * I/O, since the nameserver would truncate a UDP response the same way again. An error while
+ * receiving or handling a single packet is treated like a lost packet, so the thread keeps
+ * running until the resolver is closed.</p>
+ *
+ * <p>Create a new resolver using {@link #builder()}, and close it when it is no longer needed.
+ * To use a resolver with an {@link com.sanctionco.jmail.EmailValidator}, create an
+ * {@link MXRecordCache} that uses it:</p>
+ *
+ * <pre>
+ * DNSResolver resolver = DNSResolver.builder().nameserver("8.8.8.8").build();
+ * MXRecordCache cache = MXRecordCache.builder().lookup(resolver::hasMXRecord).build();
+ *
+ * JMail.validator().requireValidMXRecord(cache);
+ * </pre>
+ */
+public final class DNSResolver implements Closeable {
+  private static final int HEADER_LENGTH = 12;
+  private static final int MAX_NAME_LENGTH = 255;
+  private static final int MAX_LABEL_LENGTH = 63;
+  private static final int MAX_PACKET_LENGTH = 65535;
+  private static final int MAX_POINTERS = 16;
+  private static final int TRANSACTION_IDS = 1 << 16;
+
+  private static final int FLAG_RESPONSE = 0x8000;
+  private static final int FLAG_TRUNCATED = 0x0200;
+  private static final int FLAG_RECURSION_DESIRED = 0x0100;
+  private static final int RCODE_MASK = 0x000F;
+  private static final int RCODE_NO_ERROR = 0;
+  private static final int RCODE_SERVER_FAILURE = 2;
+  private static final int RCODE_REFUSED = 5;
+
+  private static final int TYPE_MX = 15;
+  private static final int TYPE_OPT = 41;
+  private static final int CLASS_IN = 1;
+
+  // Advertised with EDNS so that large MX responses are not truncated (RFC 6891)
+  private static final int EDNS_PAYLOAD_SIZE = 1232;
+
+  // The timeout stops doubling after this many retries, and is never longer than a day, so that
+  // it cannot overflow however many retries are configured
+  private static final int MAX_BACKOFF_SHIFT = 16;
+  private static final long MAX_TIMEOUT_NANOS = TimeUnit.DAYS.toNanos(1);
+
+  private final List<InetSocketAddress> nameservers;
+  private final long initialTimeoutNanos;
+  private final int retries;
+
+  private final DatagramChannel channel;
+  private final Selector selector;
+  private final Queue<Query> submissions = new ConcurrentLinkedQueue<>();
+  private volatile boolean closed;
+
+  // Only accessed by the resolver thread
+  private final Map<Integer, Query> pending = new HashMap<>();
+  private final PriorityQueue<Timeout> timeouts = new PriorityQueue<>();
+  private final ByteBuffer receiveBuffer = ByteBuffer.allocate(MAX_PACKET_LENGTH);
+  private final SecureRandom random = new SecureRandom();
+
+  DNSResolver(List<InetSocketAddress> nameservers, Duration initialTimeout, int retries)
+      throws IOException {
+    this.nameservers = new ArrayList<>(nameservers);
+    this.initialTimeoutNanos = initialTimeout.toNanos();
+    this.retries = retries;
+
+    this.selector = Selector.open();
+
+    try {
+      this.channel = DatagramChannel.open();
+      channel.configureBlocking(false);
+      channel.bind(null);
+      channel.register(selector, SelectionKey.OP_READ);
+    } catch (IOException e) {
+      selector.close();
+      throw e;
+    }
+
+    Thread thread = new Thread(this::run, "jmail-dns-resolver");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Create a new builder to configure a {@link DNSResolver}.
+   *
+   * @return a new {@link DNSResolverBuilder}
+   */
+  public static DNSResolverBuilder builder() {
+    return new DNSResolverBuilder();
+  }
+
+  /**
+   * Determine if the given domain has a valid MX record, waiting for the lookup to complete.
+   *
+   * @param domain the domain whose MX record to check
+   * @return true if the domain has a valid MX record, or false if it does not
+   * @throws IllegalStateException if this resolver is closed
+   * @throws UncheckedIOException if a nameserver sent a truncated response and the lookup then
+   *                              failed over TCP
+   */
+  public boolean hasMXRecord(String domain) {
+    try {
+      return hasMXRecordAsync(domain).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+
+      throw e;
+    }
+  }
+
+  /**
+   * <p>Asynchronously determine if the given domain has a valid MX record.</p>
+   *
+   * <p>The returned future completes with false if the domain does not exist, has no MX
+   * records, has only a null MX record (RFC 7505), or if no nameserver responded after all
+   * retries. It completes exceptionally with an {@link IllegalStateException} if this resolver
+   * is closed before the lookup completes, or with an {@link UncheckedIOException} if a
+   * nameserver sent a truncated response and the lookup then failed over TCP.</p>
+   *
+   * <p>The future is completed on the resolver thread, so dependent actions that may block
+   * should be added using the {@code async} methods of {@link CompletableFuture}.</p>
+   *
+   * @param domain the domain whose MX record to check
+   * @return a {@link CompletableFuture} that completes with true if the domain has a valid
+   *         MX record, or false if it does not
+   */
+  public CompletableFuture<Boolean> hasMXRecordAsync(String domain) {
+    byte[] packet = encodeQuery(domain);
+
+    if (packet == null) return CompletableFuture.completedFuture(false);
+
+    Query query = new Query(packet);
+    submissions.offer(query);
+
+    if (closed) {
+      failSubmissions();
+    } else {
+      selector.wakeup();
+    }
+
+    return query.future;
+  }
+
+  /**
+   * Close this resolver, its socket and its thread. Lookups that have not yet completed
+   * complete exceptionally with an {@link IllegalStateException}.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    selector.wakeup();
+  }
+
+  private void run() {
+    try {
+      while (!closed) {
+        select();
+        receive();
+        send();
+        expire();
+      }
+    } finally {
+      // Only close() ends the loop, but new lookups must also fail if the thread ever dies
+      closed = true;
+
+      closeQuietly(channel);
+      closeQuietly(selector);
+
+      IllegalStateException exception = new IllegalStateException("The resolver is closed");
+      pending.values().forEach(query -> query.future.completeExceptionally(exception));
+      pending.clear();
+
+      failSubmissions();
+    }
+  }
+
+  private long millisUntilNextTimeout() {
+    // Remove timeouts of queries that are already complete
+    while (!timeouts.isEmpty() && timeouts.peek().isStale()) {
+      discard(timeouts.poll());
+    }
+
+    if (timeouts.isEmpty()) return 0L; // 0 waits until a query is submitted
+
+    long nanos = timeouts.peek().deadline - System.nanoTime();
+    return Math.max(1L, (nanos + 999_999L) / 1_000_000L);
+  }
+
+  private void select() {
+    try {
+      selector.select(millisUntilNextTimeout());
+    } catch (IOException e) {
+      // A failed select is treated like one that timed out, and the sockets are checked anyway
+    }
+
+    selector.selectedKeys().clear();
+  }
+
+  private void receive() {
+    while (true) {
+      receiveBuffer.clear();
+      SocketAddress source;
+
+      try {
+        source = channel.receive(receiveBuffer);
+      } catch (IOException e) {
+        // A packet that could not be received is treated like a lost packet, and any other
+        // packets are received after the next select
+        return;
+      }
+
+      if (source == null) return;
+
+      receiveBuffer.flip();
+
+      try {
+        handleResponse(receiveBuffer, source);
+      } catch (RuntimeException e) {
+        // A malformed response is ignored, and the query is retried when it times out
+      }
+    }
+  }
+
+  private void handleResponse(ByteBuffer response, SocketAddress source) {
+    if (response.limit() < HEADER_LENGTH) return;
+
+    Query query = pending.get(response.getShort(0) & 0xFFFF);
+
+    // Only accept a response from the nameserver that the query was sent to, and for the
+    // same question, so that an unrelated or forged packet cannot complete the query
+    if (query == null || !source.equals(query.nameserver)) return;
+
+    int flags = response.getShort(2) & 0xFFFF;
+    int questionCount = response.getShort(4) & 0xFFFF;
+
+    if ((flags & FLAG_RESPONSE) == 0 || questionCount != 1 || !query.matchesQuestion(response)) {
+      return;
+    }
+
+    int rcode = flags & RCODE_MASK;
+
+    // The nameserver could not answer, so try the next nameserver right away
+    if (rcode == RCODE_SERVER_FAILURE || rcode == RCODE_REFUSED) {
+      retryOrComplete(query);
+      return;
+    }
+
+    boolean hasRecord = rcode == RCODE_NO_ERROR
+        && containsMXRecord(response, HEADER_LENGTH + query.questionLength,
+            response.getShort(6) & 0xFFFF);
+
+    // A truncated response may have been cut off before its MX records, so it only answers the
+    // query if it contains one. Otherwise, the nameserver would truncate it the same way again,
+    // so ask over TCP instead (RFC 7766).
+    if (!hasRecord && rcode == RCODE_NO_ERROR && (flags & FLAG_TRUNCATED) != 0) {
+      queryOverTcp(query);
+      return;
+    }
+
+    complete(query, hasRecord);
+  }
+
+  private void send() {
+    Query query;
+
+    while (pending.size() < TRANSACTION_IDS && (query = submissions.poll()) != null) {
+      if (query.future.isDone()) continue;
+
+      int id;
+      do {
+        id = random.nextInt(TRANSACTION_IDS);
+      } while (pending.containsKey(id));
+
+      query.id = id;
+      query.packet[0] = (byte) (id >>> 8);
+      query.packet[1] = (byte) id;
+
+      pending.put(id, query);
+      transmit(query);
+    }
+  }
+
+  private void transmit(Query query) {
+    query.nameserver = nameservers.get(query.attempt % nameservers.size());
+
+    long deadline = System.nanoTime() + timeoutNanos(initialTimeoutNanos, query.attempt);
+    timeouts.add(new Timeout(query, query.attempt, deadline));
+
+    try {
+      channel.send(ByteBuffer.wrap(query.packet), query.nameserver);
+    } catch (IOException | RuntimeException e) {
+      // A query that could not be sent is treated like a lost packet, and retried on timeout
+    }
+  }
+
+  /**
+   * Get how long to wait for a response to the given attempt of a query, which is the initial
+   * timeout doubled for each retry, up to a fixed number of retries and at most one day.
+   *
+   * @param initialTimeoutNanos how long to wait for the first attempt, in nanoseconds
+   * @param attempt the attempt, starting at 0 for the first attempt
+   * @return how long to wait for the attempt, in nanoseconds
+   */
+  static long timeoutNanos(long initialTimeoutNanos, int attempt) {
+    int shift = Math.min(attempt, MAX_BACKOFF_SHIFT);
+
+    return initialTimeoutNanos > MAX_TIMEOUT_NANOS >> shift
+        ? MAX_TIMEOUT_NANOS
+        : initialTimeoutNanos << shift;
+  }
+
+  private void expire() {
+    long now = System.nanoTime();
+
+    while (!timeouts.isEmpty() && timeouts.peek().deadline - now <= 0) {
+      Timeout timeout = timeouts.poll();
+
+      if (timeout.isStale()) {
+        discard(timeout);
+      } else {
+        retryOrComplete(timeout.query);
+      }
+    }
+  }
+
+  private void discard(Timeout timeout) {
+    // A query whose future was completed by the caller (such as by cancelling it) is no longer
+    // needed, so its transaction ID can be reused
+    if (timeout.query.future.isDone()) pending.remove(timeout.query.id, timeout.query);
+  }
+
+  private void queryOverTcp(Query query) {
+    // The query no longer waits for a UDP response, so its transaction ID can be reused
+    pending.remove(query.id);
+    query.overTcp = true;
+
+    InetSocketAddress nameserver = query.nameserver;
+    long timeoutMillis = TimeUnit.NANOSECONDS.toMillis(
+        timeoutNanos(initialTimeoutNanos, query.attempt));
+    int tcpTimeoutMillis = (int) Math.max(1L, Math.min(Integer.MAX_VALUE, timeoutMillis));
+
+    IoExecutor.supplyAsync(() -> {
+      try {
+        return lookupOverTcp(query, nameserver, tcpTimeoutMillis);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, IoExecutor.shared()).whenComplete((hasRecord, e) -> {
+      if (e == null) {
+        query.future.complete(hasRecord);
+      } else {
+        query.future.completeExceptionally(
+            e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+      }
+    });
+  }
+
+  /**
+   * Send the query to the nameserver over a new TCP connection and read its response, waiting
+   * at most the given timeout to connect and for each read.
+   */
+  private static boolean lookupOverTcp(Query query, InetSocketAddress nameserver,
+                                       int timeoutMillis) throws IOException {
+    try (Socket socket = new Socket()) {
+      socket.connect(nameserver, timeoutMillis);
+      socket.setSoTimeout(timeoutMillis);
+
+      // Over TCP, each message is preceded by its length in 2 bytes (RFC 1035 section 4.2.2)
+      socket.getOutputStream().write(ByteBuffer.allocate(2 + query.packet.length)
+          .putShort((short) query.packet.length)
+          .put(query.packet)
+          .array());
+
+      DataInputStream in = new DataInputStream(socket.getInputStream());
+      byte[] response = new byte[in.readUnsignedShort()];
+      in.readFully(response);
+
+      return readTcpResponse(query, ByteBuffer.wrap(response));
+    }
+  }
+
+  private static boolean readTcpResponse(Query query, ByteBuffer response) throws IOException {
+    if (response.limit() < HEADER_LENGTH || (response.getShort(0) & 0xFFFF) != query.id) {
+      throw new IOException("The TCP response does not match the query");
+    }
+
+    int flags = response.getShort(2) & 0xFFFF;
+    int questionCount = response.getShort(4) & 0xFFFF;
+
+    if ((flags & FLAG_RESPONSE) == 0 || questionCount != 1 || !query.matchesQuestion(response)) {
+      throw new IOException("The TCP response does not match the query");
+    }
+
+    int rcode = flags & RCODE_MASK;
+
+    if (rcode == RCODE_SERVER_FAILURE || rcode == RCODE_REFUSED) {
+      throw new IOException("The nameserver could not answer the query over TCP");
+    }
+
+    try {
+      return rcode == RCODE_NO_ERROR
+          && containsMXRecord(response, HEADER_LENGTH + query.questionLength,
+              response.getShort(6) & 0xFFFF);
+    } catch (IndexOutOfBoundsException e) {
+      throw new IOException("The TCP response is malformed", e);
+    }
+  }
+
+  private void retryOrComplete(Query query) {
+    if (query.attempt < retries) {
+      query.attempt++;
+      transmit(query);
+    } else {
+      complete(query, false);
+    }
+  }
+
+  private void complete(Query query, boolean hasRecord) {
+    pending.remove(query.id);
+    query.future.complete(hasRecord);
+  }
+
+  private void failSubmissions() {
+    IllegalStateException exception = new IllegalStateException("The resolver is closed");
+    Query query;
+
+    while ((query = submissions.poll()) != null) {
+      query.future.completeExceptionally(exception);
+    }
+  }
+
+  /**
+   * Encode an MX query for the given domain, with a transaction ID of zero.
+   *
+   * @param domain the domain to query
+   * @return the encoded query, or null if the domain is not a valid DNS name
+   */
+  static byte[] encodeQuery(String domain) {
+    String name;
+
+    try {
+      name = IDN.toASCII(domain);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+
+    if (name.endsWith(".")) name = name.substring(0, name.length() - 1);
+
+    // The encoded name has a length byte before each label and ends with a zero byte
+    int nameLength = name.length() + 2;
+    if (name.isEmpty() || nameLength > MAX_NAME_LENGTH) return null;
+
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + nameLength + 4 + 11)
+        .putShort((short) 0)                        // transaction ID
+        .putShort((short) FLAG_RECURSION_DESIRED)
+        .putShort((short) 1)                        // question count
+        .putShort((short) 0)                        // answer count
+        .putShort((short) 0)                        // authority count
+        .putShort((short) 1);                       // additional count
+
+    int labelStart = 0;
+    while (labelStart <= name.length()) {
+      int labelEnd = name.indexOf('.', labelStart);
+      if (labelEnd < 0) labelEnd = name.length();
+
+      int labelLength = labelEnd - labelStart;
+      if (labelLength == 0 || labelLength > MAX_LABEL_LENGTH) return null;
+
+      buffer.put((byte) labelLength);
+      for (int i = labelStart; i < labelEnd; i++) {
+        buffer.put((byte) name.charAt(i));
+      }
+
+      labelStart = labelEnd + 1;
+    }
+
+    return buffer.put((byte) 0)
+        .putShort((short) TYPE_MX)
+        .putShort((short) CLASS_IN)
+        .put((byte) 0)                              // OPT record for the root domain
+        .putShort((short) TYPE_OPT)
+        .putShort((short) EDNS_PAYLOAD_SIZE)
+        .putInt(0)                                  // extended RCODE, version and flags
+        .putShort((short) 0)                        // no options
+        .array();
+  }
+
+  /**
+   * Determine if the answer section of a response contains an MX record that is not a null MX
+   * record (RFC 7505), which has the root domain as its exchange.
+   */
+  private static boolean containsMXRecord(ByteBuffer response, int position, int answerCount) {
+    for (int i = 0; i < answerCount; i++) {
+      position = skipName(response, position);
+
+      int type = response.getShort(position) & 0xFFFF;
+      int dataLength = response.getShort(position + 8) & 0xFFFF;
+      int data = position + 10;
+
+      // The MX record data is a 2 byte preference followed by the exchange name
+      if (type == TYPE_MX && dataLength >= 3 && !isRootName(response, data + 2)) return true;
+
+      position = data + dataLength;
+    }
+
+    return false;
+  }
+
+  private static int skipName(ByteBuffer response, int position) {
+    while (true) {
+      int length = response.get(position) & 0xFF;
+
+      if (length == 0) return position + 1;
+      if ((length & 0xC0) == 0xC0) return position + 2;
+      if ((length & 0xC0) != 0) throw new IndexOutOfBoundsException("Invalid label type");
+
+      position += length + 1;
+    }
+  }
+
+  private static boolean isRootName(ByteBuffer response, int position) {
+    for (int i = 0; i < MAX_POINTERS; i++) {
+      int length = response.get(position) & 0xFF;
+
+      if ((length & 0xC0) != 0xC0) return length == 0;
+
+      position = ((length & 0x3F) << 8) | (response.get(position + 1) & 0xFF);
+    }
+
+    return false;
+  }
+
+  private static void closeQuietly(Closeable closeable) {
+    try {
+      closeable.close();
+    } catch (IOException e) {
+      // Nothing else can be done while closing
+    }
+  }
+
+  private static final class Query {
+    private final byte[] packet;
+    private final int questionLength;
+    private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+    // Only accessed by the resolver thread, except that a lookup over TCP reads the ID after
+    // the query was handed to it
+    private int id;
+    private int attempt;
+    private InetSocketAddress nameserver;
+    private boolean overTcp;
+
+    private Query(byte[] packet) {
+      this.packet = packet;
+
+      // The question is everything between the header and the 11 byte OPT record
+      this.questionLength = packet.length - HEADER_LENGTH - 11;
+    }
+
+    private boolean matchesQuestion(ByteBuffer response) {
+      if (response.limit() < HEADER_LENGTH + questionLength) return false;
+
+      for (int i = HEADER_LENGTH; i < HEADER_LENGTH + questionLength; i++) {
+        // Nameservers may change the case of the name (RFC 4343), and every label length
+        // is below the ASCII letters, so comparing every byte without case is safe
+        if (toLowerCase(packet[i]) != toLowerCase(response.get(i))) return false;
+      }
+
+      return true;
+    }
+
+    private static byte toLowerCase(byte b) {
+      return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+  }
+
+  private static final class Timeout implements Comparable<Timeout> {
+    private final Query query;
+    private final int attempt;
+    private final long deadline;
+
+    private Timeout(Query query, int attempt, long deadline) {
+      this.query = query;
+      this.attempt = attempt;
+      this.deadline = deadline;
+    }
+
+    private boolean isStale() {
+      return query.future.isDone() || query.overTcp || query.attempt != attempt;
+    }
+
+    @Override
+    public int compareTo(Timeout other) {
+      return Long.compare(deadline - other.deadline, 0);
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package com.sanctionco.jmail.dns;
+
+import com.sanctionco.jmail.net.InternetProtocolAddress;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The builder class used to build a {@link DNSResolver}.
+ */
+public class DNSResolverBuilder {
+  private static final int DNS_PORT = 53;
+  private static final Path RESOLV_CONF = Paths.get("/etc/resolv.conf");
+
+  final List<InetSocketAddress> nameservers = new ArrayList<>();
+  Duration initialTimeout = Duration.ofMillis(100);
+  int retries = 2;
+
+  DNSResolverBuilder() {
+  }
+
+  /**
+   * <p>Add a nameserver to send queries to, on the standard DNS port 53. Queries are sent to
+   * the first nameserver that was added, and each retry is sent to the next nameserver.</p>
+   *
+   * <p>By default, the nameservers listed in {@code /etc/resolv.conf} are used.</p>
+   *
+   * @param address the IP address of the nameserver
+   * @return this
+   * @throws IllegalArgumentException if the address is not a valid IP address
+   */
+  public DNSResolverBuilder nameserver(String address) {
+    if (!InternetProtocolAddress.isValid(address)) {
+      throw new IllegalArgumentException("The nameserver must be an IP address: " + address);
+    }
+
+    try {
+      return nameserver(new InetSocketAddress(InetAddress.getByName(address), DNS_PORT));
+    } catch (UnknownHostException e) {
+      throw new IllegalArgumentException("The nameserver must be an IP address: " + address, e);
+    }
+  }
+
+  /**
+   * <p>Add a nameserver to send queries to. Queries are sent to the first nameserver that was
+   * added, and each retry is sent to the next nameserver.</p>
+   *
+   * <p>By default, the nameservers listed in {@code /etc/resolv.conf} are used.</p>
+   *
+   * @param address the address and port of the nameserver
+   * @return this
+   * @throws IllegalArgumentException if the address is not resolved
+   */
+  public DNSResolverBuilder nameserver(InetSocketAddress address) {
+    if (Objects.requireNonNull(address).isUnresolved()) {
+      throw new IllegalArgumentException("The nameserver address must be resolved: " + address);
+    }
+
+    this.nameservers.add(address);
+    return this;
+  }
+
+  /**
+   * <p>Set how long to wait for a response to the first attempt of a query. Each retry waits
+   * twice as long as the previous attempt, up to the 16th retry, and no attempt waits longer
+   * than one day.</p>
+   *
+   * <p>By default, the initial timeout is 100 milliseconds.</p>
+   *
+   * @param initialTimeout how long to wait for the first attempt of a query
+   * @return this
+   * @throws IllegalArgumentException if the timeout is not positive
+   */
+  public DNSResolverBuilder timeout(Duration initialTimeout) {
+    if (initialTimeout.isNegative() || initialTimeout.isZero()) {
+      throw new IllegalArgumentException("The timeout must be positive");
+    }
+
+    this.initialTimeout = initialTimeout;
+    return this;
+  }
+
+  /**
+   * <p>Set how many times to resend a query that did not receive a response in time.</p>
+   *
+   * <p>By default, a query is retried 2 times.</p>
+   *
+   * @param retries the number of retries
+   * @return this
+   * @throws IllegalArgumentException if the number of retries is negative
+   */
+  public DNSResolverBuilder retries(int retries) {
+    if (retries < 0) {
+      throw new IllegalArgumentException("The number of retries must not be negative");
+    }
+
+    this.retries = retries;
+    return this;
+  }
+
+  /**
+   * Build the new {@code DNSResolver} instance, opening its socket and starting the thread
+   * that sends queries and receives responses.
+   *
+   * @return the new {@link DNSResolver} instance
+   * @throws IOException if no nameservers were added and {@code /etc/resolv.conf} cannot be
+   *                     read, or if the socket cannot be opened
+   * @throws IllegalStateException if no nameservers were added or found in
+   *                               {@code /etc/resolv.conf}
+   */
+  public DNSResolver build() throws IOException {
+    List<InetSocketAddress> resolved = nameservers.isEmpty()
+        ? systemNameservers()
+        : new ArrayList<>(nameservers);
+
+    if (resolved.isEmpty()) {
+      throw new IllegalStateException("No nameservers were configured or found in "
+          + RESOLV_CONF);
+    }
+
+    return new DNSResolver(resolved, initialTimeout, retries);
+  }
+
+  private static List<InetSocketAddress> systemNameservers() throws IOException {
+    List<InetSocketAddress> result = new ArrayList<>();
+
+    for (String line : Files.readAllLines(RESOLV_CONF, StandardCharsets.UTF_8)) {
+      String[] tokens = line.trim().split("\\s+");
+
+      if (tokens.length >= 2 && tokens[0].equals("nameserver")) {
+        // Remove any IPv6 zone index, which InternetProtocolAddress does not accept
+        int zone = tokens[1].indexOf('%');
+        String address = zone < 0 ? tokens[1] : tokens[1].substring(0, zone);
+
+        if (InternetProtocolAddress.isValid(address)) {
+          result.add(new InetSocketAddress(InetAddress.getByName(address), DNS_PORT));
+        }
+      }
+    }
+
+    return result;
+  }
+}
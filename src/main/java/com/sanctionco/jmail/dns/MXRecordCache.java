@@ -0,0 +1,134 @@
+package com.sanctionco.jmail.dns;
+
+import com.sanctionco.jmail.internal.ExpiringCache;
+import com.sanctionco.jmail.internal.SingleFlight;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * <p>A bounded, thread-safe cache of MX record lookups, keyed by the lowercase domain.</p>
+ *
+ * <p>Domains with a valid MX record are cached for the positive TTL, and domains without one
+ * (including domains whose lookup failed) are cached for the negative TTL. When the cache
+ * grows beyond its maximum size, expired domains and domains that have not been looked up
+ * since they were last considered for eviction are removed first.</p>
+ *
+ * <p>Create a new cache using {@link #builder()}, and use it with
+ * {@link com.sanctionco.jmail.EmailValidator#requireValidMXRecord(MXRecordCache)}.</p>
+ */
+public final class MXRecordCache {
+  private final long positiveTtlMillis;
+  private final long negativeTtlMillis;
+  private final Predicate<String> lookup;
+
+  private final ExpiringCache<String, Boolean> results;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  // Concurrent misses for the same domain share a single lookup
+  private final SingleFlight<String, Boolean> lookups = new SingleFlight<>();
+
+  MXRecordCache(MXRecordCacheBuilder builder) {
+    this.positiveTtlMillis = builder.positiveTtl.toMillis();
+    this.negativeTtlMillis = builder.negativeTtl.toMillis();
+    this.lookup = builder.lookup;
+    this.results = new ExpiringCache<>(builder.maximumSize, builder.clock);
+  }
+
+  /**
+   * Create a new builder to configure a {@link MXRecordCache}.
+   *
+   * @return a new {@link MXRecordCacheBuilder}
+   */
+  public static MXRecordCacheBuilder builder() {
+    return new MXRecordCacheBuilder();
+  }
+
+  /**
+   * Determine if the given domain has a valid MX record, using the cached result if the domain
+   * was looked up before and has not yet expired.
+   *
+   * @param domain the domain whose MX record to check
+   * @return true if the domain has a valid MX record, or false if it does not
+   */
+  public boolean hasMXRecord(String domain) {
+    String key = domain.toLowerCase(Locale.ROOT);
+    Boolean cached = cachedResult(key);
+
+    return cached != null ? cached : lookups.execute(key, this::lookupAndStore);
+  }
+
+  /**
+   * Get the number of domains currently in the cache, including domains that have expired
+   * but not yet been removed.
+   *
+   * @return the number of cached domains
+   */
+  public int size() {
+    return results.size();
+  }
+
+  /**
+   * Get the number of lookups that were answered from the cache.
+   *
+   * @return the number of cache hits
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Get the number of lookups that were not in the cache (or had expired) and therefore
+   * performed a DNS lookup.
+   *
+   * @return the number of cache misses
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Get the number of lookups that were not in the cache, but did not perform their own DNS
+   * lookup because a lookup of the same domain was already in progress on another thread.
+   * Those lookups wait for and return the result of the lookup that was in progress instead,
+   * and are not included in the {@link #missCount()}.
+   *
+   * @return the number of coalesced lookups
+   */
+  public long coalescedCount() {
+    return lookups.coalescedCount();
+  }
+
+  /**
+   * Get the number of domains that were removed because the cache grew beyond its
+   * maximum size.
+   *
+   * @return the number of evictions
+   */
+  public long evictionCount() {
+    return results.evictionCount();
+  }
+
+  private Boolean cachedResult(String key) {
+    Boolean result = results.get(key);
+    if (result != null) hits.increment();
+
+    return result;
+  }
+
+  private boolean lookupAndStore(String key) {
+    // Another thread may have stored the result between the cache miss and this lookup
+    Boolean cached = cachedResult(key);
+    if (cached != null) return cached;
+
+    misses.increment();
+
+    boolean hasRecord = lookup.test(key);
+    results.put(key, hasRecord, hasRecord ? positiveTtlMillis : negativeTtlMillis);
+
+    return hasRecord;
+  }
+}
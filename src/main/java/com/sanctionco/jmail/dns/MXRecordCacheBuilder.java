@@ -0,0 +1,141 @@
+package com.sanctionco.jmail.dns;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * The builder class used to build a {@link MXRecordCache}.
+ */
+public class MXRecordCacheBuilder {
+  // Longer durations cannot be converted to milliseconds, so they are reduced to this one
+  private static final Duration MAX_TTL = Duration.ofMillis(Long.MAX_VALUE);
+
+  private static final int DEFAULT_INITIAL_TIMEOUT = 100;
+  private static final int DEFAULT_RETRIES = 2;
+
+  int maximumSize = 10_000;
+  Duration positiveTtl = Duration.ofHours(1);
+  Duration negativeTtl = Duration.ofMinutes(5);
+  Clock clock = Clock.systemUTC();
+  Predicate<String> lookup = domain
+      -> DNSLookupUtil.hasMXRecord(domain, DEFAULT_INITIAL_TIMEOUT, DEFAULT_RETRIES);
+
+  MXRecordCacheBuilder() {
+  }
+
+  /**
+   * <p>Set the maximum number of domains to keep in the cache. When the cache grows beyond
+   * this size, domains that have expired or have not been looked up recently are evicted.</p>
+   *
+   * <p>By default, the maximum size is {@code 10,000} domains.</p>
+   *
+   * @param maximumSize the maximum number of domains to cache
+   * @return this
+   * @throws IllegalArgumentException if the maximum size is not positive
+   */
+  public MXRecordCacheBuilder maximumSize(int maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("The maximum size must be positive");
+    }
+
+    this.maximumSize = maximumSize;
+    return this;
+  }
+
+  /**
+   * <p>Set how long to cache a domain that has a valid MX record.</p>
+   *
+   * <p>By default, domains with a valid MX record are cached for one hour.</p>
+   *
+   * <p>A duration of {@link Long#MAX_VALUE} milliseconds or longer (such as
+   * {@code ChronoUnit.FOREVER.getDuration()}) keeps results until they are evicted.</p>
+   *
+   * @param ttl how long to cache a domain with a valid MX record
+   * @return this
+   * @throws IllegalArgumentException if the duration is negative
+   */
+  public MXRecordCacheBuilder positiveTtl(Duration ttl) {
+    this.positiveTtl = requireNonNegative(ttl);
+    return this;
+  }
+
+  /**
+   * <p>Set how long to cache a domain that does not have a valid MX record, or whose lookup
+   * failed. Use {@link Duration#ZERO} to disable negative caching.</p>
+   *
+   * <p>By default, domains without a valid MX record are cached for five minutes.</p>
+   *
+   * <p>A duration of {@link Long#MAX_VALUE} milliseconds or longer (such as
+   * {@code ChronoUnit.FOREVER.getDuration()}) keeps results until they are evicted.</p>
+   *
+   * @param ttl how long to cache a domain without a valid MX record
+   * @return this
+   * @throws IllegalArgumentException if the duration is negative
+   */
+  public MXRecordCacheBuilder negativeTtl(Duration ttl) {
+    this.negativeTtl = requireNonNegative(ttl);
+    return this;
+  }
+
+  /**
+   * <p>Set the timeout and number of retries of the DNS lookup performed when a domain is not
+   * in the cache.</p>
+   *
+   * <p>By default, the initial timeout is 100 milliseconds with 2 retries.</p>
+   *
+   * @param initialTimeout the timeout in milliseconds for the initial DNS lookup
+   * @param numRetries the number of retries to perform using exponential backoff
+   * @return this
+   */
+  public MXRecordCacheBuilder timeout(int initialTimeout, int numRetries) {
+    this.lookup = domain -> DNSLookupUtil.hasMXRecord(domain, initialTimeout, numRetries);
+    return this;
+  }
+
+  /**
+   * <p>Set the function used to determine if a domain has a valid MX record when it is not
+   * in the cache. The function is given the lowercase domain.</p>
+   *
+   * <p>By default, {@link DNSLookupUtil#hasMXRecord(String, int, int)} is used.</p>
+   *
+   * @param lookup the function that returns true if a domain has a valid MX record
+   * @return this
+   */
+  public MXRecordCacheBuilder lookup(Predicate<String> lookup) {
+    this.lookup = Objects.requireNonNull(lookup);
+    return this;
+  }
+
+  /**
+   * <p>Set the clock used to determine when cached domains expire. This is useful to control
+   * time in tests.</p>
+   *
+   * <p>By default, {@link Clock#systemUTC()} is used.</p>
+   *
+   * @param clock the clock to use
+   * @return this
+   */
+  public MXRecordCacheBuilder clock(Clock clock) {
+    this.clock = Objects.requireNonNull(clock);
+    return this;
+  }
+
+  /**
+   * Build the new {@code MXRecordCache} instance.
+   *
+   * @return the new {@link MXRecordCache} instance
+   */
+  public MXRecordCache build() {
+    return new MXRecordCache(this);
+  }
+
+  private static Duration requireNonNegative(Duration ttl) {
+    if (ttl.isNegative()) {
+      throw new IllegalArgumentException("The TTL must not be negative");
+    }
+
+    return ttl.compareTo(MAX_TTL) > 0 ? MAX_TTL : ttl;
+  }
+}
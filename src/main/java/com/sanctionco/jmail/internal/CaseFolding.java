@@ -0,0 +1,111 @@
+package com.sanctionco.jmail.internal;
+
+/**
+ * Case-insensitive hashing and comparison of strings, without creating a lowercase copy of them.
+ *
+ * <p>Characters are folded one at a time: ASCII letters are folded to lowercase with a single
+ * comparison, and any other character is folded in the same way as
+ * {@link String#equalsIgnoreCase(String)}, by converting it to uppercase and then to lowercase.
+ * Two strings are equal ignoring case if and only if their folded characters are equal, and
+ * equal strings always have the same hash code. For ASCII strings, the hash code is the same
+ * as the {@link String#hashCode()} of the lowercase string.
+ *
+ * <p>Internal usage only.
+ */
+public final class CaseFolding {
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private CaseFolding() {
+  }
+
+  /**
+   * Fold the case of the given character.
+   *
+   * @param c the character to fold
+   * @return the folded character, which is lowercase for ASCII letters
+   */
+  public static char fold(char c) {
+    if (c < 0x80) return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+  /**
+   * Determine if the given string only contains ASCII characters.
+   *
+   * @param s the string to check
+   * @return true if every character is ASCII, false otherwise
+   */
+  public static boolean isAscii(CharSequence s) {
+    for (int i = 0; i < s.length(); i++) {
+      if (s.charAt(i) >= 0x80) return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Compute the case-insensitive hash code of the given string.
+   *
+   * @param s the string to hash
+   * @return the hash code of the folded characters
+   */
+  public static int hashCode(CharSequence s) {
+    return hashCode(s, 0, s.length());
+  }
+
+  /**
+   * Compute the case-insensitive hash code of the characters of the given string between
+   * {@code start} (inclusive) and {@code end} (exclusive).
+   *
+   * @param s the string to hash
+   * @param start the index of the first character to hash
+   * @param end the index after the last character to hash
+   * @return the hash code of the folded characters
+   */
+  public static int hashCode(CharSequence s, int start, int end) {
+    int hash = 0;
+
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + fold(s.charAt(i));
+    }
+
+    return hash;
+  }
+
+  /**
+   * Determine if the given strings are equal, ignoring case.
+   *
+   * @param a the first string
+   * @param b the second string
+   * @return true if the folded characters of the strings are equal, false otherwise
+   */
+  public static boolean equals(CharSequence a, CharSequence b) {
+    return a.length() == b.length() && regionEquals(a, b, 0, b.length());
+  }
+
+  /**
+   * Determine if a string is equal to the characters of another string between {@code start}
+   * (inclusive) and {@code end} (exclusive), ignoring case.
+   *
+   * @param a the whole string to compare
+   * @param b the string that contains the region to compare
+   * @param start the index of the first character of the region
+   * @param end the index after the last character of the region
+   * @return true if the folded characters are equal, false otherwise
+   */
+  public static boolean regionEquals(CharSequence a, CharSequence b, int start, int end) {
+    if (a.length() != end - start) return false;
+
+    for (int i = 0; i < a.length(); i++) {
+      char x = a.charAt(i);
+      char y = b.charAt(start + i);
+
+      if (x != y && fold(x) != fold(y)) return false;
+    }
+
+    return true;
+  }
+}
@@ -0,0 +1,130 @@
+package com.sanctionco.jmail.internal;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * An immutable set of strings that finds its members ignoring case, as defined by
+ * {@link CaseFolding}, without creating a lowercase copy of the string that is looked up.
+ *
+ * <p>The members are held in a single open-addressing hash table, together with their
+ * case-insensitive hash codes. A lookup hashes the string once and compares it with the members
+ * that have the same hash code, folding both as it goes.
+ *
+ * <p>Internal usage only.
+ */
+public final class CaseInsensitiveSet extends AbstractSet<String> {
+  private final String[] members;
+  private final int[] hashes;
+  private final int mask;
+  private final int size;
+
+  private CaseInsensitiveSet(Collection<String> strings) {
+    // Keep the table at most half full, so that probe sequences stay short
+    int capacity = Integer.highestOneBit(Math.max(2, strings.size()) * 2 - 1) << 1;
+
+    this.members = new String[capacity];
+    this.hashes = new int[capacity];
+    this.mask = capacity - 1;
+
+    int count = 0;
+    for (String s : strings) {
+      int hash = CaseFolding.hashCode(s);
+      int slot = slot(hash);
+
+      while (members[slot] != null && !matches(slot, hash, s)) {
+        slot = (slot + 1) & mask;
+      }
+
+      if (members[slot] == null) {
+        members[slot] = s;
+        hashes[slot] = hash;
+        count++;
+      }
+    }
+
+    this.size = count;
+  }
+
+  /**
+   * Create a new {@code CaseInsensitiveSet} that contains the given strings. Strings that are
+   * equal ignoring case are only added once, and the first of them is kept.
+   *
+   * @param strings the strings that are members of the set
+   * @return the new {@code CaseInsensitiveSet}
+   */
+  public static CaseInsensitiveSet of(Collection<String> strings) {
+    strings.forEach(Objects::requireNonNull);
+
+    return new CaseInsensitiveSet(strings);
+  }
+
+  /**
+   * Determine if the set contains the given string, ignoring case.
+   *
+   * @param s the string to find
+   * @return true if a member is equal to the string ignoring case, false otherwise
+   */
+  public boolean containsIgnoreCase(CharSequence s) {
+    int hash = CaseFolding.hashCode(s);
+
+    for (int slot = slot(hash); members[slot] != null; slot = (slot + 1) & mask) {
+      if (matches(slot, hash, s)) return true;
+    }
+
+    return false;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return o instanceof CharSequence && containsIgnoreCase((CharSequence) o);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Iterator<String> iterator() {
+    return new Iterator<String>() {
+      private int next = advance(0);
+
+      @Override
+      public boolean hasNext() {
+        return next < members.length;
+      }
+
+      @Override
+      public String next() {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        String member = members[next];
+        next = advance(next + 1);
+
+        return member;
+      }
+
+      private int advance(int from) {
+        int slot = from;
+        while (slot < members.length && members[slot] == null) {
+          slot++;
+        }
+
+        return slot;
+      }
+    };
+  }
+
+  private boolean matches(int slot, int hash, CharSequence s) {
+    return hashes[slot] == hash && CaseFolding.equals(members[slot], s);
+  }
+
+  private int slot(int hash) {
+    // Spread the bits, since the table is indexed by the low bits of the hash
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+}
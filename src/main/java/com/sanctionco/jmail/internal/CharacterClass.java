@@ -0,0 +1,126 @@
+package com.sanctionco.jmail.internal;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of characters with constant time, allocation-free membership checks.
+ *
+ * <p>Membership for the ASCII range is stored as a 128-bit mask, so checking an ASCII
+ * character is a single shift and bitwise and. Non-ASCII members are kept in a sorted array
+ * that is binary searched, after first rejecting any character that falls outside the range
+ * of the non-ASCII members with at most two comparisons.
+ *
+ * <p>Internal usage only.
+ */
+public final class CharacterClass {
+  private static final char[] NO_CHARACTERS = new char[0];
+
+  private final long low;          // bit n is set if character n (0 - 63) is a member
+  private final long high;         // bit n is set if character n + 64 (64 - 127) is a member
+  private final char[] nonAscii;   // sorted non-ASCII members
+  private final char nonAsciiMin;  // smallest non-ASCII member
+  private final char nonAsciiMax;  // largest non-ASCII member
+
+  private CharacterClass(long low, long high, char[] nonAscii) {
+    this.low = low;
+    this.high = high;
+    this.nonAscii = nonAscii;
+
+    // With no non-ASCII members, min > max so that every non-ASCII character is rejected
+    this.nonAsciiMin = nonAscii.length == 0 ? Character.MAX_VALUE : nonAscii[0];
+    this.nonAsciiMax = nonAscii.length == 0 ? 0 : nonAscii[nonAscii.length - 1];
+  }
+
+  /**
+   * Create a new {@code CharacterClass} that contains exactly the given characters.
+   *
+   * @param chars the characters that are members of the class
+   * @return the new {@code CharacterClass}
+   */
+  public static CharacterClass of(char... chars) {
+    long low = 0;
+    long high = 0;
+    char[] nonAscii = new char[chars.length];
+    int nonAsciiCount = 0;
+
+    for (char c : chars) {
+      if (c < 64) {
+        low |= 1L << c;
+      } else if (c < 128) {
+        high |= 1L << (c - 64);
+      } else {
+        nonAscii[nonAsciiCount++] = c;
+      }
+    }
+
+    return new CharacterClass(low, high, sortedUnique(nonAscii, nonAsciiCount));
+  }
+
+  /**
+   * Create a new {@code CharacterClass} that contains every character between {@code first}
+   * and {@code last}, inclusive.
+   *
+   * @param first the first character in the range
+   * @param last the last character in the range
+   * @return the new {@code CharacterClass}
+   * @throws IllegalArgumentException if {@code first} is greater than {@code last}
+   */
+  public static CharacterClass range(char first, char last) {
+    if (first > last) {
+      throw new IllegalArgumentException("The first character must not be greater than the last");
+    }
+
+    char[] chars = new char[last - first + 1];
+
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = (char) (first + i);
+    }
+
+    return of(chars);
+  }
+
+  /**
+   * Create a new {@code CharacterClass} that contains all members of this class and
+   * all members of the given class.
+   *
+   * @param other the class to combine with this class
+   * @return the new {@code CharacterClass}
+   */
+  public CharacterClass union(CharacterClass other) {
+    char[] combined = Arrays.copyOf(nonAscii, nonAscii.length + other.nonAscii.length);
+    System.arraycopy(other.nonAscii, 0, combined, nonAscii.length, other.nonAscii.length);
+
+    return new CharacterClass(
+        low | other.low, high | other.high, sortedUnique(combined, combined.length));
+  }
+
+  /**
+   * Determine if the given character is a member of this class.
+   *
+   * @param c the character to check
+   * @return true if the character is a member of this class, false otherwise
+   */
+  public boolean contains(char c) {
+    if (c < 64) return (low & (1L << c)) != 0;
+    if (c < 128) return (high & (1L << (c - 64))) != 0;
+
+    // Most non-ASCII characters fall outside the range of non-ASCII members entirely
+    if (c < nonAsciiMin || c > nonAsciiMax) return false;
+
+    return Arrays.binarySearch(nonAscii, c) >= 0;
+  }
+
+  private static char[] sortedUnique(char[] chars, int count) {
+    if (count == 0) return NO_CHARACTERS;
+
+    char[] sorted = Arrays.copyOf(chars, count);
+    Arrays.sort(sorted);
+
+    int unique = 1;
+    for (int i = 1; i < sorted.length; i++) {
+      if (sorted[i] != sorted[unique - 1]) sorted[unique++] = sorted[i];
+    }
+
+    return unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+  }
+}
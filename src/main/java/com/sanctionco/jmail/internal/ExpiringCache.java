@@ -0,0 +1,149 @@
+package com.sanctionco.jmail.internal;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe cache whose entries expire after a time-to-live given when each entry
+ * is stored. When the cache grows beyond its maximum size, expired entries and entries that
+ * have not been read since they were last considered for eviction are removed first (the CLOCK
+ * or "second chance" policy), which keeps frequently read entries without the cost of
+ * maintaining a strict least-recently-used order on every read.
+ *
+ * <p>Internal usage only.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class ExpiringCache<K, V> {
+  private final int maximumSize;
+  private final Clock clock;
+
+  private final Map<K, Node<K, V>> nodes = new ConcurrentHashMap<>();
+  private final Queue<Node<K, V>> evictionQueue = new ConcurrentLinkedQueue<>();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Create a new, empty cache.
+   *
+   * @param maximumSize the maximum number of entries to keep
+   * @param clock the clock used to determine when entries expire
+   */
+  public ExpiringCache(int maximumSize, Clock clock) {
+    this.maximumSize = maximumSize;
+    this.clock = clock;
+  }
+
+  /**
+   * Get the value stored for the given key, if it has not yet expired.
+   *
+   * @param key the key to look up
+   * @return the value, or null if there is no value for the key or it has expired
+   */
+  public V get(K key) {
+    Node<K, V> node = nodes.get(key);
+    if (node == null) return null;
+
+    Entry<V> entry = node.entry;
+    if (clock.millis() >= entry.expiresAt) return null;
+
+    node.referenced = true;
+    return entry.value;
+  }
+
+  /**
+   * Store the value for the given key, replacing any existing value, and evict entries if the
+   * cache has grown beyond its maximum size.
+   *
+   * @param key the key to store the value for
+   * @param value the value to store
+   * @param ttlMillis how long the value is kept, in milliseconds, or {@link Long#MAX_VALUE} to
+   *                  keep it until it is evicted
+   */
+  public void put(K key, V value, long ttlMillis) {
+    long now = clock.millis();
+
+    // Saturate instead of overflowing, which would make a very long TTL expire immediately
+    long expiresAt = ttlMillis > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + ttlMillis;
+
+    Entry<V> entry = new Entry<>(value, expiresAt);
+    Node<K, V> node = nodes.get(key);
+
+    if (node == null) {
+      Node<K, V> created = new Node<>(key, entry);
+      node = nodes.putIfAbsent(key, created);
+
+      if (node == null) {
+        evictionQueue.offer(created);
+        evictIfNeeded();
+
+        return;
+      }
+    }
+
+    node.entry = entry;
+  }
+
+  /**
+   * Get the number of entries in the cache, including entries that have expired but not yet
+   * been removed.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return nodes.size();
+  }
+
+  /**
+   * Get the number of entries that were removed because the cache grew beyond its maximum size.
+   *
+   * @return the number of evictions
+   */
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  private void evictIfNeeded() {
+    long now = clock.millis();
+
+    // Each node gets a second chance if it was read since it was last considered, so the
+    // queue is passed over at most twice before enough nodes are removed
+    while (nodes.size() > maximumSize) {
+      Node<K, V> candidate = evictionQueue.poll();
+      if (candidate == null) return;
+
+      if (candidate.referenced && now < candidate.entry.expiresAt) {
+        candidate.referenced = false;
+        evictionQueue.offer(candidate);
+        continue;
+      }
+
+      if (nodes.remove(candidate.key, candidate)) evictions.increment();
+    }
+  }
+
+  private static final class Node<K, V> {
+    private final K key;
+    private volatile Entry<V> entry;
+    private volatile boolean referenced;
+
+    private Node(K key, Entry<V> entry) {
+      this.key = key;
+      this.entry = entry;
+    }
+  }
+
+  private static final class Entry<V> {
+    private final V value;
+    private final long expiresAt;
+
+    private Entry(V value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.sanctionco.jmail.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The default {@link Executor} for blocking I/O (such as DNS lookups) that is started by the
+ * asynchronous methods of JMail when the caller does not provide an {@code Executor}.
+ *
+ * <p>Blocking I/O should not run in the {@link java.util.concurrent.ForkJoinPool#commonPool()}
+ * that {@link java.util.concurrent.CompletableFuture} uses by default, since a few slow lookups
+ * can then starve every other task in the JVM. Instead, this executor uses a pool of daemon
+ * threads that is only created the first time it is used, so it never prevents the JVM from
+ * exiting.
+ *
+ * <p>The pool is bounded, so that a slow DNS server or API (whose lookups may be abandoned by
+ * the caller, but keep running) cannot grow the number of threads without limit. It runs at most
+ * {@value #MAX_THREADS} threads, which exit after being idle for {@value #KEEP_ALIVE_SECONDS}
+ * seconds, and queues at most {@value #MAX_QUEUED} more tasks. Once every thread is busy and the
+ * queue is full, a new task is rejected. Asynchronous methods should start their tasks with
+ * {@link #supplyAsync(Supplier, Executor)}, which then returns a future that has failed with a
+ * {@link RejectedExecutionException}, so that the lookup never runs on the calling thread (which
+ * may be an event loop).
+ *
+ * <p>Internal usage only.
+ */
+public final class IoExecutor {
+  static final int MAX_THREADS = 64;
+  static final int MAX_QUEUED = 1024;
+  static final long KEEP_ALIVE_SECONDS = 60;
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private IoExecutor() {
+  }
+
+  /**
+   * Get the shared executor for blocking I/O.
+   *
+   * @return the shared {@link Executor}
+   */
+  public static Executor shared() {
+    return Holder.EXECUTOR;
+  }
+
+  /**
+   * Run the given supplier on the given executor, like
+   * {@link CompletableFuture#supplyAsync(Supplier, Executor)}. Unlike that method, if the
+   * executor rejects the task, the returned future fails with the
+   * {@link RejectedExecutionException} instead of the exception being thrown to the caller.
+   *
+   * @param supplier the supplier to run
+   * @param executor the executor to run the supplier on
+   * @param <T> the type of the result
+   * @return a future that completes with the result of the supplier
+   */
+  public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+    try {
+      return CompletableFuture.supplyAsync(supplier, executor);
+    } catch (RejectedExecutionException e) {
+      CompletableFuture<T> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+
+      return failed;
+    }
+  }
+
+  /**
+   * Create a pool of daemon threads that runs at most the given number of threads and queues at
+   * most the given number of tasks, and rejects any further task.
+   *
+   * @param maxThreads the maximum number of threads
+   * @param maxQueued the maximum number of tasks waiting for a thread
+   * @return the new pool
+   */
+  static ThreadPoolExecutor create(int maxThreads, int maxQueued) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(maxQueued), new Factory(),
+        new ThreadPoolExecutor.AbortPolicy());
+
+    // Core threads are started before tasks are queued, so they must also be allowed to exit
+    executor.allowCoreThreadTimeOut(true);
+
+    return executor;
+  }
+
+  private static final class Holder {
+    private static final ThreadPoolExecutor EXECUTOR = create(MAX_THREADS, MAX_QUEUED);
+  }
+
+  private static final class Factory implements ThreadFactory {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "jmail-io-" + count.incrementAndGet());
+      thread.setDaemon(true);
+
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.sanctionco.jmail.internal;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Deduplicates concurrent calls for the same key, so that when many threads ask for the same
+ * key at once only the first of them runs the function, and the rest wait for and share its
+ * result. Once the function returns, the next call for the key runs it again.
+ *
+ * <p>Internal usage only.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the results
+ */
+public final class SingleFlight<K, V> {
+  private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final LongAdder coalesced = new LongAdder();
+
+  /**
+   * Run the given function for the given key, or wait for the result of the call for the same
+   * key that is already running on another thread. If that call throws an exception, the same
+   * exception is thrown to every waiting caller.
+   *
+   * @param key the key to run the function for
+   * @param function the function to run
+   * @return the result of the function
+   */
+  public V execute(K key, Function<? super K, ? extends V> function) {
+    CompletableFuture<V> created = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+
+    if (existing != null) {
+      coalesced.increment();
+      return await(existing);
+    }
+
+    try {
+      V result = function.apply(key);
+      created.complete(result);
+
+      return result;
+    } catch (RuntimeException | Error e) {
+      created.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, created);
+    }
+  }
+
+  /**
+   * Get the number of calls that shared the result of a call that was already running,
+   * instead of running the function themselves.
+   *
+   * @return the number of coalesced calls
+   */
+  public long coalescedCount() {
+    return coalesced.sum();
+  }
+
+  private static <V> V await(CompletableFuture<V> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      if (cause instanceof Error) throw (Error) cause;
+
+      throw e;
+    }
+  }
+}
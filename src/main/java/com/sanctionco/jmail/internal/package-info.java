@@ -0,0 +1,7 @@
+/**
+ * Internal usage only. This package is not exported by the {@code com.sanctionco.jmail} module,
+ * but its classes are public so that the other packages of JMail can use them, and on a Java 8
+ * classpath they can be used by anyone. They are not part of the API of JMail and may change
+ * without notice.
+ */
+package com.sanctionco.jmail.internal;
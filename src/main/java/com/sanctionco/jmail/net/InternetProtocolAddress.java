@@ -1,9 +1,8 @@
 package com.sanctionco.jmail.net;
 
-import java.util.Arrays;
-import java.util.HashSet;
+import com.sanctionco.jmail.internal.CharacterClass;
+
 import java.util.Optional;
-import java.util.Set;
 
 /**
  * Provides validation methods for internet protocol (IP) addresses,
@@ -19,11 +18,10 @@ public final class InternetProtocolAddress {
   private InternetProtocolAddress() {
   }
 
-  // Set of allowed characters in a HEX number
-  private static final Set<Character> ALLOWED_HEX_CHARACTERS = new HashSet<>(
-      Arrays.asList(
-          'A', 'B', 'C', 'D', 'E', 'F', 'a', 'b', 'c', 'd', 'e', 'f',
-          '0', '1', '2', '3', '4', '5', '6', '7', '8', '9'));
+  // Allowed characters in a HEX number
+  private static final CharacterClass ALLOWED_HEX_CHARACTERS = CharacterClass.range('A', 'F')
+      .union(CharacterClass.range('a', 'f'))
+      .union(CharacterClass.range('0', '9'));
 
   /**
    * Determines if the given string is a valid IP address.
@@ -74,64 +72,108 @@ public final class InternetProtocolAddress {
    *         otherwise
    */
   public static Optional<String> validateIpv4(String ip) {
-    StringBuilder currentPart = new StringBuilder();
+    return isValidIpv4(ip, 0, ip.length()) ? Optional.of(ip) : Optional.empty();
+  }
+
+  /**
+   * Determines if the given string is a valid IPv6 address, returning an {@link Optional}
+   * that contains the string if valid.
+   *
+   * @param ip the IP address to validate
+   * @return an {@link Optional} containing the string if valid, or an empty {@link Optional}
+   *         otherwise
+   */
+  public static Optional<String> validateIpv6(String ip) {
+    return isValidIpv6(ip, 0, ip.length()) ? Optional.of(ip) : Optional.empty();
+  }
+
+  /**
+   * Determines if the characters between {@code start} (inclusive) and {@code end} (exclusive)
+   * of the given sequence are a valid IPv4 address. This method does not create any objects,
+   * so it can be used to validate an address embedded within a larger string without
+   * copying it first.
+   *
+   * @param ip the character sequence containing the IP address to validate
+   * @param start the index of the first character of the IP address
+   * @param end the index after the last character of the IP address
+   * @return true if the range is a valid IPv4 address, false otherwise
+   * @throws NullPointerException if {@code ip} is null
+   * @throws IndexOutOfBoundsException if {@code start} is negative, {@code end} is greater than
+   *                                   the length of {@code ip}, or {@code start} is greater
+   *                                   than {@code end}
+   */
+  public static boolean isValidIpv4(CharSequence ip, int start, int end) {
+    checkRange(ip, start, end);
+
+    return isValidIpv4Range(ip, start, end);
+  }
+
+  private static boolean isValidIpv4Range(CharSequence ip, int start, int end) {
+    int partStart = start;
     int partCount = 0;
 
-    for (int i = 0, size = ip.length(); i < size; i++) {
+    for (int i = start; i < end; i++) {
       char c = ip.charAt(i);
 
       if (c == '.') {
         // End of IPv4 part. Validate the current part and continue if valid
-        if (isInvalidIpv4Part(currentPart.toString())) return Optional.empty();
+        if (isInvalidIpv4Part(ip, partStart, i)) return false;
 
         partCount++;
-        currentPart = new StringBuilder();
+        partStart = i + 1;
         continue;
       }
 
-      if (c < '0' || c > '9') return Optional.empty();
-
-      currentPart.append(c);
+      if (c < '0' || c > '9') return false;
     }
 
-    if (isInvalidIpv4Part(currentPart.toString())) return Optional.empty();
+    if (isInvalidIpv4Part(ip, partStart, end)) return false;
 
     partCount++;
 
     // IPv4 must have 4 parts
-    if (partCount != 4) return Optional.empty();
-
-    return Optional.of(ip);
+    return partCount == 4;
   }
 
   /**
-   * Determines if the given string is a valid IPv6 address, returning an {@link Optional}
-   * that contains the string if valid.
+   * Determines if the characters between {@code start} (inclusive) and {@code end} (exclusive)
+   * of the given sequence are a valid IPv6 address. This method does not create any objects,
+   * so it can be used to validate an address embedded within a larger string without
+   * copying it first.
    *
-   * @param ip the IP address to validate
-   * @return an {@link Optional} containing the string if valid, or an empty {@link Optional}
-   *         otherwise
+   * @param ip the character sequence containing the IP address to validate
+   * @param start the index of the first character of the IP address
+   * @param end the index after the last character of the IP address
+   * @return true if the range is a valid IPv6 address, false otherwise
+   * @throws NullPointerException if {@code ip} is null
+   * @throws IndexOutOfBoundsException if {@code start} is negative, {@code end} is greater than
+   *                                   the length of {@code ip}, or {@code start} is greater
+   *                                   than {@code end}
    */
-  public static Optional<String> validateIpv6(String ip) {
-    int len = ip.length();
+  public static boolean isValidIpv6(CharSequence ip, int start, int end) {
+    checkRange(ip, start, end);
+
+    return isValidIpv6Range(ip, start, end);
+  }
 
+  private static boolean isValidIpv6Range(CharSequence ip, int start, int end) {
     // Shortest IPv6 is "::"
-    if (len < 2) return Optional.empty();
+    if (end - start < 2) return false;
 
     // IPv6 cannot start with single colon, only double colon
-    if (ip.charAt(0) == ':' && ip.charAt(1) != ':') return Optional.empty();
+    if (ip.charAt(start) == ':' && ip.charAt(start + 1) != ':') return false;
 
     // IPv6 cannot end with single colon, only double colon
-    if (ip.charAt(len - 1) == ':' && ip.charAt(len - 2) != ':') return Optional.empty();
+    if (ip.charAt(end - 1) == ':' && ip.charAt(end - 2) != ':') return false;
 
-    StringBuilder currentPart = new StringBuilder();
+    int partLength = 0;
     int partCount = 0;
 
     boolean previousColon = false;
     boolean doubleColon = false;
     boolean isDual = false;
 
-    for (int i = 0, size = ip.length(); i < size; i++) {
+    for (int i = start; i < end; i++) {
       char c = ip.charAt(i);
 
       if (c == '.') {
@@ -139,20 +181,17 @@ public final class InternetProtocolAddress {
         isDual = true;
 
         // In a dual address, the IPv6 part can only have up to 6 segments
-        if (partCount > 6) return Optional.empty();
+        if (partCount > 6) return false;
 
-        // Validate the IPv4 address
-        String remainingSubstring = ip.substring(i);
-        Optional<String> ipv4 = validateIpv4(currentPart + remainingSubstring);
-
-        if (!ipv4.isPresent()) return Optional.empty();
+        // Validate the IPv4 address, which begins with the current part
+        if (!isValidIpv4Range(ip, i - partLength, end)) return false;
 
         break;
       }
 
       if (c == ':') {
         // We already saw a double colon, we can't see another one
-        if (previousColon && doubleColon) return Optional.empty();
+        if (previousColon && doubleColon) return false;
 
         if (previousColon) {
           // two colons in a row, we skip
@@ -160,25 +199,25 @@ public final class InternetProtocolAddress {
           continue;
         }
 
-        if (currentPart.length() > 0) {
-          if (isInvalidIpv6Part(currentPart.toString())) return Optional.empty();
+        if (partLength > 0) {
+          if (isInvalidIpv6Part(partLength)) return false;
           else partCount++;
         }
 
-        currentPart = new StringBuilder();
+        partLength = 0;
         previousColon = true;
         continue;
       } else {
         previousColon = false;
       }
 
-      if (!ALLOWED_HEX_CHARACTERS.contains(c)) return Optional.empty();
+      if (!ALLOWED_HEX_CHARACTERS.contains(c)) return false;
 
-      currentPart.append(c);
+      partLength++;
     }
 
-    if (currentPart.length() > 0) {
-      if (isInvalidIpv6Part(currentPart.toString())) return Optional.empty();
+    if (partLength > 0) {
+      if (isInvalidIpv6Part(partLength)) return false;
       else partCount++;
     }
 
@@ -186,34 +225,43 @@ public final class InternetProtocolAddress {
       // Dual - without a double colon there must be 7 parts exactly.
       // With a double colon there can be no more than 6.
       if ((!doubleColon && partCount != 7) || (doubleColon && partCount > 6)) {
-        return Optional.empty();
+        return false;
       }
     } else {
       // Regular - without a double colon there must be 8 parts exactly.
       // With a double colon there can be no more than 7.
       if ((!doubleColon && partCount != 8) || (doubleColon && partCount > 7)) {
-        return Optional.empty();
+        return false;
       }
     }
 
-    return Optional.of(ip);
+    return true;
   }
 
-  private static boolean isInvalidIpv4Part(String part) {
-    // IPv4 can only have 3 digits in a single part
-    if (part.length() > 3) return true;
+  private static void checkRange(CharSequence ip, int start, int end) {
+    if (start < 0 || end > ip.length() || start > end) {
+      throw new IndexOutOfBoundsException(
+          "Range [" + start + ", " + end + ") out of bounds for length " + ip.length());
+    }
+  }
+
+  private static boolean isInvalidIpv4Part(CharSequence ip, int start, int end) {
+    int length = end - start;
+
+    // IPv4 must have between 1 and 3 digits in a single part
+    if (length == 0 || length > 3) return true;
+
+    int value = 0;
 
-    try {
-      // The int cannot be less than zero since we check isDigit earlier on
-      if (Integer.parseInt(part) > 255) return true;
-    } catch (NumberFormatException e) {
-      return true;
+    // The value cannot be less than zero since we check for digits earlier on
+    for (int i = start; i < end; i++) {
+      value = value * 10 + (ip.charAt(i) - '0');
     }
 
-    return false;
+    return value > 255;
   }
 
-  private static boolean isInvalidIpv6Part(String part) {
-    return part.length() > 4;
+  private static boolean isInvalidIpv6Part(int length) {
+    return length > 4;
   }
 }
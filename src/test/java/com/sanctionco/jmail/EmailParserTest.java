@@ -0,0 +1,86 @@
+package com.sanctionco.jmail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvFileSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailParserTest {
+  // Shared by every test, so that each address is parsed after many others
+  private final EmailParser parser = new EmailParser();
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource({
+      "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideValidEmails",
+      "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideValidWhitespaceEmails",
+      "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideInvalidEmails",
+      "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideInvalidWhitespaceEmails",
+      "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideInvalidControlEmails"})
+  @CsvFileSource(resources = "/valid-addresses.csv", numLinesToSkip = 1)
+  void reusedParserAgreesWithNewParser(String email) {
+    assertThat(parser.validate(email)).isEqualTo(new EmailParser().validate(email));
+    assertThat(parser.tryParse(email)).isEqualTo(JMail.tryParse(email));
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("com.sanctionco.jmail.FailureReasonTest#provideTestEmails")
+  void reusedParserAgreesOnFailureReasons(String email, FailureReason failureReason) {
+    assertThat(parser.validate(email).getFailureReason()).isEqualTo(failureReason);
+  }
+
+  @Test
+  void resultsDoNotShareScratchState() {
+    Email first = parser.tryParse("\"b c\".\"e f\".g(h)@(i)example.com").get();
+    Email second = parser.tryParse("@1st.relay,@2nd.relay:user(k)@example.org").get();
+    Email third = parser.tryParse("@3rd.relay:\"x y\"@example.net").get();
+
+    assertThat(first.comments()).containsExactly("h", "i");
+    assertThat(first.localPartWithoutComments()).isEqualTo("\"b c\".\"e f\".g");
+    assertThat(first.explicitSourceRoutes()).isEmpty();
+
+    assertThat(second.comments()).containsExactly("k");
+    assertThat(second.explicitSourceRoutes()).containsExactly("1st.relay", "2nd.relay");
+    assertThat(second.normalized()).isEqualTo("user@example.org");
+
+    assertThat(third.comments()).isEmpty();
+    assertThat(third.explicitSourceRoutes()).containsExactly("3rd.relay");
+    assertThat(third.localPart()).isEqualTo("\"x y\"");
+  }
+
+  @Test
+  void recoversAfterLongSourceRoute() {
+    String longRoute = String.join(",", Collections.nCopies(200, "@relay.example.com"));
+
+    assertThat(parser.tryParse(longRoute + ":user@example.com")).get()
+        .returns(200, e -> e.explicitSourceRoutes().size());
+
+    assertThat(parser.tryParse("@a.relay:user@example.com")).get()
+        .returns(Collections.singletonList("a.relay"), Email::explicitSourceRoutes);
+  }
+
+  @Test
+  void parsesMany() {
+    for (int i = 0; i < 10_000; i++) {
+      String email = "user" + i + "(" + i + ")@" + "example" + (i % 10) + ".com";
+
+      assertThat(parser.tryParse(email)).get()
+          .returns("user" + i, Email::localPartWithoutComments)
+          .returns(Collections.singletonList(String.valueOf(i)), Email::comments)
+          .returns(Arrays.asList("example" + (i % 10), "com"), Email::domainParts);
+    }
+  }
+
+  @Test
+  void pooledParserBelongsToThread() throws Exception {
+    EmailParser pooled = EmailParser.pooled();
+
+    assertThat(EmailParser.pooled()).isSameAs(pooled);
+    assertThat(CompletableFuture.supplyAsync(EmailParser::pooled).get()).isNotSameAs(pooled);
+  }
+}
@@ -0,0 +1,194 @@
+package com.sanctionco.jmail;
+
+import net.andreinc.mockneat.MockNeat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvFileSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailScannerTest {
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource({
+      "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideValidEmails",
+      "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideValidWhitespaceEmails"})
+  @CsvFileSource(resources = "/valid-addresses.csv", numLinesToSkip = 1)
+  void agreesOnValidAddresses(String email) {
+    assertThat(EmailScanner.validate(email, false)).isEqualTo(FailureReason.NONE);
+
+    assertAgreesWithParser(email);
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource({
+      "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideInvalidEmails",
+      "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideInvalidWhitespaceEmails",
+      "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideInvalidControlEmails"})
+  @CsvFileSource(resources = "/invalid-addresses.csv", delimiterString = " ;", numLinesToSkip = 1)
+  void agreesOnInvalidAddresses(String email) {
+    assertThat(EmailScanner.isValid(email, false)).isFalse();
+
+    assertAgreesWithParser(email);
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("com.sanctionco.jmail.FailureReasonTest#provideTestEmails")
+  void agreesOnFailureReasons(String email, FailureReason failureReason) {
+    assertThat(EmailScanner.validate(email, false)).isEqualTo(failureReason);
+
+    assertAgreesWithParser(email);
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @ValueSource(strings = {
+      "@1st.relay,@2nd.relay:user@final.domain",
+      "@-1st.relay,@2nd.relay:user@final.domain",
+      "@1st.relay,2nd.relay:user@final.domain",
+      "@1st.1111,@2nd.relay:user@final.domain",
+      "@hello.world,",
+      "@a,@",
+      "@a:",
+      "@1st.relay,@2nd.relay:invalid",
+      "@1st.r_elay,@2nd.relay:user@final.domain",
+      "@1st.relay:John Smith <test@te.ex>",
+      "@jørn.relay:user@final.domain",
+      "John Smith <test@te.ex>",
+      "John Smith <@1st.relay:test@te.ex>",
+      "<>test@test.com",
+      ".John <test@te.ex>",
+      "Admin<admin@te.ex",
+      "test@(comment)[1.2.3.4]",
+      "test@[IPv6:2001:db8::1]",
+      "test@[IPv6:::12.34.56.78]",
+      "test@[IPv6:1:2:3:4:5:6:7:8:9]",
+      "test@[IPv6:2001:db8::g]",
+      "test@[IPv6:]",
+      "test@[1.2.3.256]",
+      "test@[1.2.3]",
+      "test@[]",
+      "test@[1.2.3.4",
+      "test@ex(comment)ample.com",
+      "test@(comment)jørn.com",
+      "test@jørn(comment).com",
+      "test@jø rn.com",
+      "test@jørn.c_m",
+      "test@(comment)ex_ample.com",
+      "test@ex\"ample\".com",
+      "a@\"x. .y\".com",
+      "a@x\". .\"y.com",
+      "a@\"..\"x.com",
+      "test@xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx  .com",
+      "test@xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx.com",
+      "test@com.xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx",
+      "test(a(b)c)@test.com",
+      "test(a\\(b)@test.com",
+      "test(a\\\\)b)@test.com",
+      "test(a(b)@test.com",
+      "test@test.com(",
+      "test@test.com(a)",
+      "test@test.com(a) ",
+      "\"test\\\"\"@test.com",
+      "\"te st\".\"a\"@test.com",
+      "jørn@test.com",
+      "jø•rn@test.com",
+      "\"jø•rn\"@test.com",
+      "test@١٢٣",
+      "test@test.١٢٣",
+      "test@test.12a",
+      "test@-test.com",
+      "test@test-.com",
+      "test@test.-com",
+      "a@silly.tes-(comment)",
+      "a@silly.tes- ",
+      "a@silly.tes- (comment)",
+      "user@foo- ",
+      "user@foo-\r",
+      "a@silly.-tes(comment)",
+  })
+  void agreesOnEdgeCases(String email) {
+    assertAgreesWithParser(email);
+  }
+
+  @Test
+  void agreesOnRandomAddresses() {
+    for (int i = 0; i < 1000; i++) {
+      assertAgreesWithParser(MockNeat.threadLocal().emails().get());
+    }
+  }
+
+  /**
+   * The addresses in {@code fuzzed-addresses.csv} were generated by randomly mutating the
+   * addresses in the other test files, and their expected results were recorded from the parser
+   * that built up each part of the address as a string, before the rules were implemented once
+   * in {@link EmailScanner}. The only results that have changed since are those of a final domain
+   * part (including the only part of a dotless domain) that ends with a dash before a comment or
+   * whitespace, which is now rejected with {@link FailureReason#DOMAIN_PART_ENDS_WITH_DASH}.
+   */
+  @ParameterizedTest(name = "{2}")
+  @CsvFileSource(resources = "/fuzzed-addresses.csv", numLinesToSkip = 1)
+  void matchesRecordedResultsOnFuzzedAddresses(String failureReason,
+                                               String failureReasonAllowingDots,
+                                               String escapedEmail,
+                                               String escapedParts) {
+    String email = unescape(escapedEmail);
+
+    assertThat(EmailScanner.validate(email, false)).hasToString(failureReason);
+    assertThat(EmailScanner.validate(email, true)).hasToString(failureReasonAllowingDots);
+
+    EmailValidationResult result = JMail.validate(email);
+
+    assertThat(result.getFailureReason()).hasToString(failureReason);
+    assertThat(result.getEmail().map(EmailScannerTest::parts).orElse(null))
+        .isEqualTo(escapedParts == null ? null : unescape(escapedParts));
+
+    assertAgreesWithParser(email);
+  }
+
+  @Test
+  void rejectsDomainWithUnclosedComment() {
+    assertThat(EmailScanner.isValidDomain("test.com(comment)", 0, 17, true)).isTrue();
+    assertThat(EmailScanner.isValidDomain("test.com(comment", 0, 16, true)).isFalse();
+    assertThat(EmailScanner.isValidDomain("bücher.de(comment)", 0, 18, true)).isTrue();
+    assertThat(EmailScanner.isValidDomain("bücher.de(comment", 0, 17, true)).isFalse();
+  }
+
+  @Test
+  void handlesNullAddress() {
+    assertThat(EmailScanner.validate(null, false)).isEqualTo(FailureReason.NULL_ADDRESS);
+    assertThat(EmailScanner.isValid(null, true)).isFalse();
+  }
+
+  private static String parts(Email email) {
+    return String.join("|", email.toString(), email.localPartWithoutComments(),
+        email.domainWithoutComments(), email.comments().toString(),
+        email.domainParts().toString(), email.explicitSourceRoutes().toString(),
+        String.valueOf(email.identifier()), email.normalized());
+  }
+
+  private static String unescape(String escaped) {
+    StringBuilder builder = new StringBuilder(escaped.length());
+
+    for (int i = 0; i < escaped.length(); i++) {
+      if (escaped.startsWith("\\u", i)) {
+        builder.append((char) Integer.parseInt(escaped.substring(i + 2, i + 6), 16));
+        i += 5;
+      } else {
+        builder.append(escaped.charAt(i));
+      }
+    }
+
+    return builder.toString();
+  }
+
+  private static void assertAgreesWithParser(String email) {
+    assertThat(EmailScanner.validate(email, false))
+        .isEqualTo(JMail.validate(email, false).getFailureReason());
+
+    assertThat(EmailScanner.validate(email, true))
+        .isEqualTo(JMail.validate(email, true).getFailureReason());
+  }
+}
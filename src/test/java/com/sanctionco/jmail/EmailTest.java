@@ -9,6 +9,7 @@ import java.util.Optional;
 import java.util.stream.Stream;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -29,7 +30,12 @@ class EmailTest {
 
   @Test
   void ensureEqualsContract() {
-    EqualsVerifier.forClass(Email.class).verify();
+    // The parts of the address are cached in non-final fields the first time they are read,
+    // and are derived from the source and offsets, which are not compared directly
+    EqualsVerifier.forClass(Email.class)
+        .suppress(Warning.NONFINAL_FIELDS, Warning.NULL_FIELDS)
+        .withIgnoredFields("source", "offsets")
+        .verify();
   }
 
   @Test
@@ -46,6 +52,32 @@ class EmailTest {
         .returns(false, Email::hasIdentifier);
   }
 
+  @Test
+  void ensurePartsAreCreatedOnceAndInAnyOrder() {
+    String address = "John <\"te st\".first(comment)@(hello)sub.example.com>";
+
+    Email domainFirst = Email.of(address).orElseThrow(AssertionError::new);
+    Email localPartFirst = Email.of(address).orElseThrow(AssertionError::new);
+
+    assertThat(domainFirst.domainParts()).containsExactly("sub", "example", "com");
+    assertThat(domainFirst.domainWithoutComments()).isEqualTo("sub.example.com");
+    assertThat(domainFirst.localPartWithoutComments()).isEqualTo("\"te st\".first");
+
+    assertThat(localPartFirst.localPart()).isEqualTo("\"te st\".first(comment)");
+    assertThat(localPartFirst.comments()).containsExactly("comment", "hello");
+    assertThat(localPartFirst.domain()).isEqualTo("(hello)sub.example.com");
+
+    assertThat(domainFirst)
+        .isEqualTo(localPartFirst)
+        .hasSameHashCodeAs(localPartFirst)
+        .hasToString(address);
+
+    // Parts are cached after they are first created
+    assertThat(domainFirst.localPart()).isSameAs(domainFirst.localPart());
+    assertThat(domainFirst.domainParts()).isSameAs(domainFirst.domainParts());
+    assertThat(domainFirst.topLevelDomain()).isSameAs(domainFirst.topLevelDomain());
+  }
+
   @Test
   void staticConstructorParses() {
     assertThat(Email.of("user@my.domain.com"))
@@ -1,14 +1,28 @@
 package com.sanctionco.jmail;
 
 import com.sanctionco.jmail.disposable.DisposableDomainSource;
+import com.sanctionco.jmail.dns.MXRecordCache;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.assertj.core.api.Condition;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -86,6 +100,25 @@ class EmailValidatorTest {
         .isEqualTo(FailureReason.CONTAINS_RESERVED_DOMAIN);
   }
 
+  @Test
+  void stopsTestingRulesAfterFirstFailure() {
+    AtomicInteger laterRuleCalls = new AtomicInteger();
+
+    EmailValidator validator = JMail.validator()
+        .requireTopLevelDomain()
+        .withRule(email -> false, "ALWAYS_FAILS")
+        .withRule(email -> laterRuleCalls.incrementAndGet() > 0);
+
+    assertThat(validator.validate("test@localhost").getFailureReason())
+        .isEqualTo(FailureReason.MISSING_TOP_LEVEL_DOMAIN);
+    assertThat(validator.validate("test@test.com").getFailureReason())
+        .isEqualTo(new FailureReason("ALWAYS_FAILS"));
+    assertThat(validator.isValid("test@test.com")).isFalse();
+    assertThat(validator.tryParse("test@test.com")).isEmpty();
+
+    assertThat(laterRuleCalls).hasValue(0);
+  }
+
   @Nested
   class DisallowIpAddress {
     @ParameterizedTest(name = "{0}")
@@ -266,6 +299,22 @@ class EmailValidatorTest {
 
       assertThat(endTime - startTime).isLessThan(500);
     }
+
+    @Test
+    void usesMXRecordCache() {
+      MXRecordCache cache = MXRecordCache.builder()
+          .lookup(domain -> domain.equals("cached.com"))
+          .build();
+
+      EmailValidator validator = JMail.validator().requireValidMXRecord(cache);
+
+      runValidTest(validator, "test@CACHED.com");
+      runValidTest(validator, "other@cached.(comment)com");
+      runInvalidTest(validator, "test@uncached.com", FailureReason.INVALID_MX_RECORD);
+
+      assertThat(cache.missCount()).isEqualTo(2);
+      assertThat(cache.hitCount()).isPositive();
+    }
   }
 
   @Nested
@@ -373,6 +422,288 @@ class EmailValidatorTest {
     }
   }
 
+  @Nested
+  class OrderRulesByCost {
+    @Test
+    void keepsRuleOrderByDefault() {
+      AtomicInteger ioRuleCalls = new AtomicInteger();
+
+      EmailValidator validator = JMail.validator()
+          .withRule(email -> ioRuleCalls.incrementAndGet() < 0, "IO_RULE")
+          .disallowIpDomain();
+
+      assertThat(validator.validate("test@[1.2.3.4]").getFailureReason())
+          .isEqualTo(new FailureReason("IO_RULE"));
+      assertThat(ioRuleCalls).hasValue(1);
+    }
+
+    @Test
+    void testsCheapRulesFirst() {
+      AtomicInteger ioRuleCalls = new AtomicInteger();
+
+      EmailValidator validator = JMail.validator()
+          .withRule(email -> ioRuleCalls.incrementAndGet() > 0, "IO_RULE")
+          .disallowIpDomain()
+          .orderRulesByCost();
+
+      assertThat(validator.validate("test@[1.2.3.4]").getFailureReason())
+          .isEqualTo(FailureReason.CONTAINS_IP_DOMAIN);
+      assertThat(ioRuleCalls).hasValue(0);
+
+      assertThat(validator.isValid("test@test.com")).isTrue();
+      assertThat(ioRuleCalls).hasValue(1);
+    }
+
+    @Test
+    void keepsOrderWithinTheSameCost() {
+      EmailValidator validator = JMail.validator()
+          .withRule(email -> false, new FailureReason("FIRST"), RuleCost.PURE)
+          .withRule(email -> false, new FailureReason("SECOND"), RuleCost.PURE)
+          .withRule(email -> false, new FailureReason("IN_MEMORY"), RuleCost.IN_MEMORY)
+          .orderRulesByCost();
+
+      assertThat(validator.validate("test@test.com").getFailureReason())
+          .isEqualTo(new FailureReason("FIRST"));
+    }
+
+    @Test
+    void usesDeclaredCostOfCustomRules() {
+      EmailValidator validator = JMail.validator()
+          .withRule(email -> false, new FailureReason("IO_RULE"), RuleCost.IO)
+          .withRule(email -> false, new FailureReason("IN_MEMORY_RULE"), RuleCost.IN_MEMORY)
+          .orderRulesByCost();
+
+      assertThat(validator.validate("test@test.com").getFailureReason())
+          .isEqualTo(new FailureReason("IN_MEMORY_RULE"));
+    }
+
+    @Test
+    void usesLookupCostOfDisposableDomainSource() throws IOException {
+      DisposableDomainSource source
+          = DisposableDomainSource.file("src/test/resources/disposable_email_blocklist.conf");
+
+      EmailValidator validator = JMail.validator()
+          .withRule(email -> false, new FailureReason("IO_RULE"), RuleCost.IO)
+          .disallowDisposableDomains(source)
+          .orderRulesByCost();
+
+      assertThat(validator.validate("test@emailnow.net").getFailureReason())
+          .isEqualTo(FailureReason.CONTAINS_DISPOSABLE_DOMAIN);
+    }
+
+    @Test
+    void keepRuleOrderRevertsOrdering() {
+      EmailValidator validator = JMail.validator()
+          .withRule(email -> false, new FailureReason("IO_RULE"), RuleCost.IO)
+          .disallowIpDomain()
+          .orderRulesByCost()
+          .allowNonstandardDots()
+          .keepRuleOrder();
+
+      assertThat(validator.validate("test@[1.2.3.4]").getFailureReason())
+          .isEqualTo(new FailureReason("IO_RULE"));
+    }
+
+    @Test
+    void orderingIsKeptWhenAddingRules() {
+      EmailValidator validator = JMail.validator()
+          .orderRulesByCost()
+          .withRule(email -> false, "IO_RULE")
+          .disallowIpDomain();
+
+      assertThat(validator.validate("test@[1.2.3.4]").getFailureReason())
+          .isEqualTo(FailureReason.CONTAINS_IP_DOMAIN);
+    }
+  }
+
+  @Nested
+  class ValidateAsync {
+    private final AtomicInteger executions = new AtomicInteger();
+    private final Executor countingExecutor = runnable -> {
+      executions.incrementAndGet();
+      runnable.run();
+    };
+
+    @BeforeEach
+    void resetExecutions() {
+      executions.set(0);
+    }
+
+    @Test
+    void completesImmediatelyWithoutIoRules() {
+      EmailValidator validator = JMail.validator().disallowIpDomain();
+
+      assertThat(validator.validateAsync("test@test.com", countingExecutor))
+          .isCompletedWithValueMatching(EmailValidationResult::isSuccess);
+      assertThat(validator.validateAsync("test@[1.2.3.4]", countingExecutor))
+          .isCompletedWithValueMatching(
+              result -> result.getFailureReason() == FailureReason.CONTAINS_IP_DOMAIN);
+      assertThat(validator.validateAsync("invalid", countingExecutor))
+          .isCompletedWithValueMatching(
+              result -> result.getFailureReason() == FailureReason.MISSING_AT_SYMBOL);
+
+      assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void skipsIoWhenEarlierPureRuleFails() {
+      AtomicInteger ioRuleCalls = new AtomicInteger();
+
+      EmailValidator validator = JMail.validator()
+          .disallowIpDomain()
+          .withRule(email -> ioRuleCalls.incrementAndGet() > 0, "IO_RULE");
+
+      assertThat(validator.validateAsync("test@[1.2.3.4]", countingExecutor))
+          .isCompletedWithValueMatching(
+              result -> result.getFailureReason() == FailureReason.CONTAINS_IP_DOMAIN);
+
+      assertThat(executions).hasValue(0);
+      assertThat(ioRuleCalls).hasValue(0);
+    }
+
+    @Test
+    void runsIoRulesOnExecutor() {
+      EmailValidator validator = JMail.validator()
+          .withRule(email -> !email.domain().equals("io.com"), "IO_RULE");
+
+      assertThat(validator.validateAsync("test@test.com", countingExecutor))
+          .isCompletedWithValueMatching(EmailValidationResult::isSuccess);
+      assertThat(validator.validateAsync("test@io.com", countingExecutor))
+          .isCompletedWithValueMatching(
+              result -> result.getFailureReason().equals(new FailureReason("IO_RULE")));
+
+      assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void reportsSameFailureReasonAsValidate() {
+      EmailValidator validator = JMail.validator()
+          .withRule(email -> !email.domain().startsWith("io"), "IO_RULE")
+          .requireTopLevelDomain()
+          .withRule(email -> !email.domain().endsWith("x"), "SECOND_IO_RULE");
+
+      for (String email : new String[] {
+          "test@io", "test@iox", "test@x", "test@test.x", "test@io.com", "test@test.com"}) {
+        assertThat(validator.validateAsync(email, countingExecutor))
+            .isCompletedWithValue(validator.validate(email));
+      }
+    }
+
+    @Test
+    void usesSharedExecutorByDefault() {
+      EmailValidator validator = JMail.validator()
+          .withRule(email -> Thread.currentThread().getName().startsWith("jmail-io-"), "IO_RULE");
+
+      assertThat(validator.validateAsync("test@test.com"))
+          .succeedsWithin(Duration.ofSeconds(5))
+          .matches(EmailValidationResult::isSuccess);
+    }
+  }
+
+  @Nested
+  class ValidateAll {
+    private final EmailValidator validator = JMail.strictValidator().disallowReservedDomains();
+
+    private List<String> addresses(int count) {
+      String[] samples = {
+          "test@test.com", "invalid", "test@example.com", "\"quoted\"@test.org", null,
+          "test@[1.2.3.4]", "a@b", "@route:test@test.com", "test@tést.com", ""};
+
+      List<String> addresses = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        String sample = samples[i % samples.length];
+        addresses.add(sample != null && i % 3 == 0 ? i + sample : sample);
+      }
+
+      return addresses;
+    }
+
+    private List<EmailValidationResult> sequential(List<String> addresses) {
+      List<EmailValidationResult> results = new ArrayList<>();
+      for (String address : addresses) {
+        results.add(validator.validate(address));
+      }
+
+      return results;
+    }
+
+    @ParameterizedTest(name = "{0} addresses")
+    @ValueSource(ints = {0, 1, 100, 257, 10_000})
+    void matchesValidateInOrder(int count) {
+      List<String> addresses = addresses(count);
+      ForkJoinPool pool = new ForkJoinPool(4);
+
+      try {
+        assertThat(validator.validateAll(addresses, pool)).isEqualTo(sequential(addresses));
+        assertThat(validator.validateAll(addresses)).isEqualTo(sequential(addresses));
+      } finally {
+        pool.shutdown();
+      }
+    }
+
+    @ParameterizedTest(name = "{0} addresses")
+    @ValueSource(ints = {0, 1, 100, 40_000})
+    void validatesStreamsInOrder(int count) {
+      List<String> addresses = addresses(count);
+      ForkJoinPool pool = new ForkJoinPool(4);
+
+      try (Stream<EmailValidationResult> results
+               = validator.validateAll(addresses.stream(), pool)) {
+        assertThat(results.collect(Collectors.toList())).isEqualTo(sequential(addresses));
+      } finally {
+        pool.shutdown();
+      }
+
+      assertThat(validator.validateAll(addresses.parallelStream()).collect(Collectors.toList()))
+          .isEqualTo(sequential(addresses));
+    }
+
+    @Test
+    void usesTheGivenPool() {
+      Set<String> threads = ConcurrentHashMap.newKeySet();
+      EmailValidator recording = JMail.validator()
+          .withRule(email -> threads.add(Thread.currentThread().getName()) || true);
+      ForkJoinPool pool = new ForkJoinPool(2, p -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+        thread.setName("bulk-" + thread.getPoolIndex());
+        return thread;
+      }, null, false);
+
+      try {
+        assertThat(recording.validateAll(addresses(10_000), pool)).hasSize(10_000);
+      } finally {
+        pool.shutdown();
+      }
+
+      assertThat(threads).isNotEmpty().allMatch(name -> name.startsWith("bulk-"));
+    }
+
+    @Test
+    void readsStreamsLazilyAndClosesThem() {
+      AtomicInteger read = new AtomicInteger();
+      AtomicBoolean closed = new AtomicBoolean();
+      Stream<String> addresses = Stream
+          .generate(() -> "test" + read.incrementAndGet() + "@test.com")
+          .onClose(() -> closed.set(true));
+
+      try (Stream<EmailValidationResult> results = validator.validateAll(addresses)) {
+        assertThat(results.limit(5)).allMatch(EmailValidationResult::isSuccess);
+      }
+
+      // Only the first batch of the infinite stream was read
+      assertThat(read.get()).isEqualTo(BulkValidation.BATCH_SIZE);
+      assertThat(closed).isTrue();
+    }
+
+    @Test
+    void returnsUnmodifiableList() {
+      List<EmailValidationResult> results = validator.validateAll(addresses(3));
+
+      assertThatExceptionOfType(UnsupportedOperationException.class)
+          .isThrownBy(() -> results.set(0, null));
+    }
+  }
+
   @Nested
   class AllowNonstandardDots {
     @ParameterizedTest(name = "{0}")
@@ -391,6 +722,48 @@ class EmailValidatorTest {
     }
   }
 
+  @Nested
+  class MaxCommentDepth {
+    private final EmailValidator validator = JMail.validator().maxCommentDepth(2);
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {
+        "test(a(b(c)))@example.com", "test@(a(b(c)))example.com",
+        "John <test(a(b(c)))@example.com>", "(a)test.(b(c(d)))x@example.com"})
+    void rejectsDeeplyNestedComments(String email) {
+      runInvalidTest(validator, email, FailureReason.INVALID_COMMENT);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {
+        "test(a(b))@example.com", "test@(a(b))example.com", "(a)test.(b(c))x@example.com",
+        "test(a\\(\\(\\()@example.com", "\"(((\"@example.com"})
+    void allowsCommentsUpToTheDepth(String email) {
+      runValidTest(validator, email);
+    }
+
+    @Test
+    void allowsAnyDepthByDefault() {
+      String email = "test" + "(".repeat(100) + ")".repeat(100) + "@example.com";
+
+      runValidTest(JMail.validator(), email);
+      runInvalidTest(JMail.validator().maxCommentDepth(99), email, FailureReason.INVALID_COMMENT);
+      runValidTest(JMail.validator().maxCommentDepth(100), email);
+    }
+
+    @Test
+    void keepsDepthWithOtherOptions() {
+      runInvalidTest(validator.allowNonstandardDots().orderRulesByCost().disallowIpDomain(),
+          ".test(a(b(c)))@example.com", FailureReason.INVALID_COMMENT);
+    }
+
+    @Test
+    void rejectsDepthBelowOne() {
+      assertThatExceptionOfType(IllegalArgumentException.class)
+          .isThrownBy(() -> JMail.validator().maxCommentDepth(0));
+    }
+  }
+
   @Nested
   class DisallowIpDomainAllowNonstandardDotsCombination {
     @ParameterizedTest(name = "{0}")
@@ -21,6 +21,10 @@ class FailureReasonTest {
         Arguments.of("test@", FailureReason.DOMAIN_MISSING),
         Arguments.of("test@test-.com", FailureReason.DOMAIN_PART_ENDS_WITH_DASH),
         Arguments.of("email@example.com-", FailureReason.DOMAIN_PART_ENDS_WITH_DASH),
+        Arguments.of("a@silly.tes-(comment)", FailureReason.DOMAIN_PART_ENDS_WITH_DASH),
+        Arguments.of("a@silly.tes- ", FailureReason.DOMAIN_PART_ENDS_WITH_DASH),
+        Arguments.of("user@foo- ", FailureReason.DOMAIN_PART_ENDS_WITH_DASH),
+        Arguments.of("user@foo-\r", FailureReason.DOMAIN_PART_ENDS_WITH_DASH),
         Arguments.of("test@my.-test.com", FailureReason.DOMAIN_PART_STARTS_WITH_DASH),
         Arguments.of(
             "first.last@x234567890123456789012345678901234567890123456789012345678901234.test.org",
@@ -1,5 +1,7 @@
 package com.sanctionco.jmail;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -155,6 +157,23 @@ class JMailTest {
         .returns(false, Email::containsWhitespace);
   }
 
+  @Test
+  void addressWithSourceRoutingInIdentifierValidates() {
+    String email = "John Smith <@1st.relay,@bücher.de:user@final.domain>";
+
+    assertThat(JMail.tryParse(email))
+        .isPresent().get()
+        .hasToString(email)
+        .returns("user", Email::localPart)
+        .returns("John Smith ", Email::identifier)
+        .returns(Arrays.asList("1st.relay", "bücher.de"), Email::explicitSourceRoutes);
+
+    assertThat(JMail.tryParse("John Smith <user@final.domain>"))
+        .isPresent().get()
+        .hasToString("John Smith <user@final.domain>")
+        .returns(Collections.emptyList(), Email::explicitSourceRoutes);
+  }
+
   @ParameterizedTest(name = "{0}")
   @ValueSource(strings = {
       "@-1st.relay,@2nd.relay:user@final.domain",
@@ -213,6 +232,19 @@ class JMailTest {
     assertThat(JMail.isInvalid("test@test.com")).isFalse();
   }
 
+  @ParameterizedTest(name = "{0}")
+  @ValueSource(strings = {"a@silly.tes-(comment)", "a@silly.tes- ", "a@silly.tes- (comment)"})
+  void rejectsTopLevelDomainEndingWithDashBeforeCommentOrWhitespace(String email) {
+    byte[] utf8 = email.getBytes(StandardCharsets.UTF_8);
+
+    assertThat(JMail.isValid(email)).isFalse();
+    assertThat(JMail.isValid(utf8, 0, utf8.length)).isFalse();
+    assertThat(JMail.tryParse(email)).isEmpty();
+    assertThat(JMail.strictValidator().isValid(email)).isFalse();
+    assertThat(JMail.validator().requireOnlyTopLevelDomains(TopLevelDomain.DOT_COM).isValid(email))
+        .isFalse();
+  }
+
   @Nested
   class AllowNonstandardDots {
     @ParameterizedTest(name = "{0}")
@@ -244,4 +276,107 @@ class JMailTest {
           .isPresent().get().hasToString(address);
     }
   }
+
+  @Nested
+  class Utf8Bytes {
+    @ParameterizedTest(name = "{0}")
+    @MethodSource({
+        "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideValidEmails",
+        "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideValidWhitespaceEmails",
+        "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideInvalidEmails",
+        "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideInvalidWhitespaceEmails",
+        "com.sanctionco.jmail.helpers.AdditionalEmailProvider#provideInvalidControlEmails"})
+    @CsvFileSource(resources = "/valid-addresses.csv", numLinesToSkip = 1)
+    void agreesWithString(String email) {
+      assertAgreesWithString(email.getBytes(StandardCharsets.UTF_8), email);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvFileSource(resources = "/invalid-addresses.csv", delimiterString = " ;", numLinesToSkip = 1)
+    void agreesWithStringOnInvalidAddresses(String email) {
+      assertAgreesWithString(email.getBytes(StandardCharsets.UTF_8), email);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("com.sanctionco.jmail.FailureReasonTest#provideTestEmails")
+    void returnsSameFailureReasons(String email, FailureReason failureReason) {
+      byte[] utf8 = email == null ? null : email.getBytes(StandardCharsets.UTF_8);
+      int length = email == null ? 0 : utf8.length;
+
+      assertThat(JMail.validate(utf8, 0, length).getFailureReason())
+          .isEqualTo(failureReason);
+      assertThat(JMail.validate(utf8 == null ? null : ByteBuffer.wrap(utf8)).getFailureReason())
+          .isEqualTo(failureReason);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {
+        "jørn@bücher.de", "山田@例え.jp", "Pelé@example.com", "test@jørn.c_m",
+        "te•st@example.com", "\"😀\"@example.com", "😀@example.com", "test@😀.com"})
+    void handlesMultiByteCodePoints(String email) {
+      assertAgreesWithString(email.getBytes(StandardCharsets.UTF_8), email);
+    }
+
+    @Test
+    void decodesMalformedBytesLikeString() {
+      byte[][] malformed = {
+          {'a', (byte) 0xC3, '@', 'b', '.', 'c', 'o', 'm'},
+          {'a', '@', 'b', (byte) 0xE6, (byte) 0x97, '.', 'c', 'o', 'm'},
+          {'a', (byte) 0xF0, (byte) 0x9F, (byte) 0x98, '@', 'b', '.', 'c', 'o', 'm'},
+          {(byte) 0xFF, '@', 'b', '.', 'c', 'o', 'm'},
+          {'a', (byte) 0xC0, (byte) 0x80, '@', 'b', '.', 'c', 'o', 'm'}
+      };
+
+      for (byte[] utf8 : malformed) {
+        assertAgreesWithString(utf8, new String(utf8, StandardCharsets.UTF_8));
+      }
+    }
+
+    @Test
+    void rejectsNull() {
+      assertThat(JMail.isValid(null, 0, 0)).isFalse();
+      assertThat(JMail.isValid((ByteBuffer) null)).isFalse();
+      assertThat(JMail.validate(null, 0, 0).getFailureReason())
+          .isEqualTo(FailureReason.NULL_ADDRESS);
+      assertThat(JMail.validate((ByteBuffer) null).getFailureReason())
+          .isEqualTo(FailureReason.NULL_ADDRESS);
+    }
+
+    @Test
+    void rejectsRangesOutsideOfArray() {
+      byte[] utf8 = "test@example.com".getBytes(StandardCharsets.UTF_8);
+
+      assertThatExceptionOfType(IndexOutOfBoundsException.class)
+          .isThrownBy(() -> JMail.isValid(utf8, -1, 4));
+      assertThatExceptionOfType(IndexOutOfBoundsException.class)
+          .isThrownBy(() -> JMail.isValid(utf8, 0, -1));
+      assertThatExceptionOfType(IndexOutOfBoundsException.class)
+          .isThrownBy(() -> JMail.validate(utf8, 10, utf8.length));
+    }
+
+    private void assertAgreesWithString(byte[] utf8, String email) {
+      EmailValidationResult expected = JMail.validate(email);
+
+      // Surround the address with other bytes, to check that only the range is read
+      byte[] padded = new byte[utf8.length + 6];
+      Arrays.fill(padded, (byte) '@');
+      System.arraycopy(utf8, 0, padded, 3, utf8.length);
+
+      assertThat(JMail.validate(utf8, 0, utf8.length)).isEqualTo(expected);
+      assertThat(JMail.validate(padded, 3, utf8.length)).isEqualTo(expected);
+      assertThat(JMail.isValid(padded, 3, utf8.length)).isEqualTo(expected.isSuccess());
+
+      ByteBuffer heap = ByteBuffer.wrap(padded, 3, utf8.length).slice();
+      ByteBuffer direct = ByteBuffer.allocateDirect(padded.length).put(padded);
+      direct.position(3).limit(3 + utf8.length);
+
+      for (ByteBuffer buffer : Arrays.asList(heap, direct)) {
+        int position = buffer.position();
+
+        assertThat(JMail.validate(buffer)).isEqualTo(expected);
+        assertThat(JMail.isValid(buffer)).isEqualTo(expected.isSuccess());
+        assertThat(buffer.position()).isEqualTo(position);
+      }
+    }
+  }
 }
@@ -1,5 +1,12 @@
 package com.sanctionco.jmail;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -10,6 +17,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import static com.sanctionco.jmail.helpers.Latches.await;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatNoException;
@@ -93,6 +101,80 @@ class TopLevelDomainTest {
 
   @Test
   void ensureEqualsContract() {
-    EqualsVerifier.forClass(TopLevelDomain.class).verify();
+    EqualsVerifier.forClass(TopLevelDomain.class)
+        .withCachedHashCode("hash", "calculateHashCode", TopLevelDomain.DOT_COM)
+        .verify();
+  }
+
+  @Test
+  void internsConstants() {
+    assertThat(TopLevelDomain.fromString("com")).isSameAs(TopLevelDomain.DOT_COM);
+    assertThat(TopLevelDomain.fromString(".org")).isSameAs(TopLevelDomain.DOT_ORG);
+  }
+
+  @Test
+  void internsTopLevelDomainsUpToTheBound() {
+    // Use a new table so that the table shared by fromString(String) is never filled
+    TopLevelDomain.InternTable table = new TopLevelDomain.InternTable(16);
+
+    assertThat(TopLevelDomain.fromString("com", table)).isSameAs(TopLevelDomain.DOT_COM);
+    assertThat(TopLevelDomain.fromString(".org", table)).isSameAs(TopLevelDomain.DOT_ORG);
+    assertThat(TopLevelDomain.fromString("interned", table))
+        .isSameAs(TopLevelDomain.fromString("interned", table))
+        .isSameAs(TopLevelDomain.fromString(".interned", table));
+
+    // A top level domain with different case is equal, but is a different instance
+    assertThat(TopLevelDomain.fromString("COM", table))
+        .isEqualTo(TopLevelDomain.DOT_COM)
+        .hasSameHashCodeAs(TopLevelDomain.DOT_COM)
+        .returns("COM", TopLevelDomain::stringValue)
+        .isSameAs(TopLevelDomain.fromString("COM", table));
+
+    for (int i = 0; i < 16; i++) {
+      TopLevelDomain.fromString("bounded" + i, table);
+    }
+
+    // Every top level domain is still valid and equal once the table is full
+    TopLevelDomain first = TopLevelDomain.fromString("overflow", table);
+    TopLevelDomain second = TopLevelDomain.fromString("overflow", table);
+
+    assertThat(first).isEqualTo(second).isNotSameAs(second);
+    assertThat(TopLevelDomain.fromString("com", table)).isSameAs(TopLevelDomain.DOT_COM);
+    assertThat(TopLevelDomain.fromString("interned", table))
+        .isSameAs(TopLevelDomain.fromString("interned", table));
+    assertThatExceptionOfType(InvalidTopLevelDomainException.class)
+        .isThrownBy(() -> TopLevelDomain.fromString("-overflow", table));
+  }
+
+  @Test
+  void neverInternsMoreThanTheBoundConcurrently() throws Exception {
+    int threads = 8;
+    TopLevelDomain.InternTable table = new TopLevelDomain.InternTable(64);
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        results.add(executor.submit(() -> {
+          await(start);
+
+          // Every thread misses on the same strings at the same time
+          for (int i = 0; i < 256; i++) {
+            TopLevelDomain.fromString("concurrent" + i, table);
+          }
+        }));
+      }
+
+      start.countDown();
+
+      for (Future<?> result : results) {
+        result.get(5, TimeUnit.SECONDS);
+      }
+
+      assertThat(table.size()).isLessThanOrEqualTo(64);
+    } finally {
+      executor.shutdownNow();
+    }
   }
 }
@@ -0,0 +1,301 @@
+package com.sanctionco.jmail.disposable;
+
+import com.sanctionco.jmail.RuleCost;
+import com.sanctionco.jmail.helpers.TestClock;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class CachingSourceTest {
+  private static final String API_KEY = "key";
+
+  private final TestClock clock = new TestClock();
+  private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  private StubHttpServer server;
+  private volatile long responseDelayMillis;
+
+  @BeforeAll
+  void startServer() throws IOException {
+    server = new StubHttpServer(this::respond);
+  }
+
+  @AfterAll
+  void stopServer() throws IOException {
+    server.close();
+  }
+
+  @BeforeEach
+  void reset() {
+    requests.clear();
+    maxInFlight.set(0);
+    responseDelayMillis = 0;
+  }
+
+  @Test
+  void makesOneRequestPerDomain() {
+    CachingSource source = CachingSource.builder(apiSource()).clock(clock).build();
+
+    assertThat(source.isDisposableDomain("mailinator.com")).isTrue();
+    assertThat(source.isDisposableDomain("MAILINATOR.com")).isTrue();
+    assertThat(source.isDisposableDomain("mailinator.com")).isTrue();
+    assertThat(source.isDisposableDomain("gmail.com")).isFalse();
+    assertThat(source.isDisposableDomain("gmail.com")).isFalse();
+
+    assertThat(requestCount("mailinator.com")).isEqualTo(1);
+    assertThat(requestCount("gmail.com")).isEqualTo(1);
+    assertThat(source.missCount()).isEqualTo(2);
+    assertThat(source.hitCount()).isEqualTo(3);
+    assertThat(source.errorCount()).isZero();
+    assertThat(source.size()).isEqualTo(2);
+  }
+
+  @Test
+  void requestsAgainAfterTtl() {
+    CachingSource source = CachingSource.builder(apiSource())
+        .ttl(Duration.ofMinutes(10))
+        .clock(clock)
+        .build();
+
+    source.isDisposableDomain("mailinator.com");
+    clock.advance(Duration.ofMinutes(9));
+    source.isDisposableDomain("mailinator.com");
+
+    assertThat(requestCount("mailinator.com")).isEqualTo(1);
+
+    clock.advance(Duration.ofMinutes(1));
+    assertThat(source.isDisposableDomain("mailinator.com")).isTrue();
+
+    assertThat(requestCount("mailinator.com")).isEqualTo(2);
+  }
+
+  @Test
+  void cachesFailedRequestsForErrorTtl() {
+    CachingSource source = CachingSource.builder(apiSource())
+        .errorTtl(Duration.ofSeconds(30))
+        .clock(clock)
+        .build();
+
+    assertThat(source.isDisposableDomain("server-error.com")).isFalse();
+    assertThat(source.isDisposableDomain("server-error.com")).isFalse();
+    assertThat(source.isDisposableDomain("bad-response.com")).isFalse();
+    assertThat(source.isDisposableDomain("bad-response.com")).isFalse();
+
+    assertThat(requestCount("server-error.com")).isEqualTo(1);
+    assertThat(requestCount("bad-response.com")).isEqualTo(1);
+    assertThat(source.errorCount()).isEqualTo(2);
+
+    clock.advance(Duration.ofSeconds(30));
+    source.isDisposableDomain("server-error.com");
+
+    assertThat(requestCount("server-error.com")).isEqualTo(2);
+    assertThat(source.errorCount()).isEqualTo(3);
+  }
+
+  @ParameterizedTest
+  @MethodSource("foreverTtls")
+  void cachesForeverWithVeryLongTtls(Duration ttl) {
+    CachingSource source = CachingSource.builder(apiSource())
+        .ttl(ttl)
+        .errorTtl(ttl)
+        .clock(clock)
+        .build();
+
+    source.isDisposableDomain("mailinator.com");
+    source.isDisposableDomain("server-error.com");
+    clock.advance(Duration.ofDays(365 * 100));
+
+    assertThat(source.isDisposableDomain("mailinator.com")).isTrue();
+    assertThat(source.isDisposableDomain("server-error.com")).isFalse();
+    assertThat(requestCount("mailinator.com")).isEqualTo(1);
+    assertThat(requestCount("server-error.com")).isEqualTo(1);
+  }
+
+  static Stream<Duration> foreverTtls() {
+    return Stream.of(Duration.ofMillis(Long.MAX_VALUE), ChronoUnit.FOREVER.getDuration());
+  }
+
+  @Test
+  void doesNotCacheFailuresWithZeroErrorTtl() {
+    CachingSource source = CachingSource.builder(apiSource())
+        .errorTtl(Duration.ZERO)
+        .clock(clock)
+        .build();
+
+    source.isDisposableDomain("server-error.com");
+    source.isDisposableDomain("server-error.com");
+
+    assertThat(requestCount("server-error.com")).isEqualTo(2);
+  }
+
+  @Test
+  void sharesRequestForConcurrentLookupsOfSameDomain() throws Exception {
+    CachingSource source = CachingSource.builder(apiSource()).clock(clock).build();
+    responseDelayMillis = 200;
+
+    List<Boolean> results = runConcurrently(16, i -> source.isDisposableDomain("mailinator.com"));
+
+    assertThat(results).hasSize(16).containsOnly(true);
+    assertThat(requestCount("mailinator.com")).isEqualTo(1);
+    assertThat(source.missCount()).isEqualTo(1);
+    assertThat(source.coalescedCount() + source.hitCount()).isEqualTo(15);
+  }
+
+  @Test
+  void limitsRequestsInFlight() throws Exception {
+    CachingSource source = CachingSource.builder(apiSource())
+        .maxInFlight(2)
+        .clock(clock)
+        .build();
+    responseDelayMillis = 50;
+
+    List<Boolean> results = runConcurrently(8,
+        i -> source.isDisposableDomain("domain" + i + ".com"));
+
+    assertThat(results).hasSize(8).containsOnly(false);
+    assertThat(requests).hasSize(8);
+    assertThat(maxInFlight.get()).isBetween(1, 2);
+  }
+
+  @Test
+  void evictsDomainsBeyondMaximumSize() {
+    CachingSource source = CachingSource.builder(apiSource())
+        .maximumSize(2)
+        .clock(clock)
+        .build();
+
+    source.isDisposableDomain("a.com");
+    source.isDisposableDomain("b.com");
+    source.isDisposableDomain("c.com");
+
+    assertThat(source.size()).isEqualTo(2);
+    assertThat(source.evictionCount()).isEqualTo(1);
+  }
+
+  @Test
+  void cachesAnySource() {
+    AtomicInteger calls = new AtomicInteger();
+    DisposableDomainSource throwing = new DisposableDomainSource() {
+      @Override
+      public boolean isDisposableDomain(String domain) {
+        calls.incrementAndGet();
+
+        if (domain.equals("broken.com")) throw new IllegalStateException("unavailable");
+        return domain.equals("mailinator.com");
+      }
+
+      @Override
+      public RuleCost lookupCost() {
+        return RuleCost.IN_MEMORY;
+      }
+    };
+
+    CachingSource source = CachingSource.builder(throwing).clock(clock).build();
+
+    assertThat(source.isDisposableDomain("mailinator.com")).isTrue();
+    assertThat(source.isDisposableDomain("mailinator.com")).isTrue();
+    assertThat(source.isDisposableDomain("broken.com")).isFalse();
+    assertThat(source.isDisposableDomain("broken.com")).isFalse();
+
+    assertThat(calls).hasValue(2);
+    assertThat(source.errorCount()).isEqualTo(1);
+    assertThat(source.lookupCost()).isEqualTo(RuleCost.IN_MEMORY);
+  }
+
+  @Test
+  void rejectsInvalidConfiguration() {
+    CachingSourceBuilder builder = CachingSource.builder(apiSource());
+
+    assertThatIllegalArgumentException().isThrownBy(() -> builder.maximumSize(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> builder.maxInFlight(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> builder.ttl(Duration.ofSeconds(-1)));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> builder.errorTtl(Duration.ofSeconds(-1)));
+  }
+
+  private IsTempMailAPISource apiSource() {
+    return new IsTempMailAPISource(HttpTransport.builder().build(), API_KEY,
+        server.url() + "/api/check/");
+  }
+
+  private int requestCount(String domain) {
+    AtomicInteger count = requests.get(domain);
+    return count == null ? 0 : count.get();
+  }
+
+  private <T> List<T> runConcurrently(int threads, IntFunction<T> task) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+
+    try {
+      List<Future<T>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        int index = i;
+        futures.add(executor.submit(() -> {
+          start.await();
+          return task.apply(index);
+        }));
+      }
+
+      start.countDown();
+
+      List<T> results = new ArrayList<>();
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private StubHttpServer.Response respond(String path) throws InterruptedException {
+    String domain = path.substring(path.lastIndexOf('/') + 1);
+    requests.computeIfAbsent(domain, d -> new AtomicInteger()).incrementAndGet();
+
+    int current = inFlight.incrementAndGet();
+    maxInFlight.accumulateAndGet(current, Math::max);
+
+    try {
+      Thread.sleep(responseDelayMillis);
+
+      if (!path.startsWith("/api/check/" + API_KEY + "/")) {
+        return new StubHttpServer.Response(401, "{\"error\":\"invalid_key\"}");
+      } else if (domain.equals("server-error.com")) {
+        return new StubHttpServer.Response(500, "");
+      } else if (domain.equals("bad-response.com")) {
+        return new StubHttpServer.Response(200, "{\"error\":\"quota_exceeded\"}");
+      }
+
+      return new StubHttpServer.Response(200, "{\"name\":\"" + domain + "\",\"blocked\":"
+          + domain.equals("mailinator.com") + "}");
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+}
@@ -43,6 +43,17 @@ class FileSourceTest {
     );
   }
 
+  @Test
+  void shouldMatchSubdomainsWhenEnabled() throws IOException {
+    DisposableDomainSource source = DisposableDomainSource.file(PATH, DomainMatching.SUBDOMAINS);
+
+    assertAll(
+        () -> assertTrue(source.isDisposableDomain("emailnow.net")),
+        () -> assertTrue(source.isDisposableDomain("inbox.emailnow.net")),
+        () -> assertFalse(source.isDisposableDomain("gmail.com"))
+    );
+  }
+
   @Test
   void shouldNotBlockMissingDomains() throws IOException {
     DisposableDomainSource source = DisposableDomainSource.file(PATH);
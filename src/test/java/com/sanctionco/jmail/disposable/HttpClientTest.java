@@ -1,25 +1,156 @@
 package com.sanctionco.jmail.disposable;
 
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class HttpClientTest {
+  private StubHttpServer server;
+
+  @BeforeAll
+  void startServer() throws IOException {
+    server = new StubHttpServer(path -> {
+      switch (path) {
+        case "/ok":
+          return new StubHttpServer.Response(200, "{\"status\":\"ok\"}");
+        case "/slow":
+          Thread.sleep(1000);
+          return new StubHttpServer.Response(200, "{\"status\":\"slow\"}");
+        case "/empty-error":
+          return new StubHttpServer.Response(503, "");
+        default:
+          return new StubHttpServer.Response(500, "{\"status\":\"error\"}");
+      }
+    });
+  }
+
+  @AfterAll
+  void stopServer() throws IOException {
+    server.close();
+  }
 
   @Test
   void canMakeGetRequest() {
-    HttpClient client = new HttpClient();
+    HttpTransport client = HttpTransport.builder().build();
 
-    String response = client.get("https://dummyjson.com/test");
-    assertEquals("{\"status\":\"ok\",\"method\":\"GET\"}", response);
+    HttpResult response = client.get("https://dummyjson.com/test");
+    assertEquals("{\"status\":\"ok\",\"method\":\"GET\"}", response.body());
   }
 
   @Test
-  void returnsEmptyStringOnFailure() {
-    HttpClient client = new HttpClient();
+  void returnsFailureForInvalidUrl() {
+    HttpTransport client = HttpTransport.builder().build();
 
     // Use a bad URL in the request
-    String response = client.get("htps://dummyjson.com/test");
-    assertEquals("", response);
+    HttpResult response = client.get("htps://dummyjson.com/test");
+
+    assertAll(
+        () -> assertTrue(response.failure().isPresent()),
+        () -> assertFalse(response.isSuccessful()),
+        () -> assertEquals(-1, response.statusCode()),
+        () -> assertEquals("", response.body()));
+  }
+
+  @Test
+  void returnsSuccessfulResponse() {
+    HttpResult response = HttpTransport.builder().build().get(server.url() + "/ok");
+
+    assertAll(
+        () -> assertTrue(response.isSuccessful()),
+        () -> assertEquals(200, response.statusCode()),
+        () -> assertEquals("{\"status\":\"ok\"}", response.body()),
+        () -> assertFalse(response.failure().isPresent()));
+  }
+
+  @Test
+  void returnsErrorResponseWithBody() {
+    HttpTransport client = HttpTransport.builder().build();
+
+    HttpResult error = client.get(server.url() + "/error");
+    HttpResult emptyError = client.get(server.url() + "/empty-error");
+
+    assertAll(
+        () -> assertFalse(error.isSuccessful()),
+        () -> assertEquals(500, error.statusCode()),
+        () -> assertEquals("{\"status\":\"error\"}", error.body()),
+        () -> assertFalse(error.failure().isPresent()),
+        () -> assertEquals(503, emptyError.statusCode()),
+        () -> assertEquals("", emptyError.body()));
+  }
+
+  @Test
+  void returnsFailureOnReadTimeout() {
+    HttpTransport client = HttpTransport.builder().readTimeout(Duration.ofMillis(100)).build();
+
+    HttpResult response = client.get(server.url() + "/slow");
+
+    assertInstanceOf(SocketTimeoutException.class, response.failure().orElse(null));
+  }
+
+  @Test
+  void reusesConnections() {
+    HttpTransport client = HttpTransport.builder().build();
+
+    // Warm up the connection, then every request (including errors) should reuse it
+    client.get(server.url() + "/ok");
+    int connections = server.connectionCount();
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals(200, client.get(server.url() + "/ok").statusCode());
+      assertEquals(500, client.get(server.url() + "/error").statusCode());
+    }
+
+    assertEquals(connections, server.connectionCount());
+  }
+
+  @Test
+  void makesAsyncRequestsOnExecutor() {
+    AtomicInteger executions = new AtomicInteger();
+    Executor executor = runnable -> {
+      executions.incrementAndGet();
+      new Thread(runnable).start();
+    };
+
+    HttpTransport client = HttpTransport.builder().executor(executor).build();
+
+    List<CompletableFuture<HttpResult>> futures = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      futures.add(client.getAsync(server.url() + "/ok"));
+    }
+
+    for (CompletableFuture<HttpResult> future : futures) {
+      assertEquals("{\"status\":\"ok\"}", future.join().body());
+    }
+
+    assertEquals(4, executions.get());
+  }
+
+  @Test
+  void rejectsInvalidTimeouts() {
+    HttpTransportBuilder builder = HttpTransport.builder();
+
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> builder.connectTimeout(Duration.ZERO)),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> builder.readTimeout(Duration.ofSeconds(-1))),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> builder.readTimeout(Duration.ofDays(30))));
   }
 }
@@ -0,0 +1,311 @@
+package com.sanctionco.jmail.disposable;
+
+import com.sanctionco.jmail.RuleCost;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class IndexSourceTest {
+  private static final Path PATH = Paths.get("src/test/resources/disposable_email_blocklist.conf");
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void containsEveryDomainFromList() throws IOException {
+    IndexSource index = buildFromList();
+    List<String> domains = Files.readAllLines(PATH);
+
+    assertThat(index.size()).isEqualTo(domains.size());
+
+    for (String domain : domains) {
+      assertThat(index.isDisposableDomain(domain)).isTrue();
+      assertThat(index.isDisposableDomain(domain.toUpperCase(Locale.ROOT))).isTrue();
+    }
+  }
+
+  @Test
+  void agreesWithInputStreamSource() throws IOException {
+    IndexSource index = buildFromList();
+    DisposableDomainSource file = DisposableDomainSource.file(PATH.toString());
+
+    for (String domain : Arrays.asList(
+        "gmail.com", "hotmail.com", "yahoo.com", "utexas.edu", "10-minute-mail.co",
+        "0-mail.com.", "-mail.com", "", "a", "zzzzzzzzz.zzz", "00", "emailnow.net.au")) {
+      assertThat(index.isDisposableDomain(domain))
+          .as(domain)
+          .isEqualTo(file.isDisposableDomain(domain));
+    }
+  }
+
+  @Test
+  void writesAndLoadsIndexFile() throws IOException {
+    Path indexFile = tempDir.resolve("disposable.idx");
+
+    try (InputStream in = Files.newInputStream(PATH)) {
+      IndexSource.builder().addAll(in).writeTo(indexFile);
+    }
+
+    IndexSource index = DisposableDomainSource.index(indexFile);
+
+    assertThat(index.size()).isEqualTo(buildFromList().size());
+    assertThat(index.isDisposableDomain("disposableinbox.com")).isTrue();
+    assertThat(index.isDisposableDomain("10-MINUTE-MAIL.com")).isTrue();
+    assertThat(index.isDisposableDomain("gmail.com")).isFalse();
+
+    // The temporary file used to write the index is moved over the index file
+    try (Stream<Path> files = Files.list(tempDir)) {
+      assertThat(files).noneMatch(file -> file.toString().endsWith(".tmp"));
+    }
+  }
+
+  @Test
+  void mapsIndexFile() throws IOException {
+    Path indexFile = tempDir.resolve("mapped.idx");
+
+    try (InputStream in = Files.newInputStream(PATH)) {
+      IndexSource.builder().addAll(in).writeTo(indexFile);
+    }
+
+    IndexSource mapped = DisposableDomainSource.mappedIndex(indexFile);
+
+    assertThat(mapped.isMemoryMapped()).isTrue();
+    assertThat(DisposableDomainSource.index(indexFile).isMemoryMapped()).isFalse();
+    assertThat(mapped.size()).isEqualTo(Files.readAllLines(PATH).size());
+
+    for (String domain : Files.readAllLines(PATH)) {
+      assertThat(mapped.isDisposableDomain(domain)).isTrue();
+      assertThat(mapped.isDisposableDomain(domain.toUpperCase(Locale.ROOT))).isTrue();
+    }
+
+    assertThat(mapped.isDisposableDomain("gmail.com")).isFalse();
+    assertThat(mapped.isDisposableDomain("")).isFalse();
+  }
+
+  @Test
+  void mappedIndexKeepsFileThatWasReplaced() throws IOException {
+    Path indexFile = tempDir.resolve("replaced.idx");
+    IndexSource.builder().add("old.com").writeTo(indexFile);
+
+    IndexSource before = DisposableDomainSource.mappedIndex(indexFile);
+    IndexSource.builder().add("new.com").add("newer.com").writeTo(indexFile);
+    IndexSource after = DisposableDomainSource.mappedIndex(indexFile);
+
+    assertThat(before.size()).isEqualTo(1);
+    assertThat(before.isDisposableDomain("old.com")).isTrue();
+    assertThat(before.isDisposableDomain("new.com")).isFalse();
+
+    assertThat(after.size()).isEqualTo(2);
+    assertThat(after.isDisposableDomain("old.com")).isFalse();
+    assertThat(after.isDisposableDomain("new.com")).isTrue();
+  }
+
+  @Test
+  void mappedIndexRejectsInvalidFiles() throws IOException {
+    byte[] bytes = indexBytes("example.com");
+    bytes[bytes.length - 6] ^= 1;
+
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> DisposableDomainSource.mappedIndex(write(bytes)))
+        .withMessage("The disposable domain index checksum does not match");
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> DisposableDomainSource.mappedIndex(PATH))
+        .withMessage("The file is not a disposable domain index");
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> DisposableDomainSource.mappedIndex(write(new byte[0])))
+        .withMessage("The disposable domain index is empty");
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> DisposableDomainSource.mappedIndex(tempDir.resolve("missing.idx")));
+  }
+
+  @Test
+  void writesSameBytesToStreamAndFile() throws IOException {
+    Path indexFile = tempDir.resolve("disposable.idx");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    IndexSourceBuilder builder = IndexSource.builder().add("b.com").add("a.com");
+    builder.writeTo(indexFile);
+    builder.writeTo(out);
+
+    assertThat(Files.readAllBytes(indexFile)).isEqualTo(out.toByteArray());
+  }
+
+  @Test
+  void ignoresCaseWhitespaceAndDuplicates() {
+    IndexSource index = IndexSource.builder()
+        .add("  Example.COM ")
+        .add("example.com")
+        .add("")
+        .add("   ")
+        .addAll(Arrays.asList("other.net", "OTHER.NET"))
+        .build();
+
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.isDisposableDomain("example.com")).isTrue();
+    assertThat(index.isDisposableDomain("EXAMPLE.com")).isTrue();
+    assertThat(index.isDisposableDomain("other.net")).isTrue();
+    assertThat(index.isDisposableDomain("example.co")).isFalse();
+    assertThat(index.isDisposableDomain("example.comm")).isFalse();
+  }
+
+  @Test
+  void findsNonAsciiDomains() {
+    IndexSource index = IndexSource.builder()
+        .add("bücher.de")
+        .add("ÉCOLE.fr")
+        .add("zz.com")
+        .add("aa.com")
+        .build();
+
+    assertThat(index.isDisposableDomain("bücher.de")).isTrue();
+    assertThat(index.isDisposableDomain("BÜCHER.DE")).isTrue();
+    assertThat(index.isDisposableDomain("école.fr")).isTrue();
+    assertThat(index.isDisposableDomain("bucher.de")).isFalse();
+    assertThat(index.isDisposableDomain("zz.com")).isTrue();
+    assertThat(index.isDisposableDomain("aa.com")).isTrue();
+  }
+
+  @Test
+  void prefilterAgreesWithIndex() throws IOException {
+    Path indexFile = tempDir.resolve("prefiltered.idx");
+    IndexSource.builder().addAll(Files.readAllLines(PATH)).add("bücher.de").writeTo(indexFile);
+
+    IndexSource index = DisposableDomainSource.mappedIndex(indexFile);
+    IndexSource prefiltered = index.withPrefilter(0.01);
+
+    assertThat(index.prefilter()).isEmpty();
+    assertThat(prefiltered.isMemoryMapped()).isTrue();
+    assertThat(prefiltered.size()).isEqualTo(index.size());
+
+    for (String domain : Files.readAllLines(PATH)) {
+      assertThat(prefiltered.isDisposableDomain(domain.toUpperCase(Locale.ROOT))).isTrue();
+    }
+
+    for (String domain : Arrays.asList(
+        "gmail.com", "hotmail.com", "yahoo.com", "utexas.edu", "0-mail.com.", "-mail.com", "",
+        "bücher.de", "BÜCHER.de", "bucher.de")) {
+      assertThat(prefiltered.isDisposableDomain(domain))
+          .as(domain)
+          .isEqualTo(index.isDisposableDomain(domain));
+    }
+
+    DomainBloomFilter filter = prefiltered.prefilter().orElseThrow(AssertionError::new);
+    assertThat(filter.rejectCount()).isPositive();
+    assertThat(filter.expectedFalsePositiveRate()).isLessThanOrEqualTo(0.01);
+  }
+
+  @Test
+  void prefilterOfEmptyIndexRejectsEverything() {
+    IndexSource index = IndexSource.builder().build().withPrefilter(0.5);
+
+    assertThat(index.isDisposableDomain("gmail.com")).isFalse();
+    assertThat(index.prefilter().map(DomainBloomFilter::rejectCount)).contains(1L);
+    assertThat(index.prefilter().map(DomainBloomFilter::expectedFalsePositiveRate)).contains(0.0);
+  }
+
+  @Test
+  void emptyIndexContainsNothing() throws IOException {
+    Path indexFile = tempDir.resolve("empty.idx");
+    IndexSource.builder().writeTo(indexFile);
+
+    IndexSource index = DisposableDomainSource.index(indexFile);
+
+    assertThat(index.size()).isZero();
+    assertThat(index.isDisposableDomain("gmail.com")).isFalse();
+  }
+
+  @Test
+  void isInMemoryLookup() {
+    assertThat(IndexSource.builder().build().lookupCost()).isEqualTo(RuleCost.IN_MEMORY);
+  }
+
+  @Test
+  void rejectsFileThatIsNotAnIndex() {
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> DisposableDomainSource.index(PATH))
+        .withMessage("The file is not a disposable domain index");
+  }
+
+  @Test
+  void rejectsMissingFile() {
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> DisposableDomainSource.index(tempDir.resolve("missing.idx")));
+  }
+
+  @Test
+  void rejectsUnsupportedVersion() throws IOException {
+    byte[] bytes = indexBytes("example.com");
+    ByteBuffer.wrap(bytes).putInt(4, 2);
+
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> DisposableDomainSource.index(write(bytes)))
+        .withMessage("Unsupported disposable domain index version 2, expected version 1");
+  }
+
+  @Test
+  void rejectsTruncatedIndex() throws IOException {
+    byte[] bytes = indexBytes("example.com");
+
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> DisposableDomainSource.index(write(Arrays.copyOf(bytes, 30))))
+        .withMessage("The disposable domain index is truncated or corrupt");
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> DisposableDomainSource.index(write(Arrays.copyOf(bytes, 10))))
+        .withMessage("The disposable domain index is empty");
+  }
+
+  @Test
+  void rejectsCorruptIndex() throws IOException {
+    byte[] bytes = indexBytes("example.com");
+    bytes[bytes.length - 6] ^= 1;
+
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> DisposableDomainSource.index(write(bytes)))
+        .withMessage("The disposable domain index checksum does not match");
+  }
+
+  @Test
+  void writesVersionedHeader() throws IOException {
+    byte[] bytes = indexBytes("b.com", "a.com");
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+    assertThat(new String(bytes, 0, 4, StandardCharsets.US_ASCII)).isEqualTo("JMDI");
+    assertThat(buffer.getInt(4)).isEqualTo(1);
+    assertThat(buffer.getInt(8)).isEqualTo(2);
+    assertThat(buffer.getInt(12)).isEqualTo(10);
+    assertThat(new String(bytes, 28, 10, StandardCharsets.US_ASCII)).isEqualTo("a.comb.com");
+  }
+
+  private IndexSource buildFromList() throws IOException {
+    try (InputStream in = Files.newInputStream(PATH)) {
+      return IndexSource.builder().addAll(in).build();
+    }
+  }
+
+  private static byte[] indexBytes(String... domains) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    IndexSource.builder().addAll(Arrays.asList(domains)).writeTo(out);
+
+    return out.toByteArray();
+  }
+
+  private Path write(byte[] bytes) throws IOException {
+    return Files.write(Files.createTempFile(tempDir, "index", ".idx"), bytes);
+  }
+}
@@ -1,14 +1,20 @@
 package com.sanctionco.jmail.disposable;
 
+import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -117,7 +123,161 @@ class InputStreamSourceTest {
     );
   }
 
+  @Test
+  void shouldMatchSubdomainsWhenEnabled() throws IOException {
+    InputStream inputStream = getResourceAsStream(PATH);
+    DisposableDomainSource source = DisposableDomainSource
+        .inputStream(inputStream, DomainMatching.SUBDOMAINS);
+
+    assertAll(
+        () -> assertTrue(source.isDisposableDomain("disposableinbox.com")),
+        () -> assertTrue(source.isDisposableDomain("foo.disposableinbox.com")),
+        () -> assertTrue(source.isDisposableDomain("a.b.c.DisposableInbox.COM")),
+        () -> assertTrue(source.isDisposableDomain("10-minute-mail.com")),
+        () -> assertFalse(source.isDisposableDomain("notdisposableinbox.com")),
+        () -> assertFalse(source.isDisposableDomain("disposableinbox.com.au")),
+        () -> assertFalse(source.isDisposableDomain("com")),
+        () -> assertFalse(source.isDisposableDomain("gmail.com")),
+        () -> assertFalse(source.isDisposableDomain(""))
+    );
+  }
+
+  @Test
+  void shouldNotMatchSubdomainsByDefault() throws IOException {
+    InputStream inputStream = getResourceAsStream(PATH);
+    DisposableDomainSource source = DisposableDomainSource.inputStream(inputStream);
+
+    assertAll(
+        () -> assertTrue(source.isDisposableDomain("disposableinbox.com")),
+        () -> assertFalse(source.isDisposableDomain("foo.disposableinbox.com"))
+    );
+  }
+
+  @Test
+  void shouldMatchEveryListedDomainWithSubdomainMatching() throws IOException {
+    List<String> domains;
+    try (InputStream inputStream = getResourceAsStream(PATH)) {
+      domains = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))
+          .lines()
+          .collect(Collectors.toList());
+    }
+
+    DisposableDomainSource source = DisposableDomainSource
+        .inputStream(getListAsStream(domains), DomainMatching.SUBDOMAINS);
+
+    for (String domain : domains) {
+      assertTrue(source.isDisposableDomain(domain), domain);
+      assertTrue(source.isDisposableDomain("mail." + domain.toUpperCase(Locale.ROOT)), domain);
+      assertFalse(source.isDisposableDomain(domain + ".example"), domain);
+    }
+  }
+
+  @Test
+  void shouldMatchNestedAndNonAsciiSubdomains() throws IOException {
+    List<String> domains = List.of(
+        "sub.example.com",
+        "Bücher.DE",
+        "co.uk.example",
+        " spaced.org "
+    );
+
+    DisposableDomainSource source = DisposableDomainSource
+        .inputStream(getListAsStream(domains), DomainMatching.SUBDOMAINS);
+
+    assertAll(
+        () -> assertTrue(source.isDisposableDomain("sub.example.com")),
+        () -> assertTrue(source.isDisposableDomain("deep.sub.example.com")),
+        () -> assertFalse(source.isDisposableDomain("example.com")),
+        () -> assertFalse(source.isDisposableDomain("other.example.com")),
+        () -> assertTrue(source.isDisposableDomain("bücher.de")),
+        () -> assertTrue(source.isDisposableDomain("mail.BÜCHER.de")),
+        () -> assertFalse(source.isDisposableDomain("bucher.de")),
+        () -> assertTrue(source.isDisposableDomain("x.co.uk.example")),
+        () -> assertFalse(source.isDisposableDomain("uk.example")),
+        () -> assertTrue(source.isDisposableDomain("spaced.org")),
+        () -> assertFalse(source.isDisposableDomain("a..spaced.org.")),
+        () -> assertFalse(source.isDisposableDomain("."))
+    );
+  }
+
   @SuppressWarnings("SameParameterValue")
+  @Test
+  void prefilterKeepsEveryDomain() throws IOException {
+    InputStreamSource source;
+    try (InputStream inputStream = getResourceAsStream(PATH)) {
+      source = ((InputStreamSource) DisposableDomainSource.inputStream(inputStream))
+          .withPrefilter(0.01);
+    }
+
+    List<String> domains;
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(getResourceAsStream(PATH), StandardCharsets.UTF_8))) {
+      domains = reader.lines().collect(Collectors.toList());
+    }
+
+    for (String domain : domains) {
+      assertTrue(source.isDisposableDomain(domain));
+      assertTrue(source.isDisposableDomain(domain.toUpperCase(Locale.ROOT)));
+    }
+
+    assertTrue(source.prefilter().isPresent());
+    assertEquals(0, source.prefilter().get().rejectCount());
+    assertEquals(0, source.prefilter().get().falsePositiveCount());
+  }
+
+  @Test
+  void prefilterRejectsMostOtherDomains() throws IOException {
+    InputStreamSource source;
+    try (InputStream inputStream = getResourceAsStream(PATH)) {
+      source = ((InputStreamSource) DisposableDomainSource.inputStream(inputStream))
+          .withPrefilter(0.01);
+    }
+
+    DomainBloomFilter filter = source.prefilter().orElseThrow(AssertionError::new);
+
+    for (int i = 0; i < 100_000; i++) {
+      assertFalse(source.isDisposableDomain("not-disposable-" + i + ".COM"));
+    }
+
+    assertAll(
+        () -> assertEquals(0.01, filter.falsePositiveRate()),
+        () -> assertTrue(filter.expectedFalsePositiveRate() <= 0.01),
+        () -> assertTrue(filter.observedFalsePositiveRate() < 0.02),
+        () -> assertEquals(100_000, filter.rejectCount() + filter.falsePositiveCount()),
+        () -> assertTrue(filter.hashCount() > 1)
+    );
+  }
+
+  @Test
+  void prefilterPassesNonAsciiDomains() throws IOException {
+    InputStreamSource source = ((InputStreamSource) DisposableDomainSource.inputStream(
+        getListAsStream(List.of("bücher.de", "example.com")))).withPrefilter(0.001);
+
+    assertAll(
+        () -> assertTrue(source.isDisposableDomain("bücher.de")),
+        () -> assertTrue(source.isDisposableDomain("BÜCHER.DE")),
+        () -> assertTrue(source.isDisposableDomain("Example.com")),
+        () -> assertFalse(source.isDisposableDomain("bücher.com")),
+        () -> assertFalse(source.isDisposableDomain(""))
+    );
+  }
+
+  @Test
+  void prefilterRequiresExactMatchingAndValidRate() throws IOException {
+    InputStreamSource source = (InputStreamSource) DisposableDomainSource.inputStream(
+        getListAsStream(List.of("example.com")));
+    InputStreamSource subdomains = (InputStreamSource) DisposableDomainSource.inputStream(
+        getListAsStream(List.of("example.com")), DomainMatching.SUBDOMAINS);
+
+    assertAll(
+        () -> assertFalse(source.prefilter().isPresent()),
+        () -> assertThrows(IllegalStateException.class, () -> subdomains.withPrefilter(0.01)),
+        () -> assertThrows(IllegalArgumentException.class, () -> source.withPrefilter(0)),
+        () -> assertThrows(IllegalArgumentException.class, () -> source.withPrefilter(1)),
+        () -> assertThrows(IllegalArgumentException.class, () -> source.withPrefilter(Double.NaN))
+    );
+  }
+
   private InputStream getResourceAsStream(String path) {
     InputStream inputStream = getClass().getClassLoader().getResourceAsStream(path);
     if (inputStream == null) {
@@ -127,7 +287,8 @@ class InputStreamSourceTest {
   }
 
   private InputStream getListAsStream(List<String> domains) {
-    return new ByteArrayInputStream(String.join("\n", domains).getBytes());
+    return new ByteArrayInputStream(
+        String.join("\n", domains).getBytes(StandardCharsets.UTF_8));
   }
 
   // Custom InputStream that tracks whether close() was called
@@ -1,11 +1,16 @@
 package com.sanctionco.jmail.disposable;
 
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.contains;
@@ -22,55 +27,57 @@ class IsTempMailAPISourceTest {
 
   @Test
   void identifiesDisposableDomain() {
-    HttpClient client = mock(HttpClient.class);
+    HttpTransport client = mock(HttpTransport.class);
     DisposableDomainSource source = new IsTempMailAPISource(client, "apikey");
 
     when(client.get(anyString()))
-        .thenReturn("{\"name\":\"disposableinbox.com\",\"blocked\": true}");
+        .thenReturn(ok("{\"name\":\"disposableinbox.com\",\"blocked\": true}"));
 
     assertTrue(source.isDisposableDomain("disposableinbox.com"));
 
     when(client.get(anyString()))
-        .thenReturn("{\"name\":\"disposableinbox2.com\",\"blocked\":true,\"unresolvable\":true}");
+        .thenReturn(ok(
+            "{\"name\":\"disposableinbox2.com\",\"blocked\":true,\"unresolvable\":true}"));
 
     assertTrue(source.isDisposableDomain("disposableinbox2.com"));
   }
 
   @Test
   void identifiesValidDomains() {
-    HttpClient client = mock(HttpClient.class);
+    HttpTransport client = mock(HttpTransport.class);
     DisposableDomainSource source = new IsTempMailAPISource(client, "apikey");
 
     when(client.get(anyString()))
-        .thenReturn("{\"name\":\"gmail.com\",\"blocked\":false}");
+        .thenReturn(ok("{\"name\":\"gmail.com\",\"blocked\":false}"));
 
     assertFalse(source.isDisposableDomain("gmail.com"));
 
     when(client.get(anyString()))
-        .thenReturn("{\"name\":\"disposableinbox.com\",\"blocked\":false,\"unresolvable\":true}");
+        .thenReturn(ok(
+            "{\"name\":\"disposableinbox.com\",\"blocked\":false,\"unresolvable\":true}"));
 
     assertFalse(source.isDisposableDomain("gmail.com"));
   }
 
   @Test
   void allowsDomainsWhenApiReturnsMalformedData() {
-    HttpClient client = mock(HttpClient.class);
+    HttpTransport client = mock(HttpTransport.class);
 
     // Missing closing '}'
     when(client.get(contains("malformed1")))
-        .thenReturn("{\"name\":\"malformed1.com\",\"blocked\":false");
+        .thenReturn(ok("{\"name\":\"malformed1.com\",\"blocked\":false"));
 
     // Missing 'blocked' key
     when(client.get(contains("malformed2")))
-        .thenReturn("{\"name\":\"malformed2.com\",\"deny\":true}");
+        .thenReturn(ok("{\"name\":\"malformed2.com\",\"deny\":true}"));
 
     // Missing colon after 'blocked' key
     when(client.get(contains("malformed3")))
-        .thenReturn("{\"name\":\"malformed3.com\",\"blocked\" true}");
+        .thenReturn(ok("{\"name\":\"malformed3.com\",\"blocked\" true}"));
 
     // Missing everything after the 'blocked' key
     when(client.get(contains("malformed4")))
-        .thenReturn("{\"name\":\"malformed4.com\",\"blocked\": ");
+        .thenReturn(ok("{\"name\":\"malformed4.com\",\"blocked\": "));
 
     DisposableDomainSource source = new IsTempMailAPISource(client, "apikey");
 
@@ -81,6 +88,67 @@ class IsTempMailAPISourceTest {
         () -> assertFalse(source.isDisposableDomain("malformed4.com")));
   }
 
+  @Test
+  void allowsDomainsWhenRequestFails() throws IOException {
+    HttpTransport client = mock(HttpTransport.class);
+
+    when(client.get(contains("error-status")))
+        .thenReturn(HttpResult.response(500, "{\"blocked\":true}"));
+    when(client.get(contains("timeout")))
+        .thenReturn(HttpResult.failed(new SocketTimeoutException("Read timed out")));
+
+    DisposableDomainSource source = new IsTempMailAPISource(client, "apikey");
+
+    assertAll("Failed requests return false",
+        () -> assertFalse(source.isDisposableDomain("error-status.com")),
+        () -> assertFalse(source.isDisposableDomain("timeout.com")));
+  }
+
+  @Test
+  void lookupReportsFailedRequests() throws IOException {
+    HttpTransport client = mock(HttpTransport.class);
+
+    when(client.get(contains("disposable")))
+        .thenReturn(ok("{\"name\":\"disposableinbox.com\",\"blocked\":true}"));
+    when(client.get(contains("error-status")))
+        .thenReturn(HttpResult.response(429, "{\"error\":\"rate_limited\"}"));
+    when(client.get(contains("timeout")))
+        .thenReturn(HttpResult.failed(new SocketTimeoutException("Read timed out")));
+    when(client.get(contains("no-result")))
+        .thenReturn(ok("{\"error\":\"invalid_key\"}"));
+
+    IsTempMailAPISource source = new IsTempMailAPISource(client, "apikey");
+
+    assertTrue(source.lookup("disposableinbox.com"));
+
+    IOException status = assertThrows(IOException.class, () -> source.lookup("error-status.com"));
+    assertTrue(status.getMessage().contains("429"));
+
+    assertThrows(SocketTimeoutException.class, () -> source.lookup("timeout.com"));
+    assertThrows(IOException.class, () -> source.lookup("no-result.com"));
+  }
+
+  @Test
+  void checksDomainsAsynchronously() {
+    HttpTransport client = mock(HttpTransport.class);
+
+    when(client.getAsync(contains("disposable")))
+        .thenReturn(CompletableFuture.completedFuture(
+            ok("{\"name\":\"disposableinbox.com\",\"blocked\":true}")));
+    when(client.getAsync(contains("gmail")))
+        .thenReturn(CompletableFuture.completedFuture(
+            HttpResult.failed(new SocketTimeoutException("Read timed out"))));
+
+    IsTempMailAPISource source = new IsTempMailAPISource(client, "apikey");
+
+    assertTrue(source.isDisposableDomainAsync("disposableinbox.com").join());
+    assertFalse(source.isDisposableDomainAsync("gmail.com").join());
+  }
+
+  private static HttpResult ok(String body) {
+    return HttpResult.response(200, body);
+  }
+
   @Nested
   @Disabled // disabled to avoid making API requests regularly
   class APIIntegrationTests {
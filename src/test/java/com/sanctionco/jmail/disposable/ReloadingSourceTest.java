@@ -0,0 +1,201 @@
+package com.sanctionco.jmail.disposable;
+
+import com.sanctionco.jmail.RuleCost;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ReloadingSourceTest {
+  private static final Duration SLOW_POLL = Duration.ofHours(1);
+  private static final Duration FAST_POLL = Duration.ofMillis(20);
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void loadsFileWhenCreated() throws IOException {
+    Path file = write(newFile(), "first.com", " SECOND.com ");
+
+    try (ReloadingSource source = ReloadingSource.builder(file).pollInterval(SLOW_POLL).build()) {
+      assertThat(source.isDisposableDomain("first.com")).isTrue();
+      assertThat(source.isDisposableDomain("second.com")).isTrue();
+      assertThat(source.isDisposableDomain("gmail.com")).isFalse();
+
+      assertThat(source.reloadCount()).isZero();
+      assertThat(source.reloadFailureCount()).isZero();
+      assertThat(source.lastReloadDuration()).isNotNull();
+      assertThat(source.lastReloadFailure()).isNull();
+      assertThat(source.lookupCost()).isEqualTo(RuleCost.IN_MEMORY);
+    }
+  }
+
+  @Test
+  void reloadsFileThatWasReplaced() throws IOException {
+    Path file = write(newFile(), "first.com");
+
+    try (ReloadingSource source = ReloadingSource.builder(file).pollInterval(SLOW_POLL).build()) {
+      assertThat(source.reloadIfModified()).isFalse();
+
+      write(file, "second.com");
+
+      assertThat(source.reloadIfModified()).isTrue();
+      assertThat(source.reloadIfModified()).isFalse();
+      assertThat(source.isDisposableDomain("first.com")).isFalse();
+      assertThat(source.isDisposableDomain("second.com")).isTrue();
+      assertThat(source.reloadCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void keepsPreviousListWhenFileCannotBeRead() throws IOException {
+    Path file = write(newFile(), "first.com");
+
+    try (ReloadingSource source = ReloadingSource.builder(file).pollInterval(SLOW_POLL).build()) {
+      Files.delete(file);
+
+      assertThatExceptionOfType(NoSuchFileException.class)
+          .isThrownBy(source::reloadIfModified);
+      assertThat(source.isDisposableDomain("first.com")).isTrue();
+      assertThat(source.reloadCount()).isZero();
+    }
+  }
+
+  @Test
+  void reloadsInBackground() throws IOException {
+    Path file = write(newFile(), "first.com");
+
+    try (ReloadingSource source = ReloadingSource.builder(file).pollInterval(FAST_POLL).build()) {
+      write(file, "second.com");
+
+      assertEventually(() -> source.isDisposableDomain("second.com"));
+      assertThat(source.isDisposableDomain("first.com")).isFalse();
+      assertThat(source.reloadCount()).isEqualTo(1);
+
+      Files.delete(file);
+
+      assertEventually(() -> source.reloadFailureCount() > 0);
+      assertThat(source.lastReloadFailure()).isInstanceOf(NoSuchFileException.class);
+      assertThat(source.isDisposableDomain("second.com")).isTrue();
+
+      write(file, "third.com");
+
+      assertEventually(() -> source.isDisposableDomain("third.com"));
+      assertThat(source.reloadCount()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void stopsWatchingWhenClosed() throws IOException, InterruptedException {
+    Path file = write(newFile(), "first.com");
+    ReloadingSource source = ReloadingSource.builder(file).pollInterval(FAST_POLL).build();
+
+    source.close();
+    write(file, "second.com");
+    Thread.sleep(200);
+
+    assertThat(source.isDisposableDomain("first.com")).isTrue();
+    assertThat(source.isDisposableDomain("second.com")).isFalse();
+  }
+
+  @Test
+  void lookupsAlwaysSeeWholeList() throws Exception {
+    Path file = write(newFile(), "always.com", "first.com");
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicLong misses = new AtomicLong();
+
+    try (ReloadingSource source = ReloadingSource.builder(file).pollInterval(SLOW_POLL).build()) {
+      Thread reader = new Thread(() -> {
+        while (running.get()) {
+          if (!source.isDisposableDomain("always.com")) misses.incrementAndGet();
+        }
+      });
+      reader.start();
+
+      for (int i = 0; i < 50; i++) {
+        write(file, "always.com", "domain" + i + ".com");
+        source.reloadIfModified();
+      }
+
+      running.set(false);
+      reader.join();
+
+      assertThat(misses).hasValue(0);
+      assertThat(source.reloadCount()).isEqualTo(50);
+      assertThat(source.isDisposableDomain("domain49.com")).isTrue();
+    }
+  }
+
+  @Test
+  void matchesSubdomainsWhenConfigured() throws IOException {
+    Path file = write(newFile(), "mailinator.com");
+
+    try (ReloadingSource source = ReloadingSource.builder(file)
+        .pollInterval(SLOW_POLL)
+        .matching(DomainMatching.SUBDOMAINS)
+        .build()) {
+      assertThat(source.isDisposableDomain("foo.mailinator.com")).isTrue();
+
+      write(file, "other.com");
+      source.reloadIfModified();
+
+      assertThat(source.isDisposableDomain("foo.mailinator.com")).isFalse();
+      assertThat(source.isDisposableDomain("foo.other.com")).isTrue();
+    }
+  }
+
+  @Test
+  void rejectsMissingFile() {
+    assertThatExceptionOfType(NoSuchFileException.class)
+        .isThrownBy(() -> ReloadingSource.builder(tempDir.resolve("missing.txt")).build());
+  }
+
+  @Test
+  void rejectsInvalidPollInterval() {
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> ReloadingSource.builder(tempDir).pollInterval(Duration.ZERO));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> ReloadingSource.builder(tempDir).pollInterval(Duration.ofSeconds(-1)));
+  }
+
+  private Path newFile() throws IOException {
+    return Files.createTempFile(tempDir, "domains", ".txt");
+  }
+
+  /**
+   * Replace the file with a new file containing the given domains, in the way the list should
+   * be updated in production.
+   */
+  private Path write(Path file, String... domains) throws IOException {
+    Path temp = Files.createTempFile(tempDir, "domains", ".tmp");
+    Files.write(temp, Arrays.asList(domains), StandardCharsets.UTF_8);
+
+    return Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static void assertEventually(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+
+    while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+      Thread.onSpinWait();
+    }
+
+    assertThat(condition.getAsBoolean()).isTrue();
+  }
+}
@@ -0,0 +1,112 @@
+package com.sanctionco.jmail.disposable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An HTTP server for tests that runs in the same process on a local port, and answers every
+ * GET request with the response returned by its handler. Connections are kept alive, so each
+ * connection can serve many requests in turn.
+ */
+final class StubHttpServer implements AutoCloseable {
+  private final ServerSocket socket;
+  private final Handler handler;
+  private final AtomicInteger connectionCount = new AtomicInteger();
+  private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "stub-http-server");
+    thread.setDaemon(true);
+
+    return thread;
+  });
+
+  StubHttpServer(Handler handler) throws IOException {
+    this.socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    this.handler = handler;
+
+    executor.execute(this::run);
+  }
+
+  /**
+   * The base URL of the server, without a trailing slash.
+   */
+  String url() {
+    return "http://localhost:" + socket.getLocalPort();
+  }
+
+  /**
+   * The number of connections that have been accepted.
+   */
+  int connectionCount() {
+    return connectionCount.get();
+  }
+
+  @Override
+  public void close() throws IOException {
+    socket.close();
+    executor.shutdownNow();
+  }
+
+  private void run() {
+    while (!socket.isClosed()) {
+      try {
+        Socket connection = socket.accept();
+        connectionCount.incrementAndGet();
+        executor.execute(() -> serve(connection));
+      } catch (IOException e) {
+        return;
+      }
+    }
+  }
+
+  private void serve(Socket connection) {
+    try (Socket c = connection) {
+      BufferedReader reader = new BufferedReader(
+          new InputStreamReader(c.getInputStream(), StandardCharsets.US_ASCII));
+      OutputStream out = c.getOutputStream();
+
+      for (String requestLine = reader.readLine(); requestLine != null;
+           requestLine = reader.readLine()) {
+        // Skip the headers, since the handler only needs the path
+        String header = reader.readLine();
+        while (header != null && !header.isEmpty()) {
+          header = reader.readLine();
+        }
+
+        Response response = handler.handle(requestLine.split(" ")[1]);
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+
+        out.write(("HTTP/1.1 " + response.status + " Stub\r\n"
+            + "Content-Type: application/json\r\n"
+            + "Content-Length: " + body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(body);
+        out.flush();
+      }
+    } catch (IOException | InterruptedException e) {
+      // The client or the test has finished with the connection
+    }
+  }
+
+  @FunctionalInterface
+  interface Handler {
+    Response handle(String path) throws InterruptedException;
+  }
+
+  static final class Response {
+    private final int status;
+    private final String body;
+
+    Response(int status, String body) {
+      this.status = status;
+      this.body = body;
+    }
+  }
+}
@@ -0,0 +1,165 @@
+package com.sanctionco.jmail.disposable;
+
+import com.sanctionco.jmail.JMail;
+import com.sanctionco.jmail.RuleCost;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TieredSourceTest {
+
+  @Test
+  void stopsAtTheFirstTierThatConsidersTheDomainDisposable() {
+    CountingSource local = new CountingSource("mailinator.com");
+    CountingSource remote = new CountingSource("mailinator.com", "remote.com");
+
+    TieredSource source = TieredSource.builder().tier(local).tier(remote).build();
+
+    assertThat(source.isDisposableDomain("mailinator.com")).isTrue();
+    assertThat(source.isDisposableDomain("remote.com")).isTrue();
+    assertThat(source.isDisposableDomain("gmail.com")).isFalse();
+
+    assertThat(local.lookups.get()).isEqualTo(3);
+    assertThat(remote.lookups.get()).isEqualTo(2);
+
+    assertThat(source.tierCount()).isEqualTo(2);
+    assertThat(source.hitCount(0)).isEqualTo(1);
+    assertThat(source.hitCount(1)).isEqualTo(1);
+    assertThat(source.missCount()).isEqualTo(1);
+  }
+
+  @Test
+  void movesOnWhenATierTimesOut() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    DisposableDomainSource slow = domain -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+
+      return true;
+    };
+
+    TieredSource source = TieredSource.builder()
+        .tier(slow, Duration.ofMillis(50))
+        .tier(new CountingSource("mailinator.com"))
+        .build();
+
+    try {
+      assertThat(source.isDisposableDomain("mailinator.com")).isTrue();
+      assertThat(source.isDisposableDomain("gmail.com")).isFalse();
+    } finally {
+      release.countDown();
+    }
+
+    assertThat(source.timeoutCount(0)).isEqualTo(2);
+    assertThat(source.hitCount(0)).isZero();
+    assertThat(source.hitCount(1)).isEqualTo(1);
+    assertThat(source.missCount()).isEqualTo(1);
+  }
+
+  @Test
+  void answersFromATierWithATimeout() {
+    TieredSource source = TieredSource.builder()
+        .tier(new CountingSource("mailinator.com"), Duration.ofSeconds(5))
+        .executor(Runnable::run)
+        .build();
+
+    assertThat(source.isDisposableDomain("mailinator.com")).isTrue();
+    assertThat(source.isDisposableDomain("gmail.com")).isFalse();
+    assertThat(source.hitCount(0)).isEqualTo(1);
+    assertThat(source.timeoutCount(0)).isZero();
+  }
+
+  @Test
+  void movesOnWhenATierFails() {
+    DisposableDomainSource failing = domain -> {
+      throw new IllegalStateException("Failed");
+    };
+
+    TieredSource source = TieredSource.builder()
+        .tier(failing)
+        .tier(failing, Duration.ofSeconds(5))
+        .tier(new CountingSource("mailinator.com"))
+        .build();
+
+    assertThat(source.isDisposableDomain("mailinator.com")).isTrue();
+    assertThat(source.errorCount(0)).isEqualTo(1);
+    assertThat(source.errorCount(1)).isEqualTo(1);
+    assertThat(source.hitCount(2)).isEqualTo(1);
+  }
+
+  @Test
+  void usesTheMostExpensiveTierCost() {
+    DisposableDomainSource remote = new DisposableDomainSource() {
+      @Override
+      public boolean isDisposableDomain(String domain) {
+        return false;
+      }
+
+      @Override
+      public RuleCost lookupCost() {
+        return RuleCost.IO;
+      }
+    };
+
+    assertThat(TieredSource.builder().tier(new CountingSource()).build().lookupCost())
+        .isEqualTo(RuleCost.IN_MEMORY);
+    assertThat(TieredSource.builder().tier(new CountingSource()).tier(remote).build().lookupCost())
+        .isEqualTo(RuleCost.IO);
+  }
+
+  @Test
+  void worksWithValidator() {
+    TieredSource source = TieredSource.builder()
+        .tier(new CountingSource("mailinator.com"))
+        .build();
+
+    assertThat(JMail.validator().disallowDisposableDomains(source).isValid("a@mailinator.com"))
+        .isFalse();
+    assertThat(JMail.validator().disallowDisposableDomains(source).isValid("a@gmail.com"))
+        .isTrue();
+  }
+
+  @Test
+  void validatesBuilder() {
+    assertThatIllegalStateException().isThrownBy(() -> TieredSource.builder().build());
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> TieredSource.builder().tier(new CountingSource(), Duration.ZERO));
+
+    TieredSource source = TieredSource.builder().tier(new CountingSource()).build();
+    assertThatThrownBy(() -> source.hitCount(1)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  private static final class CountingSource implements DisposableDomainSource {
+    private final Set<String> domains;
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    CountingSource(String... domains) {
+      this.domains = new HashSet<>(Arrays.asList(domains));
+    }
+
+    @Override
+    public boolean isDisposableDomain(String domain) {
+      lookups.incrementAndGet();
+      return domains.contains(domain);
+    }
+
+    @Override
+    public RuleCost lookupCost() {
+      return RuleCost.IN_MEMORY;
+    }
+  }
+}
@@ -1,5 +1,8 @@
 package com.sanctionco.jmail.dns;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -31,4 +34,23 @@ class DNSLookupUtilTest {
 
     assertThat(endTime - startTime).isLessThan(100);
   }
+
+  @Test
+  void failsToFindInvalidMXRecordAsync() {
+    assertThat(DNSLookupUtil.hasMXRecordAsync("whatis.hello"))
+        .succeedsWithin(Duration.ofSeconds(5))
+        .isEqualTo(false);
+  }
+
+  @Test
+  void asyncLookupUsesGivenExecutor() {
+    AtomicInteger executions = new AtomicInteger();
+
+    assertThat(DNSLookupUtil.hasMXRecordAsync("whatis.hello", 10, 1, runnable -> {
+      executions.incrementAndGet();
+      runnable.run();
+    })).isCompletedWithValue(false);
+
+    assertThat(executions).hasValue(1);
+  }
 }
@@ -0,0 +1,311 @@
+package com.sanctionco.jmail.dns;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class DNSResolverTest {
+  private StubDNSServer server;
+  private DNSResolver resolver;
+
+  @BeforeEach
+  void setup() throws IOException {
+    server = new StubDNSServer();
+    resolver = DNSResolver.builder()
+        .nameserver(server.address())
+        .timeout(Duration.ofMillis(50))
+        .retries(2)
+        .build();
+  }
+
+  @AfterEach
+  void teardown() {
+    resolver.close();
+    server.close();
+  }
+
+  @Test
+  void findsMXRecord() {
+    server.mx("gmail.com", "alt1.gmail-smtp-in.l.google.com", "gmail-smtp-in.l.google.com");
+
+    assertThat(resolver.hasMXRecord("gmail.com")).isTrue();
+    assertThat(resolver.hasMXRecord("GMail.COM")).isTrue();
+    assertThat(resolver.hasMXRecord("gmail.com.")).isTrue();
+  }
+
+  @Test
+  void acceptsQuestionWithDifferentCase() {
+    server.mx("gmail.com", "gmail-smtp-in.l.google.com");
+    server.uppercaseQuestion();
+
+    assertThat(resolver.hasMXRecord("gmail.com")).isTrue();
+  }
+
+  @Test
+  void rejectsDomainWithoutMXRecord() {
+    assertThat(resolver.hasMXRecord("a.com")).isFalse();
+    assertThat(server.requestCount()).isEqualTo(1);
+  }
+
+  @Test
+  void rejectsNonExistentDomain() {
+    server.nonExistent("this-does-not-exist.com");
+
+    assertThat(resolver.hasMXRecord("this-does-not-exist.com")).isFalse();
+    assertThat(server.requestCount()).isEqualTo(1);
+  }
+
+  @Test
+  void rejectsNullMXRecord() {
+    server.mx("gmail.de", ".");
+
+    assertThat(resolver.hasMXRecord("gmail.de")).isFalse();
+  }
+
+  @Test
+  void rejectsInvalidDomainWithoutQuery() {
+    assertThat(resolver.hasMXRecord("a".repeat(64) + ".com")).isFalse();
+    assertThat(resolver.hasMXRecord("a..com")).isFalse();
+    assertThat(resolver.hasMXRecord("")).isFalse();
+    assertThat(resolver.hasMXRecord("a".repeat(63) + "." + "b".repeat(63) + "."
+        + "c".repeat(63) + "." + "d".repeat(63) + ".com")).isFalse();
+
+    assertThat(server.requestCount()).isZero();
+  }
+
+  @Test
+  void retriesAfterTimeout() {
+    server.mx("gmail.com", "gmail-smtp-in.l.google.com");
+    server.dropNext("gmail.com", 2);
+
+    assertThat(resolver.hasMXRecord("gmail.com")).isTrue();
+    assertThat(server.requestCount()).isEqualTo(3);
+  }
+
+  @Test
+  void failsAfterAllRetries() {
+    server.mx("gmail.com", "gmail-smtp-in.l.google.com");
+    server.dropNext("gmail.com", 3);
+
+    long start = System.nanoTime();
+    assertThat(resolver.hasMXRecord("gmail.com")).isFalse();
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    // 50ms + 100ms + 200ms with exponential backoff
+    assertThat(elapsed).isGreaterThanOrEqualTo(340).isLessThan(2000);
+    assertThat(server.requestCount()).isEqualTo(3);
+  }
+
+  @Test
+  void multiplexesQueriesOverOneSocket() {
+    int count = 25;
+    server.holdResponsesUntil(count);
+
+    List<CompletableFuture<Boolean>> results = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      if (i % 2 == 0) server.mx("domain" + i + ".com", "mx.domain" + i + ".com");
+
+      results.add(resolver.hasMXRecordAsync("domain" + i + ".com"));
+    }
+
+    for (int i = 0; i < count; i++) {
+      assertThat(results.get(i)).succeedsWithin(Duration.ofSeconds(5)).isEqualTo(i % 2 == 0);
+    }
+
+    assertThat(server.requestCount()).isEqualTo(count);
+    assertThat(server.sourcePorts()).hasSize(1);
+  }
+
+  @Test
+  void ignoresResponsesWithWrongTransactionId() {
+    server.mx("gmail.com", "gmail-smtp-in.l.google.com");
+    server.sendForgedResponses();
+
+    assertThat(resolver.hasMXRecord("gmail.com")).isTrue();
+    assertThat(server.requestCount()).isEqualTo(1);
+  }
+
+  @Test
+  void keepsRunningAfterMalformedResponses() {
+    server.mx("gmail.com", "gmail-smtp-in.l.google.com");
+    server.sendMalformedResponses();
+
+    assertThat(resolver.hasMXRecord("gmail.com")).isTrue();
+    assertThat(resolver.hasMXRecord("gmail.com")).isTrue();
+    assertThat(server.requestCount()).isEqualTo(2);
+  }
+
+  @Test
+  void retriesImmediatelyOnTruncatedResponse() throws IOException {
+    try (DNSResolver slowResolver = DNSResolver.builder()
+             .nameserver(server.address())
+             .timeout(Duration.ofSeconds(5))
+             .retries(1)
+             .build()) {
+      server.mx("gmail.com", "gmail-smtp-in.l.google.com");
+      server.truncateNext("gmail.com", 1);
+
+      long start = System.nanoTime();
+      assertThat(slowResolver.hasMXRecord("gmail.com")).isTrue();
+      assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(2));
+      assertThat(server.requestCount()).isEqualTo(1);
+      assertThat(server.tcpRequestCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void answersTruncatedResponsesOverTcp() {
+    server.mx("gmail.com", "gmail-smtp-in.l.google.com");
+    server.mx("hotmail.com", ".");
+    server.nonExistent("whatis.hello");
+    server.truncateNext("gmail.com", 1);
+    server.truncateNext("hotmail.com", 1);
+    server.truncateNext("whatis.hello", 1);
+
+    assertThat(resolver.hasMXRecord("gmail.com")).isTrue();
+    assertThat(resolver.hasMXRecord("hotmail.com")).isFalse();
+    assertThat(resolver.hasMXRecord("whatis.hello")).isFalse();
+
+    // A truncated response for a domain that does not exist has no records to be cut off
+    assertThat(server.requestCount()).isEqualTo(3);
+    assertThat(server.tcpRequestCount()).isEqualTo(2);
+  }
+
+  @Test
+  void failsTruncatedLookupWhenTcpFails() throws IOException {
+    server.mx("gmail.com", "gmail-smtp-in.l.google.com");
+    server.truncateNext("gmail.com", 2);
+    server.closeTcp();
+
+    assertThat(resolver.hasMXRecordAsync("gmail.com"))
+        .failsWithin(5, TimeUnit.SECONDS)
+        .withThrowableOfType(ExecutionException.class)
+        .havingCause()
+        .isInstanceOf(UncheckedIOException.class);
+
+    assertThatExceptionOfType(UncheckedIOException.class)
+        .isThrownBy(() -> resolver.hasMXRecord("gmail.com"));
+  }
+
+  @Test
+  void capsTimeoutOfLaterRetries() {
+    long initial = TimeUnit.MILLISECONDS.toNanos(100);
+
+    assertThat(DNSResolver.timeoutNanos(initial, 0)).isEqualTo(initial);
+    assertThat(DNSResolver.timeoutNanos(initial, 2)).isEqualTo(initial * 4);
+    assertThat(DNSResolver.timeoutNanos(initial, 16)).isEqualTo(initial << 16);
+    assertThat(DNSResolver.timeoutNanos(initial, 64)).isEqualTo(initial << 16);
+    assertThat(DNSResolver.timeoutNanos(initial, Integer.MAX_VALUE)).isEqualTo(initial << 16);
+
+    // No attempt waits longer than a day, even when the doubled timeout would overflow
+    long day = TimeUnit.DAYS.toNanos(1);
+
+    assertThat(DNSResolver.timeoutNanos(TimeUnit.HOURS.toNanos(1), 16)).isEqualTo(day);
+    assertThat(DNSResolver.timeoutNanos(Long.MAX_VALUE, 0)).isEqualTo(day);
+    assertThat(DNSResolver.timeoutNanos(Long.MAX_VALUE, 1)).isEqualTo(day);
+  }
+
+  @Test
+  void usesNextNameserverOnRetry() throws IOException {
+    try (StubDNSServer second = new StubDNSServer();
+         DNSResolver multiResolver = DNSResolver.builder()
+             .nameserver(server.address())
+             .nameserver(second.address())
+             .timeout(Duration.ofMillis(50))
+             .retries(1)
+             .build()) {
+      server.dropNext("gmail.com", 1);
+      second.mx("gmail.com", "gmail-smtp-in.l.google.com");
+
+      assertThat(multiResolver.hasMXRecord("gmail.com")).isTrue();
+      assertThat(server.requestCount()).isEqualTo(1);
+      assertThat(second.requestCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void retriesImmediatelyOnServerFailure() throws IOException {
+    try (StubDNSServer second = new StubDNSServer();
+         DNSResolver multiResolver = DNSResolver.builder()
+             .nameserver(server.address())
+             .nameserver(second.address())
+             .timeout(Duration.ofSeconds(5))
+             .retries(1)
+             .build()) {
+      server.rcode("gmail.com", 2);
+      second.mx("gmail.com", "gmail-smtp-in.l.google.com");
+
+      long start = System.nanoTime();
+      assertThat(multiResolver.hasMXRecord("gmail.com")).isTrue();
+      assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(2));
+    }
+  }
+
+  @Test
+  void failsLookupsAfterClose() {
+    server.mx("gmail.com", "gmail-smtp-in.l.google.com");
+    server.dropNext("gmail.com", 1);
+
+    CompletableFuture<Boolean> pending = resolver.hasMXRecordAsync("gmail.com");
+    resolver.close();
+
+    assertThat(pending).failsWithin(Duration.ofSeconds(5));
+    assertThatIllegalStateException().isThrownBy(() -> resolver.hasMXRecord("gmail.com"));
+  }
+
+  @Test
+  void worksWithMXRecordCache() {
+    server.mx("gmail.com", "gmail-smtp-in.l.google.com");
+
+    MXRecordCache cache = MXRecordCache.builder().lookup(resolver::hasMXRecord).build();
+
+    assertThat(cache.hasMXRecord("gmail.com")).isTrue();
+    assertThat(cache.hasMXRecord("gmail.com")).isTrue();
+    assertThat(cache.hasMXRecord("a.com")).isFalse();
+    assertThat(server.requestCount()).isEqualTo(2);
+  }
+
+  @Test
+  void rejectsInvalidConfiguration() {
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> DNSResolver.builder().nameserver("not-an-ip"));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> DNSResolver.builder()
+            .nameserver(InetSocketAddress.createUnresolved("localhost", 53)));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> DNSResolver.builder().timeout(Duration.ZERO));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> DNSResolver.builder().retries(-1));
+  }
+
+  @Test
+  void acceptsIpAddressNameservers() {
+    assertThat(DNSResolver.builder().nameserver("8.8.8.8").nameserver("2001:4860:4860::8888")
+        .nameservers).hasSize(2);
+  }
+
+  @Test
+  void encodesQuery() {
+    byte[] query = DNSResolver.encodeQuery("Mail.Example.com");
+
+    assertThat(query).hasSize(12 + 18 + 4 + 11);
+    assertThat(new String(query, 12, 18, StandardCharsets.US_ASCII))
+        .isEqualTo("\u0004Mail\u0007Example\u0003com\u0000");
+  }
+}
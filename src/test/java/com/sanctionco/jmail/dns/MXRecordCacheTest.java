@@ -0,0 +1,243 @@
+package com.sanctionco.jmail.dns;
+
+import com.sanctionco.jmail.helpers.TestClock;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static com.sanctionco.jmail.helpers.Latches.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class MXRecordCacheTest {
+  private static final int THREADS = 8;
+  private static final Set<String> DOMAINS_WITH_RECORDS
+      = new HashSet<>(Arrays.asList("gmail.com", "hotmail.com", "yahoo.com"));
+
+  private final List<String> lookups = new ArrayList<>();
+  private TestClock clock;
+
+  @BeforeEach
+  void setup() {
+    lookups.clear();
+    clock = new TestClock();
+  }
+
+  private MXRecordCacheBuilder builder() {
+    return MXRecordCache.builder()
+        .clock(clock)
+        .lookup(domain -> {
+          lookups.add(domain);
+          return DOMAINS_WITH_RECORDS.contains(domain);
+        });
+  }
+
+  @Test
+  void cachesResultsUntilPositiveTtlExpires() {
+    MXRecordCache cache = builder().positiveTtl(Duration.ofMinutes(10)).build();
+
+    assertThat(cache.hasMXRecord("gmail.com")).isTrue();
+    clock.advance(Duration.ofMinutes(9));
+    assertThat(cache.hasMXRecord("gmail.com")).isTrue();
+
+    assertThat(lookups).containsExactly("gmail.com");
+    assertThat(cache.hitCount()).isEqualTo(1);
+    assertThat(cache.missCount()).isEqualTo(1);
+
+    clock.advance(Duration.ofMinutes(1));
+    assertThat(cache.hasMXRecord("gmail.com")).isTrue();
+
+    assertThat(lookups).containsExactly("gmail.com", "gmail.com");
+    assertThat(cache.missCount()).isEqualTo(2);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void cachesMissingRecordsUntilNegativeTtlExpires() {
+    MXRecordCache cache = builder()
+        .positiveTtl(Duration.ofHours(1))
+        .negativeTtl(Duration.ofMinutes(1))
+        .build();
+
+    assertThat(cache.hasMXRecord("a.com")).isFalse();
+    clock.advance(Duration.ofSeconds(59));
+    assertThat(cache.hasMXRecord("a.com")).isFalse();
+    assertThat(lookups).containsExactly("a.com");
+
+    clock.advance(Duration.ofSeconds(1));
+    assertThat(cache.hasMXRecord("a.com")).isFalse();
+    assertThat(lookups).containsExactly("a.com", "a.com");
+  }
+
+  @Test
+  void zeroNegativeTtlDisablesNegativeCaching() {
+    MXRecordCache cache = builder().negativeTtl(Duration.ZERO).build();
+
+    assertThat(cache.hasMXRecord("a.com")).isFalse();
+    assertThat(cache.hasMXRecord("a.com")).isFalse();
+    assertThat(cache.hasMXRecord("gmail.com")).isTrue();
+    assertThat(cache.hasMXRecord("gmail.com")).isTrue();
+
+    assertThat(lookups).containsExactly("a.com", "a.com", "gmail.com");
+  }
+
+  @ParameterizedTest
+  @MethodSource("foreverTtls")
+  void cachesForeverWithVeryLongTtls(Duration ttl) {
+    MXRecordCache cache = builder().positiveTtl(ttl).negativeTtl(ttl).build();
+
+    assertThat(cache.hasMXRecord("gmail.com")).isTrue();
+    assertThat(cache.hasMXRecord("a.com")).isFalse();
+    clock.advance(Duration.ofDays(365 * 100));
+    assertThat(cache.hasMXRecord("gmail.com")).isTrue();
+    assertThat(cache.hasMXRecord("a.com")).isFalse();
+
+    assertThat(lookups).containsExactly("gmail.com", "a.com");
+  }
+
+  static Stream<Duration> foreverTtls() {
+    return Stream.of(Duration.ofMillis(Long.MAX_VALUE), ChronoUnit.FOREVER.getDuration());
+  }
+
+  @Test
+  void ignoresCaseOfDomain() {
+    MXRecordCache cache = builder().build();
+
+    assertThat(cache.hasMXRecord("GMail.COM")).isTrue();
+    assertThat(cache.hasMXRecord("gmail.com")).isTrue();
+    assertThat(cache.hasMXRecord("GMAIL.COM")).isTrue();
+
+    assertThat(lookups).containsExactly("gmail.com");
+    assertThat(cache.hitCount()).isEqualTo(2);
+  }
+
+  @Test
+  void evictsWhenMaximumSizeIsExceeded() {
+    MXRecordCache cache = builder().maximumSize(2).build();
+
+    cache.hasMXRecord("gmail.com");
+    cache.hasMXRecord("hotmail.com");
+    cache.hasMXRecord("yahoo.com");
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.evictionCount()).isEqualTo(1);
+
+    // The oldest domain was evicted and must be looked up again
+    cache.hasMXRecord("gmail.com");
+    assertThat(lookups).containsExactly("gmail.com", "hotmail.com", "yahoo.com", "gmail.com");
+    assertThat(cache.evictionCount()).isEqualTo(2);
+  }
+
+  @Test
+  void keepsRecentlyUsedDomainsWhenEvicting() {
+    MXRecordCache cache = builder().maximumSize(2).build();
+
+    cache.hasMXRecord("gmail.com");
+    cache.hasMXRecord("hotmail.com");
+    cache.hasMXRecord("gmail.com");
+    cache.hasMXRecord("yahoo.com");
+
+    // hotmail.com was evicted instead of gmail.com, since gmail.com was used again
+    cache.hasMXRecord("gmail.com");
+    assertThat(lookups).containsExactly("gmail.com", "hotmail.com", "yahoo.com");
+  }
+
+  @Test
+  void evictsExpiredDomainsFirst() {
+    MXRecordCache cache = builder()
+        .maximumSize(2)
+        .positiveTtl(Duration.ofHours(1))
+        .negativeTtl(Duration.ofMinutes(1))
+        .build();
+
+    cache.hasMXRecord("a.com");
+    cache.hasMXRecord("a.com");
+    cache.hasMXRecord("gmail.com");
+
+    clock.advance(Duration.ofMinutes(2));
+    cache.hasMXRecord("hotmail.com");
+
+    assertThat(cache.hasMXRecord("gmail.com")).isTrue();
+    assertThat(lookups).containsExactly("a.com", "gmail.com", "hotmail.com");
+  }
+
+  @Test
+  void coalescesConcurrentLookupsOfTheSameDomain() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger lookupCount = new AtomicInteger();
+
+    MXRecordCache cache = MXRecordCache.builder()
+        .clock(clock)
+        .lookup(domain -> {
+          lookupCount.incrementAndGet();
+          await(release);
+          return true;
+        })
+        .build();
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        String domain = i % 2 == 0 ? "gmail.com" : "GMAIL.COM";
+        results.add(executor.submit(() -> cache.hasMXRecord(domain)));
+      }
+
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (cache.coalescedCount() < THREADS - 1 && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+
+      release.countDown();
+
+      for (Future<Boolean> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS)).isTrue();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(lookupCount).hasValue(1);
+    assertThat(cache.missCount()).isEqualTo(1);
+    assertThat(cache.coalescedCount()).isEqualTo(THREADS - 1);
+
+    assertThat(cache.hasMXRecord("gmail.com")).isTrue();
+    assertThat(cache.hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void rejectsInvalidConfiguration() {
+    assertThatIllegalArgumentException().isThrownBy(() -> MXRecordCache.builder().maximumSize(0));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> MXRecordCache.builder().positiveTtl(Duration.ofSeconds(-1)));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> MXRecordCache.builder().negativeTtl(Duration.ofSeconds(-1)));
+  }
+
+  @Test
+  void usesDnsLookupByDefault() {
+    MXRecordCache cache = MXRecordCache.builder().timeout(10, 1).build();
+
+    assertThat(cache.hasMXRecord("whatis.hello")).isFalse();
+    assertThat(cache.hasMXRecord("whatis.hello")).isFalse();
+    assertThat(cache.missCount()).isEqualTo(1);
+  }
+}
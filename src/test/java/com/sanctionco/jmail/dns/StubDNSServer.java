@@ -0,0 +1,346 @@
+package com.sanctionco.jmail.dns;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A DNS server for tests that runs in the same process on a local UDP port, and answers MX
+ * queries with the records it has been given. It also answers queries over TCP on the same
+ * port, which are never truncated.
+ */
+final class StubDNSServer implements AutoCloseable {
+  private static final int RCODE_NAME_ERROR = 3;
+
+  private final DatagramSocket socket;
+  private final ServerSocket tcpSocket;
+  private final Thread thread;
+  private final Thread tcpThread;
+
+  private final Map<String, List<String>> records = new ConcurrentHashMap<>();
+  private final Map<String, Integer> rcodes = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> drops = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> truncations = new ConcurrentHashMap<>();
+  private final Set<Integer> sourcePorts = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger requestCount = new AtomicInteger();
+  private final AtomicInteger tcpRequestCount = new AtomicInteger();
+
+  private final List<DatagramPacket> held = new ArrayList<>();
+  private volatile int holdUntil;
+  private volatile boolean sendForgedResponses;
+  private volatile boolean sendMalformedResponses;
+  private volatile boolean uppercaseQuestion;
+
+  StubDNSServer() throws IOException {
+    this.socket = new DatagramSocket(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    this.tcpSocket = new ServerSocket();
+
+    try {
+      tcpSocket.bind(socket.getLocalSocketAddress());
+    } catch (IOException e) {
+      socket.close();
+      throw e;
+    }
+
+    this.thread = new Thread(this::run, "stub-dns-server");
+    thread.setDaemon(true);
+    thread.start();
+
+    this.tcpThread = new Thread(this::runTcp, "stub-dns-server-tcp");
+    tcpThread.setDaemon(true);
+    tcpThread.start();
+  }
+
+  InetSocketAddress address() {
+    return (InetSocketAddress) socket.getLocalSocketAddress();
+  }
+
+  /**
+   * Answer MX queries for the domain with the given exchanges. Use "." for a null MX.
+   */
+  void mx(String domain, String... exchanges) {
+    records.put(domain.toLowerCase(Locale.ROOT), List.of(exchanges));
+  }
+
+  /**
+   * Answer queries for the domain with the given response code and no records.
+   */
+  void rcode(String domain, int rcode) {
+    rcodes.put(domain.toLowerCase(Locale.ROOT), rcode);
+  }
+
+  /**
+   * Answer queries for the domain that does not exist.
+   */
+  void nonExistent(String domain) {
+    rcode(domain, RCODE_NAME_ERROR);
+  }
+
+  /**
+   * Do not respond to the next {@code count} queries for the domain.
+   */
+  void dropNext(String domain, int count) {
+    drops.put(domain.toLowerCase(Locale.ROOT), new AtomicInteger(count));
+  }
+
+  /**
+   * Answer the next {@code count} queries for the domain with a truncated response that was cut
+   * off before its first answer.
+   */
+  void truncateNext(String domain, int count) {
+    truncations.put(domain.toLowerCase(Locale.ROOT), new AtomicInteger(count));
+  }
+
+  /**
+   * Hold every response until {@code count} have been held, then send them in reverse order.
+   */
+  void holdResponsesUntil(int count) {
+    this.holdUntil = count;
+  }
+
+  /**
+   * Before each real response, send a forged response with a different transaction ID.
+   */
+  void sendForgedResponses() {
+    this.sendForgedResponses = true;
+  }
+
+  /**
+   * Before each real response, send the same response cut off in the middle of its answers.
+   */
+  void sendMalformedResponses() {
+    this.sendMalformedResponses = true;
+  }
+
+  /**
+   * Change the case of the question name in responses, which nameservers may do.
+   */
+  void uppercaseQuestion() {
+    this.uppercaseQuestion = true;
+  }
+
+  /**
+   * Stop accepting TCP connections, so that queries over TCP fail to connect.
+   */
+  void closeTcp() throws IOException {
+    tcpSocket.close();
+  }
+
+  int requestCount() {
+    return requestCount.get();
+  }
+
+  int tcpRequestCount() {
+    return tcpRequestCount.get();
+  }
+
+  Set<Integer> sourcePorts() {
+    return Collections.unmodifiableSet(sourcePorts);
+  }
+
+  @Override
+  public void close() {
+    socket.close();
+
+    try {
+      tcpSocket.close();
+    } catch (IOException e) {
+      // Nothing else can be done while closing
+    }
+  }
+
+  private void run() {
+    byte[] buffer = new byte[512];
+
+    while (!socket.isClosed()) {
+      DatagramPacket request = new DatagramPacket(buffer, buffer.length);
+
+      try {
+        socket.receive(request);
+        respond(request);
+      } catch (IOException e) {
+        return;
+      }
+    }
+  }
+
+  private void runTcp() {
+    while (!tcpSocket.isClosed()) {
+      try (Socket connection = tcpSocket.accept()) {
+        respondTcp(connection);
+      } catch (IOException e) {
+        // The next connection is accepted unless the socket is closed
+      }
+    }
+  }
+
+  private void respondTcp(Socket connection) throws IOException {
+    tcpRequestCount.incrementAndGet();
+
+    DataInputStream in = new DataInputStream(connection.getInputStream());
+    byte[] request = new byte[in.readUnsignedShort()];
+    in.readFully(request);
+
+    ByteBuffer query = ByteBuffer.wrap(request);
+    String domain = readName(query, 12);
+    byte[] response = buildResponse(query, domain, 12 + nameLength(query, 12) + 4);
+
+    DataOutputStream out = new DataOutputStream(connection.getOutputStream());
+    out.writeShort(response.length);
+    out.write(response);
+    out.flush();
+  }
+
+  private void respond(DatagramPacket request) throws IOException {
+    requestCount.incrementAndGet();
+    sourcePorts.add(request.getPort());
+
+    ByteBuffer query = ByteBuffer.wrap(request.getData(), 0, request.getLength());
+    String domain = readName(query, 12);
+    int questionEnd = 12 + nameLength(query, 12) + 4;
+
+    AtomicInteger dropCount = drops.get(domain);
+    if (dropCount != null && dropCount.getAndDecrement() > 0) return;
+
+    byte[] response = buildResponse(query, domain, questionEnd);
+
+    AtomicInteger truncateCount = truncations.get(domain);
+    if (truncateCount != null && truncateCount.getAndDecrement() > 0) {
+      response = Arrays.copyOf(response, questionEnd);
+      response[2] |= 0x02;                      // truncated
+      response[6] = 0;                          // no answers
+      response[7] = 0;
+    }
+
+    if (sendForgedResponses) {
+      byte[] forged = buildResponse(query, domain, questionEnd);
+      forged[0] ^= 0x5A;
+      forged[3] = (byte) ((forged[3] & 0xF0) | RCODE_NAME_ERROR);
+      send(forged, request);
+    }
+
+    if (sendMalformedResponses) {
+      send(Arrays.copyOf(response, questionEnd + 4), request);
+    }
+
+    if (holdUntil > 0) {
+      synchronized (held) {
+        held.add(new DatagramPacket(response, response.length, request.getSocketAddress()));
+
+        if (held.size() < holdUntil) return;
+
+        for (int i = held.size() - 1; i >= 0; i--) {
+          socket.send(held.get(i));
+        }
+
+        held.clear();
+      }
+
+      return;
+    }
+
+    send(response, request);
+  }
+
+  private void send(byte[] response, DatagramPacket request) throws IOException {
+    socket.send(new DatagramPacket(response, response.length, request.getSocketAddress()));
+  }
+
+  private byte[] buildResponse(ByteBuffer query, String domain, int questionEnd) {
+    final List<String> exchanges = records.getOrDefault(domain, List.of());
+    int rcode = rcodes.getOrDefault(domain, 0);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(query.get(0));
+    out.write(query.get(1));
+    out.write(0x81);                            // response, recursion desired
+    out.write(0x80 | rcode);                    // recursion available
+    writeShort(out, 1);                         // question count
+    writeShort(out, rcode == 0 ? exchanges.size() : 0);
+    writeShort(out, 0);
+    writeShort(out, 0);
+
+    for (int i = 12; i < questionEnd; i++) {
+      byte b = query.get(i);
+      out.write(uppercaseQuestion && b >= 'a' && b <= 'z' ? b - ('a' - 'A') : b);
+    }
+
+    if (rcode != 0) return out.toByteArray();
+
+    for (String exchange : exchanges) {
+      final byte[] name = encodeName(exchange);
+
+      writeShort(out, 0xC00C);                  // pointer to the question name
+      writeShort(out, 15);                      // MX
+      writeShort(out, 1);                       // IN
+      writeShort(out, 0);                       // TTL
+      writeShort(out, 300);
+      writeShort(out, name.length + 2);
+      writeShort(out, exchange.equals(".") ? 0 : 10);
+      out.write(name, 0, name.length);
+    }
+
+    return out.toByteArray();
+  }
+
+  private static String readName(ByteBuffer buffer, int position) {
+    StringBuilder name = new StringBuilder();
+
+    for (int length = buffer.get(position); length != 0; length = buffer.get(position)) {
+      if (name.length() > 0) name.append('.');
+
+      name.append(new String(
+          buffer.array(), position + 1, length, StandardCharsets.US_ASCII));
+      position += length + 1;
+    }
+
+    return name.toString().toLowerCase(Locale.ROOT);
+  }
+
+  private static int nameLength(ByteBuffer buffer, int start) {
+    int position = start;
+
+    while (buffer.get(position) != 0) {
+      position += buffer.get(position) + 1;
+    }
+
+    return position + 1 - start;
+  }
+
+  private static byte[] encodeName(String name) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    if (!name.equals(".")) {
+      for (String label : name.split("\\.")) {
+        out.write(label.length());
+        out.write(label.getBytes(StandardCharsets.US_ASCII), 0, label.length());
+      }
+    }
+
+    out.write(0);
+    return out.toByteArray();
+  }
+
+  private static void writeShort(ByteArrayOutputStream out, int value) {
+    out.write(value >>> 8);
+    out.write(value);
+  }
+}
@@ -0,0 +1,32 @@
+package com.sanctionco.jmail.helpers;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Helpers for tests that coordinate threads with a {@link CountDownLatch}.
+ */
+public final class Latches {
+  private static final long TIMEOUT_SECONDS = 5;
+
+  private Latches() {
+  }
+
+  /**
+   * Wait for the latch to open, failing with an {@link AssertionError} if it does not open
+   * within a few seconds, so that a test never continues as if it had.
+   *
+   * @param latch the latch to wait for
+   */
+  public static void await(CountDownLatch latch) {
+    try {
+      assertThat(latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+          .as("latch opened within %d seconds", TIMEOUT_SECONDS)
+          .isTrue();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
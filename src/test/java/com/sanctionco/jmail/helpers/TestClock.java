@@ -0,0 +1,34 @@
+package com.sanctionco.jmail.helpers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * A {@link Clock} for tests of caches and other time-based code, which starts at a fixed
+ * instant and only moves forward when {@link #advance(Duration)} is called.
+ */
+public final class TestClock extends Clock {
+  private volatile Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+  public void advance(Duration duration) {
+    now = now.plus(duration);
+  }
+
+  @Override
+  public ZoneId getZone() {
+    return ZoneOffset.UTC;
+  }
+
+  @Override
+  public Clock withZone(ZoneId zone) {
+    return this;
+  }
+
+  @Override
+  public Instant instant() {
+    return now;
+  }
+}
@@ -0,0 +1,61 @@
+package com.sanctionco.jmail.internal;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaseFoldingTest {
+
+  @Test
+  void foldsAsciiLettersToLowercase() {
+    for (char c = 0; c < 0x80; c++) {
+      assertThat(CaseFolding.fold(c)).isEqualTo(Character.toLowerCase(c));
+    }
+  }
+
+  @Test
+  void agreesWithEqualsIgnoreCase() {
+    String[] strings = {
+        "example.com", "EXAMPLE.COM", "Example.Com", "example.co", "bücher.de", "BÜCHER.DE",
+        "ΑΣ", "ας", "aσ", "İ", "i", "ı", "I", "ß", "SS", "", "k", "K"
+    };
+
+    for (String a : strings) {
+      for (String b : strings) {
+        assertThat(CaseFolding.equals(a, b)).as(a + " = " + b).isEqualTo(a.equalsIgnoreCase(b));
+
+        if (a.equalsIgnoreCase(b)) {
+          assertThat(CaseFolding.hashCode(a)).as(a + " = " + b).isEqualTo(CaseFolding.hashCode(b));
+        }
+      }
+    }
+  }
+
+  @Test
+  void hashesAsciiLikeLowercaseString() {
+    for (String s : Arrays.asList("", "a", "GMAIL.com", "Mixed-Case.Example.ORG")) {
+      assertThat(CaseFolding.hashCode(s)).isEqualTo(s.toLowerCase(Locale.ROOT).hashCode());
+    }
+  }
+
+  @Test
+  void hashesAndComparesRegions() {
+    String domain = "foo.MAILINATOR.com";
+
+    assertThat(CaseFolding.hashCode(domain, 4, 14)).isEqualTo("mailinator".hashCode());
+    assertThat(CaseFolding.regionEquals("mailinator", domain, 4, 14)).isTrue();
+    assertThat(CaseFolding.regionEquals("mailinato", domain, 4, 14)).isFalse();
+    assertThat(CaseFolding.regionEquals("mailinatos", domain, 4, 14)).isFalse();
+    assertThat(CaseFolding.regionEquals("com", domain, 15, 18)).isTrue();
+  }
+
+  @Test
+  void detectsAscii() {
+    assertThat(CaseFolding.isAscii("")).isTrue();
+    assertThat(CaseFolding.isAscii("Example.COM\u007f")).isTrue();
+    assertThat(CaseFolding.isAscii("bücher.de")).isFalse();
+  }
+}
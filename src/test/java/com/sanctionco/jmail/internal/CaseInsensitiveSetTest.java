@@ -0,0 +1,68 @@
+package com.sanctionco.jmail.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class CaseInsensitiveSetTest {
+
+  @Test
+  void containsMembersIgnoringCase() {
+    CaseInsensitiveSet set = CaseInsensitiveSet.of(
+        Arrays.asList("test", "invalid", "example", "localhost", "bücher.de"));
+
+    assertThat(set.containsIgnoreCase("test")).isTrue();
+    assertThat(set.containsIgnoreCase("TEST")).isTrue();
+    assertThat(set.containsIgnoreCase("LocalHost")).isTrue();
+    assertThat(set.containsIgnoreCase("BÜCHER.DE")).isTrue();
+    assertThat(set.containsIgnoreCase("tests")).isFalse();
+    assertThat(set.containsIgnoreCase("")).isFalse();
+    assertThat(set.contains("Example")).isTrue();
+    assertThat(set.contains(new StringBuilder("INVALID"))).isTrue();
+    assertThat(set.contains(42)).isFalse();
+  }
+
+  @Test
+  void keepsFirstOfEqualMembers() {
+    CaseInsensitiveSet set = CaseInsensitiveSet.of(Arrays.asList("a.com", "A.COM", "b.com"));
+
+    assertThat(set).hasSize(2);
+    assertThat(set).containsExactlyInAnyOrder("a.com", "b.com");
+  }
+
+  @Test
+  void holdsManyMembers() {
+    List<String> members = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      members.add("domain-" + i + ".com");
+    }
+
+    CaseInsensitiveSet set = CaseInsensitiveSet.of(members);
+
+    assertThat(set).hasSize(members.size());
+    for (int i = 0; i < 10_000; i++) {
+      assertThat(set.containsIgnoreCase("DOMAIN-" + i + ".COM")).isTrue();
+      assertThat(set.containsIgnoreCase("domain-" + i + ".org")).isFalse();
+    }
+  }
+
+  @Test
+  void emptySetContainsNothing() {
+    CaseInsensitiveSet set = CaseInsensitiveSet.of(Collections.emptyList());
+
+    assertThat(set).isEmpty();
+    assertThat(set.containsIgnoreCase("a")).isFalse();
+  }
+
+  @Test
+  void rejectsNullMembers() {
+    assertThatNullPointerException()
+        .isThrownBy(() -> CaseInsensitiveSet.of(Arrays.asList("a", null)));
+  }
+}
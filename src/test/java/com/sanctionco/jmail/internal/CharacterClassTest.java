@@ -0,0 +1,81 @@
+package com.sanctionco.jmail.internal;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class CharacterClassTest {
+
+  @Test
+  void containsOnlyGivenCharacters() {
+    Set<Character> expected = new HashSet<>(Arrays.asList('\0', '\t', '?', '@', 'z', '\u007f'));
+    CharacterClass characterClass = CharacterClass.of('\0', '\t', '?', '@', 'z', '\u007f');
+
+    for (char c = 0; c < 256; c++) {
+      assertThat(characterClass.contains(c)).isEqualTo(expected.contains(c));
+    }
+  }
+
+  @Test
+  void containsNonAsciiCharacters() {
+    CharacterClass characterClass = CharacterClass.of('␁', 'a', '␀', '␁', 'ø');
+
+    assertThat(characterClass.contains('a')).isTrue();
+    assertThat(characterClass.contains('␀')).isTrue();
+    assertThat(characterClass.contains('␁')).isTrue();
+    assertThat(characterClass.contains('ø')).isTrue();
+    assertThat(characterClass.contains('␂')).isFalse();
+    assertThat(characterClass.contains('b')).isFalse();
+    assertThat(characterClass.contains('￿')).isFalse();
+  }
+
+  @Test
+  void rangeIncludesBothEnds() {
+    CharacterClass digits = CharacterClass.range('0', '9');
+
+    assertThat(digits.contains('0')).isTrue();
+    assertThat(digits.contains('5')).isTrue();
+    assertThat(digits.contains('9')).isTrue();
+    assertThat(digits.contains('/')).isFalse();
+    assertThat(digits.contains(':')).isFalse();
+    assertThat(digits.contains('٣')).isFalse();
+  }
+
+  @Test
+  void rangeCanSpanAsciiAndNonAscii() {
+    CharacterClass characterClass = CharacterClass.range('~', '\u0081');
+
+    assertThat(characterClass.contains('}')).isFalse();
+    assertThat(characterClass.contains('~')).isTrue();
+    assertThat(characterClass.contains('\u007f')).isTrue();
+    assertThat(characterClass.contains('\u0080')).isTrue();
+    assertThat(characterClass.contains('\u0081')).isTrue();
+    assertThat(characterClass.contains('\u0082')).isFalse();
+  }
+
+  @Test
+  void rangeRejectsReversedBounds() {
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> CharacterClass.range('z', 'a'));
+  }
+
+  @Test
+  void unionContainsMembersOfBoth() {
+    CharacterClass characterClass = CharacterClass.range('a', 'c')
+        .union(CharacterClass.of('X', 'ø'))
+        .union(CharacterClass.of('ø', '␀'));
+
+    assertThat(characterClass.contains('a')).isTrue();
+    assertThat(characterClass.contains('c')).isTrue();
+    assertThat(characterClass.contains('X')).isTrue();
+    assertThat(characterClass.contains('ø')).isTrue();
+    assertThat(characterClass.contains('␀')).isTrue();
+    assertThat(characterClass.contains('d')).isFalse();
+    assertThat(characterClass.contains('x')).isFalse();
+  }
+}
@@ -0,0 +1,63 @@
+package com.sanctionco.jmail.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static com.sanctionco.jmail.helpers.Latches.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IoExecutorTest {
+
+  @Test
+  void sharedExecutorIsBounded() {
+    assertThat(IoExecutor.shared()).isInstanceOfSatisfying(ThreadPoolExecutor.class, pool -> {
+      assertThat(pool.getMaximumPoolSize()).isEqualTo(IoExecutor.MAX_THREADS);
+      assertThat(pool.getQueue().remainingCapacity() + pool.getQueue().size())
+          .isEqualTo(IoExecutor.MAX_QUEUED);
+      assertThat(pool.allowsCoreThreadTimeOut()).isTrue();
+    });
+  }
+
+  @Test
+  void runsTasksOnDaemonThreads() throws Exception {
+    Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, IoExecutor.shared())
+        .get(5, TimeUnit.SECONDS);
+
+    assertThat(thread.isDaemon()).isTrue();
+    assertThat(thread.getName()).startsWith("jmail-io-");
+  }
+
+  @Test
+  void failsTasksOnceSaturated() throws Exception {
+    ThreadPoolExecutor executor = IoExecutor.create(1, 1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    try {
+      // One task blocks the only thread, and a second fills the queue
+      executor.execute(() -> await(release));
+      final CompletableFuture<Thread> queued
+          = IoExecutor.supplyAsync(Thread::currentThread, executor);
+
+      CompletableFuture<Thread> rejected
+          = IoExecutor.supplyAsync(Thread::currentThread, executor);
+
+      assertThat(rejected).isCompletedExceptionally();
+      assertThatThrownBy(rejected::join)
+          .hasCauseInstanceOf(RejectedExecutionException.class);
+      assertThat(executor.getPoolSize()).isEqualTo(1);
+
+      release.countDown();
+
+      assertThat(queued.get(5, TimeUnit.SECONDS).getName()).startsWith("jmail-io-");
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.sanctionco.jmail.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static com.sanctionco.jmail.helpers.Latches.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class SingleFlightTest {
+  private static final int THREADS = 8;
+
+  @Test
+  void concurrentCallsShareOneResult() throws Exception {
+    SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    try {
+      List<Future<Integer>> results = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        results.add(executor.submit(() -> singleFlight.execute("key", key -> {
+          calls.incrementAndGet();
+          await(release);
+          return 42;
+        })));
+      }
+
+      awaitCoalesced(singleFlight, THREADS - 1);
+      release.countDown();
+
+      for (Future<Integer> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+      }
+
+      assertThat(calls).hasValue(1);
+      assertThat(singleFlight.coalescedCount()).isEqualTo(THREADS - 1);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void differentKeysAreNotShared() {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    assertThat(singleFlight.execute("a", String::toUpperCase)).isEqualTo("A");
+    assertThat(singleFlight.execute("b", String::toUpperCase)).isEqualTo("B");
+    assertThat(singleFlight.coalescedCount()).isZero();
+  }
+
+  @Test
+  void sequentialCallsRunTheFunctionAgain() {
+    SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    AtomicInteger calls = new AtomicInteger();
+
+    assertThat(singleFlight.execute("key", key -> calls.incrementAndGet())).isEqualTo(1);
+    assertThat(singleFlight.execute("key", key -> calls.incrementAndGet())).isEqualTo(2);
+    assertThat(singleFlight.coalescedCount()).isZero();
+  }
+
+  @Test
+  void exceptionsAreThrownToEveryCaller() throws Exception {
+    SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    try {
+      final Future<?> first = executor.submit(() -> singleFlight.execute("key", key -> {
+        started.countDown();
+        await(release);
+        throw new IllegalStateException("lookup failed");
+      }));
+
+      await(started);
+      Future<?> second = executor.submit(() -> singleFlight.execute("key", key -> 0));
+
+      awaitCoalesced(singleFlight, 1);
+      release.countDown();
+
+      for (Future<?> future : Arrays.asList(first, second)) {
+        assertThat(future).failsWithin(5, TimeUnit.SECONDS)
+            .withThrowableOfType(ExecutionException.class)
+            .havingCause()
+            .isInstanceOf(IllegalStateException.class)
+            .withMessage("lookup failed");
+      }
+
+      // The failed call is no longer in flight
+      assertThat(singleFlight.execute("key", key -> 1)).isEqualTo(1);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void exceptionIsThrownToCaller() {
+    SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    assertThatIllegalStateException().isThrownBy(() -> singleFlight.execute("key", key -> {
+      throw new IllegalStateException();
+    }));
+  }
+
+  static void awaitCoalesced(SingleFlight<?, ?> singleFlight, long expected)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+    while (singleFlight.coalescedCount() < expected && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+  }
+}
@@ -1,7 +1,9 @@
 package com.sanctionco.jmail.net;
 
 import org.assertj.core.api.Condition;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -86,4 +88,59 @@ class InternetProtocolAddressTest {
     assertThatExceptionOfType(InvalidAddressException.class)
         .isThrownBy(() -> InternetProtocolAddress.enforceValid(ip));
   }
+
+  @ParameterizedTest(name = "{0}")
+  @ValueSource(strings = {"1.2.3.4", "255.255.255.255", "1.2.3", "256.1.2.3", "notanip"})
+  void testIpv4RangeWithinLargerString(String ip) {
+    String embedded = "[" + ip + "]";
+
+    assertThat(InternetProtocolAddress.isValidIpv4(embedded, 1, embedded.length() - 1))
+        .isEqualTo(InternetProtocolAddress.validateIpv4(ip).isPresent());
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @ValueSource(strings = {
+      "::", "2001:db8::1234:5678", "::11.22.33.44", "2001:db8:::", "AAAG::2001", ":"})
+  void testIpv6RangeWithinLargerString(String ip) {
+    String embedded = "[IPv6:" + ip + "]";
+
+    assertThat(InternetProtocolAddress.isValidIpv6(embedded, 6, embedded.length() - 1))
+        .isEqualTo(InternetProtocolAddress.validateIpv6(ip).isPresent());
+  }
+
+  @Test
+  void testRangeDoesNotReadOutsideOfBounds() {
+    // The characters around each range would make the address valid if they were read
+    assertThat(InternetProtocolAddress.isValidIpv4("1.2.3.45", 0, 6)).isFalse();
+    assertThat(InternetProtocolAddress.isValidIpv4("11.2.3.4", 1, 8)).isTrue();
+    assertThat(InternetProtocolAddress.isValidIpv6("::1::", 0, 3)).isTrue();
+    assertThat(InternetProtocolAddress.isValidIpv6(":::", 1, 2)).isFalse();
+  }
+
+  @Test
+  void testEmptyRangeIsInvalid() {
+    assertThat(InternetProtocolAddress.isValidIpv4("1.2.3.4", 3, 3)).isFalse();
+    assertThat(InternetProtocolAddress.isValidIpv6("::", 1, 1)).isFalse();
+    assertThat(InternetProtocolAddress.isValidIpv4("", 0, 0)).isFalse();
+    assertThat(InternetProtocolAddress.isValidIpv6("", 0, 0)).isFalse();
+  }
+
+  @ParameterizedTest(name = "[{0}, {1})")
+  @CsvSource({"-1, 7", "0, 8", "5, 4", "8, 8"})
+  void testOutOfBoundsRangeThrows(int start, int end) {
+    assertThatExceptionOfType(IndexOutOfBoundsException.class)
+        .isThrownBy(() -> InternetProtocolAddress.isValidIpv4("1.2.3.4", start, end));
+
+    assertThatExceptionOfType(IndexOutOfBoundsException.class)
+        .isThrownBy(() -> InternetProtocolAddress.isValidIpv6("1.2.3.4", start, end));
+  }
+
+  @Test
+  void testNullSequenceThrows() {
+    assertThatExceptionOfType(NullPointerException.class)
+        .isThrownBy(() -> InternetProtocolAddress.isValidIpv4(null, 0, 0));
+
+    assertThatExceptionOfType(NullPointerException.class)
+        .isThrownBy(() -> InternetProtocolAddress.isValidIpv6(null, 0, 0));
+  }
 }